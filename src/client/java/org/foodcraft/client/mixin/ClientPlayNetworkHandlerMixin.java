@@ -0,0 +1,20 @@
+package org.foodcraft.client.mixin;
+
+import net.minecraft.client.network.ClientPlayNetworkHandler;
+import net.minecraft.network.packet.s2c.play.SynchronizeRecipesS2CPacket;
+import org.foodcraft.recipe.RecipeIndex;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(ClientPlayNetworkHandler.class)
+public abstract class ClientPlayNetworkHandlerMixin {
+    /**
+     * 客户端的配方管理器在配方同步时原地更新，需要手动使配方索引失效
+     */
+    @Inject(method = "onSynchronizeRecipes", at = @At("TAIL"))
+    private void foodcraft$onSynchronizeRecipes(SynchronizeRecipesS2CPacket packet, CallbackInfo ci) {
+        RecipeIndex.invalidate();
+    }
+}
@@ -90,7 +90,7 @@ public class GrindingStoneBlockEntityRenderer extends WithAnimationBlockEntityRe
         ItemStack output = new ItemStack(entity.getExpectedOutput());
 
         // 管理动画状态
-        manageAnimationState(entity, tickDelta, state);
+        manageAnimationState(entity, world, tickDelta);
 
         matrices.push();
         try {
@@ -143,22 +143,17 @@ public class GrindingStoneBlockEntityRenderer extends WithAnimationBlockEntityRe
     /**
      * 管理动画状态的更新逻辑
      */
-    private void manageAnimationState(GrindingStoneBlockEntity entity, float tickDelta, BlockState state) {
-        // 更新动画状态
-        if (entity.isGrinding()) {
-            if (!entity.grindingAnimationState.isRunning()) {
-                entity.grindingAnimationState.start(entity.getAge());
-            }
-        } else {
-            entity.grindingAnimationState.stop();
-        }
+    private void manageAnimationState(GrindingStoneBlockEntity entity, World world, float tickDelta) {
+        // 跟随服务端同步的研磨状态启动或停止动画
+        float animationProgress = entity.grindingAnimation.getElapsedTicks(world.getTime(), tickDelta);
+        entity.grindingAnimationState.follow(entity.grindingAnimation, animationProgress);
 
         // 应用动画
         applyAnimation(
                 entity.grindingAnimationState,
                 BlockAnimations.GRINDING_STONE_SPIN,
-                getAnimationProgress(entity.getAge(), tickDelta),
-                1.0F,
+                animationProgress,
+                entity.grindingAnimation.getSpeed(),
                 1.0F
         );
     }
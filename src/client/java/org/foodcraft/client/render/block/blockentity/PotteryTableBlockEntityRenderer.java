@@ -166,29 +166,19 @@ public class PotteryTableBlockEntityRenderer extends WithAnimationBlockEntityRen
             entity.clayBallAnimationState.resetRunningTime();
         }
 
-        // 管理工作台面和陶球动画状态
-        if (entity.workSurfaceAnimationState.isRunning) {
-            entity.workSurfaceAnimationState.startIfNotRunning(entity.getAge());
-        } else if (entity.workSurfaceAnimationState.isRunning()){
-            entity.workSurfaceAnimationState.stop();
-        }
-
-        if (entity.clayBallAnimationState.isRunning) {
-            entity.clayBallAnimationState.startIfNotRunning(entity.getAge());
-        } else if (entity.clayBallAnimationState.isRunning()){
-            entity.clayBallAnimationState.stop();
-        }
-
-        // 获取实体年龄和动画进度
-        int age = entity.getAge();
-        float animationProgress = getAnimationProgress(age, tickDelta);
+        // 跟随服务端同步的状态启动或停止工作台面和陶球动画
+        long time = entity.getWorld() != null ? entity.getWorld().getTime() : 0;
+        float workSurfaceProgress = entity.workSurfaceAnimation.getElapsedTicks(time, tickDelta);
+        float clayBallProgress = entity.clayBallAnimation.getElapsedTicks(time, tickDelta);
+        entity.workSurfaceAnimationState.follow(entity.workSurfaceAnimation, workSurfaceProgress);
+        entity.clayBallAnimationState.follow(entity.clayBallAnimation, clayBallProgress);
 
         // 更新工作台面动画
         alwaysUpdateAnimation(
                 entity.workSurfaceAnimationState,
                 BlockAnimations.POTTERY_TABLE_WORK_SURFACE_SPIN,
-                animationProgress,
-                1.0F,
+                workSurfaceProgress,
+                entity.workSurfaceAnimation.getSpeed(),
                 1.0F
         );
 
@@ -196,8 +186,8 @@ public class PotteryTableBlockEntityRenderer extends WithAnimationBlockEntityRen
         updateAnimation(
                 entity.clayBallAnimationState,
                 BlockAnimations.POTTERY_TABLE_CLAY_SPIN,
-                animationProgress,
-                1.0F,
+                clayBallProgress,
+                entity.clayBallAnimation.getSpeed(),
                 1.0F
         );
     }
@@ -198,52 +198,52 @@ public class ModModelLoader implements ModelLoadingPlugin {
         registerPlatingSequenceModels(
                 ModItems.IRON_PLATE,
                 Arrays.asList(
-                        new AddItemPlayerAction(Items.BEEF),
-                        new AddItemPlayerAction(Items.SWEET_BERRIES)
+                        AddItemPlayerAction.of(Items.BEEF),
+                        AddItemPlayerAction.of(Items.SWEET_BERRIES)
                 ),
                 ModContents.BEEF_BERRIES);
 
         registerPlatingSequenceModels(
                 ModItems.IRON_PLATE,
                 Arrays.asList(
-                        new AddItemPlayerAction(Items.RED_MUSHROOM),
-                        new AddItemPlayerAction(Items.BROWN_MUSHROOM),
-                        new AddItemPlayerAction(Items.BROWN_MUSHROOM),
-                        new AddItemPlayerAction(Items.BROWN_MUSHROOM),
-                        new AddItemPlayerAction(ModItems.SALT_FLOUR)
+                        AddItemPlayerAction.of(Items.RED_MUSHROOM),
+                        AddItemPlayerAction.of(Items.BROWN_MUSHROOM),
+                        AddItemPlayerAction.of(Items.BROWN_MUSHROOM),
+                        AddItemPlayerAction.of(Items.BROWN_MUSHROOM),
+                        AddItemPlayerAction.of(ModItems.SALT_FLOUR)
                 ),
                 ModContents.ROASTED_MUSHROOMS);
 
         registerPlatingSequenceModels(
                 ModItems.IRON_PLATE,
                 Arrays.asList(
-                        new AddItemPlayerAction(Items.BEEF),
-                        new AddItemPlayerAction(ModItems.SALT_FLOUR),
-                        new AddContentPlayerAction(ModContents.HONEY),
-                        new AddItemPlayerAction(ModItems.CARROT_SLICES),
-                        new AddItemPlayerAction(ModItems.CARROT_SLICES)
+                        AddItemPlayerAction.of(Items.BEEF),
+                        AddItemPlayerAction.of(ModItems.SALT_FLOUR),
+                        AddContentPlayerAction.of(ModContents.HONEY),
+                        AddItemPlayerAction.of(ModItems.CARROT_SLICES),
+                        AddItemPlayerAction.of(ModItems.CARROT_SLICES)
                 ),
                 ModContents.HONEY_ROASTED_BEEF);
 
         registerPlatingSequenceModels(
                 ModItems.IRON_PLATE,
                 Arrays.asList(
-                        new AddItemPlayerAction(ModItems.SALMON_CUBES),
-                        new AddItemPlayerAction(ModItems.SALMON_CUBES),
-                        new AddItemPlayerAction(ModItems.SALT_FLOUR),
-                        new AddItemPlayerAction(Items.GLOW_BERRIES),
-                        new AddItemPlayerAction(Items.GLOW_BERRIES),
-                        new AddItemPlayerAction(Items.GLOW_BERRIES),
-                        new AddItemPlayerAction(Items.GLOW_BERRIES)
+                        AddItemPlayerAction.of(ModItems.SALMON_CUBES),
+                        AddItemPlayerAction.of(ModItems.SALMON_CUBES),
+                        AddItemPlayerAction.of(ModItems.SALT_FLOUR),
+                        AddItemPlayerAction.of(Items.GLOW_BERRIES),
+                        AddItemPlayerAction.of(Items.GLOW_BERRIES),
+                        AddItemPlayerAction.of(Items.GLOW_BERRIES),
+                        AddItemPlayerAction.of(Items.GLOW_BERRIES)
                 ),
                 ModContents.FRY_SALMON_CUBES);
 
         registerPlatingSequenceModels(
                 ModItems.IRON_PLATE,
                 Arrays.asList(
-                        new AddItemPlayerAction(ModItems.POTATO_CUBES),
-                        new AddItemPlayerAction(ModItems.POTATO_CUBES),
-                        new AddItemPlayerAction(Items.COD)
+                        AddItemPlayerAction.of(ModItems.POTATO_CUBES),
+                        AddItemPlayerAction.of(ModItems.POTATO_CUBES),
+                        AddItemPlayerAction.of(Items.COD)
                 ),
                 ModContents.GRILLED_FISH_POTATOES);
     }
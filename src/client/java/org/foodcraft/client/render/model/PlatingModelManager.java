@@ -7,6 +7,7 @@ import net.minecraft.registry.Registries;
 import net.minecraft.util.Identifier;
 import org.foodcraft.FoodCraft;
 import org.foodcraft.block.process.playeraction.PlayerAction;
+import org.foodcraft.block.process.playeraction.PlayerActionSequenceKey;
 import org.foodcraft.contentsystem.content.DishesContent;
 import org.jetbrains.annotations.Nullable;
 
@@ -43,11 +44,11 @@ public class PlatingModelManager {
     private static final PlatingModelManager INSTANCE = new PlatingModelManager();
 
     /**
-     * 操作序列缓存：SequenceKey → Identifier
+     * 操作序列缓存：PlayerActionSequenceKey → Identifier
      *
      * <p>缓存完整的操作序列到模型标识符的映射，避免重复计算。</p>
      */
-    private final Map<SequenceKey, Identifier> sequenceCache = new HashMap<>();
+    private final Map<PlayerActionSequenceKey, Identifier> sequenceCache = new HashMap<>();
 
     /**
      * 配方模型缓存：Table<Item, String, Identifier>
@@ -97,7 +98,7 @@ public class PlatingModelManager {
 
         // 生成编码序列和缓存键
         List<String> codeSequence = generateCodeSequence(actions);
-        SequenceKey key = new SequenceKey(container, actions);
+        PlayerActionSequenceKey key = new PlayerActionSequenceKey(container, actions);
 
         // 尝试匹配完整配方（如果有完全匹配的配方，使用菜肴模型）
         Identifier recipeModel = tryMatchRecipeModel(container, codeSequence);
@@ -323,60 +324,4 @@ public class PlatingModelManager {
         int hash = builder.toString().hashCode();
         return String.format("%08x", Math.abs(hash));
     }
-
-    /**
-     * 操作序列缓存键
-     */
-    private static class SequenceKey {
-        private final Item container;
-        private final List<PlayerAction> actions;
-        private final int hashCode;
-
-        SequenceKey(Item container, List<PlayerAction> actions) {
-            this.container = container;
-            this.actions = new ArrayList<>(actions); // 防御性复制
-            this.hashCode = Objects.hash(container, actions);
-        }
-
-        @Override
-        public boolean equals(Object obj) {
-            if (this == obj) return true;
-            if (obj == null || getClass() != obj.getClass()) return false;
-
-            SequenceKey other = (SequenceKey) obj;
-
-            // 快速比较：先比较哈希值
-            if (this.hashCode != other.hashCode) {
-                return false;
-            }
-
-            // 详细比较
-            if (!Objects.equals(container, other.container)) {
-                return false;
-            }
-
-            if (actions.size() != other.actions.size()) {
-                return false;
-            }
-
-            for (int i = 0; i < actions.size(); i++) {
-                if (!actions.get(i).equals(other.actions.get(i))) {
-                    return false;
-                }
-            }
-
-            return true;
-        }
-
-        @Override
-        public int hashCode() {
-            return hashCode;
-        }
-
-        @Override
-        public String toString() {
-            return String.format("SequenceKey{container=%s, actions=%d}",
-                    Registries.ITEM.getId(container), actions.size());
-        }
-    }
-}
\ No newline at end of file
+}
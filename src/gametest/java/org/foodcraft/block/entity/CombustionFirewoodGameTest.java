@@ -0,0 +1,43 @@
+package org.foodcraft.block.entity;
+
+import net.fabricmc.fabric.api.gametest.v1.FabricGameTest;
+import net.minecraft.block.Blocks;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.test.GameTest;
+import net.minecraft.test.TestContext;
+import net.minecraft.util.math.BlockPos;
+import org.foodcraft.block.CombustionFirewoodBlock;
+import org.foodcraft.registry.ModBlocks;
+
+/**
+ * 不经过{@link CombustionFirewoodBlockEntity#setEnergy}直接放置的燃烧柴火堆的游戏测试
+ *
+ * <p>对应{@code /setblock}、{@code /clone}和结构方块：方块实体在已加载的区块中创建，之后可能从NBT读取能量，
+ * 没有区块加载事件，也没有调用任何改变能量的方法。</p>
+ */
+public class CombustionFirewoodGameTest implements FabricGameTest {
+    private static final BlockPos FIREWOOD_POS = new BlockPos(1, 1, 1);
+
+    @GameTest(templateName = EMPTY_STRUCTURE)
+    public void placedFirewoodReachesHalfEnergy(TestContext context) {
+        context.setBlockState(FIREWOOD_POS, ModBlocks.COMBUSTION_FIREWOOD.getDefaultState());
+
+        // 与/setblock带NBT相同：加入世界后才读取能量，NBT中没有结算时间
+        CombustionFirewoodBlockEntity firewood = context.getBlockEntity(FIREWOOD_POS);
+        NbtCompound nbt = new NbtCompound();
+        nbt.putInt("Energy", firewood.getHalfEnergy() + 20);
+        firewood.readNbt(nbt);
+
+        context.succeedWhen(() -> context.expectBlockProperty(FIREWOOD_POS,
+                CombustionFirewoodBlock.COMBUSTION_STATE, CombustionFirewoodBlock.CombustionState.FIRST_HALF));
+    }
+
+    @GameTest(templateName = EMPTY_STRUCTURE)
+    public void placedFirewoodWatchesClearance(TestContext context) {
+        context.setBlockState(FIREWOOD_POS, ModBlocks.COMBUSTION_FIREWOOD.getDefaultState());
+        context.setBlockState(FIREWOOD_POS.up(3), Blocks.STONE);
+
+        context.succeedWhen(() -> context.expectBlockProperty(FIREWOOD_POS,
+                CombustionFirewoodBlock.COMBUSTION_STATE, CombustionFirewoodBlock.CombustionState.FIRST_EXTINGUISHED));
+    }
+}
@@ -0,0 +1,207 @@
+package org.foodcraft.block.multi;
+
+import net.minecraft.util.math.BlockPos;
+
+import java.util.*;
+
+/**
+ * 基于{@link BlockPos}集合的旧版分解算法，作为基准测试的对照组
+ *
+ * <p>逐行保留了改用{@link MultiBlockOccupancy}位图之前{@link MultiBlock}中的实现：
+ * 立方体候选放入优先级队列，每次检查和标记都为每个位置创建新的{@link BlockPos}。</p>
+ */
+final class LegacyMultiBlockDecomposition {
+    private LegacyMultiBlockDecomposition() {
+    }
+
+    /**
+     * 立方体分解的结果
+     */
+    record Cube(BlockPos start, int size) {
+    }
+
+    private static class CubeCandidate {
+        public final BlockPos start;
+        public final int size;
+        public final int volume;
+
+        public CubeCandidate(BlockPos start, int size) {
+            this.start = start;
+            this.size = size;
+            this.volume = size * size * size;
+        }
+    }
+
+    /**
+     * 使用广度优先搜索找到连通的方块组件。
+     */
+    static List<List<BlockPos>> findConnectedComponents(List<BlockPos> validBlocks) {
+        Set<BlockPos> visited = new HashSet<>();
+        List<List<BlockPos>> components = new ArrayList<>();
+        Set<BlockPos> validSet = new HashSet<>(validBlocks);
+
+        // 定义六个方向：上下左右前后
+        int[][] directions = {
+                {1, 0, 0}, {-1, 0, 0},  // 东西
+                {0, 1, 0}, {0, -1, 0},  // 上下
+                {0, 0, 1}, {0, 0, -1}   // 南北
+        };
+
+        for (BlockPos block : validBlocks) {
+            if (!visited.contains(block)) {
+                List<BlockPos> component = new ArrayList<>();
+                Queue<BlockPos> queue = new LinkedList<>();
+
+                queue.add(block);
+                visited.add(block);
+                component.add(block);
+
+                while (!queue.isEmpty()) {
+                    BlockPos current = queue.poll();
+                    for (int[] dir : directions) {
+                        BlockPos neighbor = new BlockPos(
+                                current.getX() + dir[0],
+                                current.getY() + dir[1],
+                                current.getZ() + dir[2]);
+                        if (validSet.contains(neighbor) && !visited.contains(neighbor)) {
+                            visited.add(neighbor);
+                            component.add(neighbor);
+                            queue.add(neighbor);
+                        }
+                    }
+                }
+                components.add(component);
+            }
+        }
+        return components;
+    }
+
+    /**
+     * 将连通区域分解为实心立方体（使用贪心算法）。
+     */
+    static List<Cube> decomposeIntoSolidCubes(List<BlockPos> blocks) {
+        if (blocks.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Set<BlockPos> blockSet = new HashSet<>(blocks);
+        BlockPos min = findMinBounds(blocks);
+        BlockPos max = findMaxBounds(blocks);
+        Set<BlockPos> covered = new HashSet<>();
+        List<Cube> cubes = new ArrayList<>();
+
+        // 使用优先级队列按体积从大到小处理
+        PriorityQueue<CubeCandidate> candidateQueue = new PriorityQueue<>(
+                (a, b) -> Integer.compare(b.volume, a.volume));
+        generateCubeCandidates(blockSet, min, max, candidateQueue);
+
+        // 贪心选择：总是选择当前最大的可用立方体
+        while (!candidateQueue.isEmpty() && covered.size() < blocks.size()) {
+            CubeCandidate candidate = candidateQueue.poll();
+            if (isCubeAvailable(covered, candidate)) {
+                cubes.add(new Cube(candidate.start, candidate.size));
+                markCubeAsCovered(covered, candidate);
+            }
+        }
+
+        coverRemainingBlocks(blocks, covered, cubes);
+        return cubes;
+    }
+
+    private static void generateCubeCandidates(Set<BlockPos> blockSet, BlockPos min, BlockPos max,
+                                               PriorityQueue<CubeCandidate> queue) {
+        int maxPossibleSize = Math.min(
+                max.getX() - min.getX() + 1,
+                Math.min(max.getY() - min.getY() + 1, max.getZ() - min.getZ() + 1));
+
+        for (int size = maxPossibleSize; size >= 1; size--) {
+            for (int x = min.getX(); x <= max.getX() - size + 1; x++) {
+                for (int y = min.getY(); y <= max.getY() - size + 1; y++) {
+                    for (int z = min.getZ(); z <= max.getZ() - size + 1; z++) {
+                        BlockPos start = new BlockPos(x, y, z);
+                        if (isSolidCube(blockSet, start, size)) {
+                            queue.offer(new CubeCandidate(start, size));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean isSolidCube(Set<BlockPos> blockSet, BlockPos start, int size) {
+        for (int dx = 0; dx < size; dx++) {
+            for (int dy = 0; dy < size; dy++) {
+                for (int dz = 0; dz < size; dz++) {
+                    BlockPos pos = new BlockPos(
+                            start.getX() + dx,
+                            start.getY() + dy,
+                            start.getZ() + dz);
+                    if (!blockSet.contains(pos)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isCubeAvailable(Set<BlockPos> covered, CubeCandidate candidate) {
+        for (int dx = 0; dx < candidate.size; dx++) {
+            for (int dy = 0; dy < candidate.size; dy++) {
+                for (int dz = 0; dz < candidate.size; dz++) {
+                    BlockPos pos = new BlockPos(
+                            candidate.start.getX() + dx,
+                            candidate.start.getY() + dy,
+                            candidate.start.getZ() + dz);
+                    if (covered.contains(pos)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private static void markCubeAsCovered(Set<BlockPos> covered, CubeCandidate candidate) {
+        for (int dx = 0; dx < candidate.size; dx++) {
+            for (int dy = 0; dy < candidate.size; dy++) {
+                for (int dz = 0; dz < candidate.size; dz++) {
+                    BlockPos pos = new BlockPos(
+                            candidate.start.getX() + dx,
+                            candidate.start.getY() + dy,
+                            candidate.start.getZ() + dz);
+                    covered.add(pos);
+                }
+            }
+        }
+    }
+
+    private static void coverRemainingBlocks(List<BlockPos> blocks, Set<BlockPos> covered, List<Cube> cubes) {
+        for (BlockPos block : blocks) {
+            if (!covered.contains(block)) {
+                cubes.add(new Cube(block, 1));
+                covered.add(block);
+            }
+        }
+    }
+
+    private static BlockPos findMinBounds(List<BlockPos> blocks) {
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        for (BlockPos pos : blocks) {
+            minX = Math.min(minX, pos.getX());
+            minY = Math.min(minY, pos.getY());
+            minZ = Math.min(minZ, pos.getZ());
+        }
+        return new BlockPos(minX, minY, minZ);
+    }
+
+    private static BlockPos findMaxBounds(List<BlockPos> blocks) {
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+        for (BlockPos pos : blocks) {
+            maxX = Math.max(maxX, pos.getX());
+            maxY = Math.max(maxY, pos.getY());
+            maxZ = Math.max(maxZ, pos.getZ());
+        }
+        return new BlockPos(maxX, maxY, maxZ);
+    }
+}
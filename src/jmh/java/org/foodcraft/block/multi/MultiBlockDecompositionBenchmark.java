@@ -0,0 +1,86 @@
+package org.foodcraft.block.multi;
+
+import net.minecraft.util.math.BlockPos;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 方块堆拆分算法的基准测试
+ *
+ * <p>比较{@link MultiBlockOccupancy}位图上的分解与旧版基于{@link BlockPos}集合的实现
+ * （{@link LegacyMultiBlockDecomposition}）。形状取最大尺寸的实心、空心和棋盘格结构，
+ * 分别对应拆分时立方体最少、需要大量中等立方体和全部为单个方块的情况。</p>
+ *
+ * <pre>{@code
+ * gradle jmh -PjmhArgs=MultiBlockDecompositionBenchmark
+ * }</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultiBlockDecompositionBenchmark {
+    @Param({"full", "hollow", "checkerboard"})
+    public String shape;
+
+    @Param({"10"})
+    public int size;
+
+    private MultiBlockOccupancy occupancy;
+    private List<BlockPos> validBlocks;
+
+    @Setup
+    public void setup() {
+        occupancy = MultiBlockOccupancy.empty(size, size, size);
+        validBlocks = new ArrayList<>();
+        BlockPos start = new BlockPos(8, 64, 8);
+
+        for (int dx = 0; dx < size; dx++) {
+            for (int dy = 0; dy < size; dy++) {
+                for (int dz = 0; dz < size; dz++) {
+                    boolean occupied = switch (shape) {
+                        case "full" -> true;
+                        case "hollow" -> dx == 0 || dy == 0 || dz == 0 || dx == size - 1 || dy == size - 1 || dz == size - 1;
+                        case "checkerboard" -> ((dx + dy + dz) & 1) == 0;
+                        default -> throw new IllegalArgumentException(shape);
+                    };
+                    if (occupied) {
+                        occupancy.set(occupancy.index(dx, dy, dz), true);
+                        // 与旧版扫描世界时相同的X、Y、Z顺序
+                        validBlocks.add(start.add(dx, dy, dz));
+                    }
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public int[] bitsetCubes() {
+        return occupancy.decomposeIntoCubes();
+    }
+
+    @Benchmark
+    public List<LegacyMultiBlockDecomposition.Cube> legacyCubes() {
+        return LegacyMultiBlockDecomposition.decomposeIntoSolidCubes(validBlocks);
+    }
+
+    @Benchmark
+    public List<MultiBlockOccupancy> bitsetComponents() {
+        return occupancy.connectedComponents();
+    }
+
+    @Benchmark
+    public List<List<BlockPos>> legacyComponents() {
+        return LegacyMultiBlockDecomposition.findConnectedComponents(validBlocks);
+    }
+
+    @Benchmark
+    public int[] bitsetBoxes() {
+        return occupancy.decomposeIntoBoxes(MultiBlock.MAX_SIZE);
+    }
+}
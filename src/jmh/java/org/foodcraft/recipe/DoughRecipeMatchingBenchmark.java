@@ -0,0 +1,357 @@
+package org.foodcraft.recipe;
+
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 面团配方匹配的基准测试
+ *
+ * <p>面团配方没有单一的主键，每次揉面都要对所有面团配方调用{@code matches()}。
+ * 该基准生成一百多个随机配方和一组揉面状态（一半复制自某个配方，必然匹配），比较两种实现检查所有状态和配方的耗时：</p>
+ * <ul>
+ *   <li>{@code legacy} - 旧版{@link DoughRecipe}的逻辑：复制计数表、用流求和、复制额外物品列表后逐个移除</li>
+ *   <li>{@code compiled} - 当前的逻辑：预编译的要求数组，额外物品由{@link ExtraItemMatcher}分配</li>
+ * </ul>
+ *
+ * <p>为了不依赖游戏注册表，面粉、液体和物品都以整数表示，配料以其匹配的物品原始ID数组表示，
+ * {@code Ingredient.test}对应在该数组中线性查找。</p>
+ *
+ * <pre>{@code
+ * gradle jmh -PjmhArgs=DoughRecipeMatchingBenchmark
+ * }</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DoughRecipeMatchingBenchmark {
+    private static final int FLOUR_TYPES = 4;
+    private static final int LIQUID_TYPES = 3;
+    private static final int ITEM_POOL = 24;
+    private static final int EXTRA_SLOTS = 10;
+    private static final int REQUIRED_FLOUR = 3;
+    private static final int REQUIRED_LIQUID = 3;
+
+    @Param({"120"})
+    public int recipeCount;
+
+    @Param({"32"})
+    public int processCount;
+
+    private Recipe[] recipes;
+    private Process[] processes;
+
+    /**
+     * 一个面团配方，同时保存旧版的要求表和预编译的数组
+     */
+    private static final class Recipe {
+        private final Map<Integer, Integer> flourRequirements;
+        private final Map<Integer, Integer> liquidRequirements;
+        private final Map<int[], Integer> extraRequirements;
+
+        private final int[] flourTypes;
+        private final int[] flourAmounts;
+        private final int flourTotal;
+        private final int[] liquidTypes;
+        private final int[] liquidAmounts;
+        private final int liquidTotal;
+        private final ExtraItemMatcher extraItemMatcher;
+
+        private Recipe(Map<Integer, Integer> flourRequirements, Map<Integer, Integer> liquidRequirements,
+                       Map<int[], Integer> extraRequirements) {
+            this.flourRequirements = flourRequirements;
+            this.liquidRequirements = liquidRequirements;
+            this.extraRequirements = extraRequirements;
+
+            this.flourTypes = flourRequirements.keySet().stream().mapToInt(Integer::intValue).toArray();
+            this.flourAmounts = Arrays.stream(flourTypes).map(flourRequirements::get).toArray();
+            this.flourTotal = Arrays.stream(flourAmounts).sum();
+            this.liquidTypes = liquidRequirements.keySet().stream().mapToInt(Integer::intValue).toArray();
+            this.liquidAmounts = Arrays.stream(liquidTypes).map(liquidRequirements::get).toArray();
+            this.liquidTotal = Arrays.stream(liquidAmounts).sum();
+
+            IntSet[] itemIds = new IntSet[extraRequirements.size()];
+            int[] amounts = new int[extraRequirements.size()];
+            int i = 0;
+            for (Map.Entry<int[], Integer> requirement : extraRequirements.entrySet()) {
+                itemIds[i] = new IntOpenHashSet(requirement.getKey());
+                amounts[i++] = requirement.getValue();
+            }
+            this.extraItemMatcher = new ExtraItemMatcher(itemIds, amounts);
+        }
+
+        // ============ 旧版实现 ============
+
+        private boolean legacyMatches(Process process) {
+            if (!legacyMatchesFlours(process.getFlourCounts())) {
+                return false;
+            }
+            if (!legacyMatchesLiquids(process.getLiquidCounts())) {
+                return false;
+            }
+            if (!legacyMatchesExtraItems(process.getExtraItems())) {
+                return false;
+            }
+            return process.kneadingCount >= 2;
+        }
+
+        private boolean legacyMatchesFlours(Map<Integer, Integer> processFlours) {
+            for (Map.Entry<Integer, Integer> requirement : flourRequirements.entrySet()) {
+                int processCount = processFlours.getOrDefault(requirement.getKey(), 0);
+                if (processCount < requirement.getValue()) {
+                    return false;
+                }
+            }
+            int requiredTotal = flourRequirements.values().stream().mapToInt(Integer::intValue).sum();
+            int processTotal = processFlours.values().stream().mapToInt(Integer::intValue).sum();
+            return processTotal == requiredTotal;
+        }
+
+        private boolean legacyMatchesLiquids(Map<Integer, Integer> processLiquids) {
+            for (Map.Entry<Integer, Integer> requirement : liquidRequirements.entrySet()) {
+                int processCount = processLiquids.getOrDefault(requirement.getKey(), 0);
+                if (processCount < requirement.getValue()) {
+                    return false;
+                }
+            }
+            int requiredTotal = liquidRequirements.values().stream().mapToInt(Integer::intValue).sum();
+            int processTotal = processLiquids.values().stream().mapToInt(Integer::intValue).sum();
+            return processTotal == requiredTotal;
+        }
+
+        private boolean legacyMatchesExtraItems(List<Integer> processExtras) {
+            if (extraRequirements.isEmpty()) {
+                return processExtras.isEmpty();
+            }
+
+            List<Integer> remainingExtras = new ArrayList<>(processExtras);
+            for (Map.Entry<int[], Integer> requirement : extraRequirements.entrySet()) {
+                int[] ingredient = requirement.getKey();
+                int requiredCount = requirement.getValue();
+                int foundCount = 0;
+
+                Iterator<Integer> iterator = remainingExtras.iterator();
+                while (iterator.hasNext()) {
+                    int item = iterator.next();
+                    if (test(ingredient, item)) {
+                        foundCount++;
+                        iterator.remove();
+                        if (foundCount >= requiredCount) {
+                            break;
+                        }
+                    }
+                }
+                if (foundCount < requiredCount) {
+                    return false;
+                }
+            }
+            return remainingExtras.isEmpty();
+        }
+
+        private static boolean test(int[] ingredient, int item) {
+            for (int candidate : ingredient) {
+                if (candidate == item) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // ============ 当前实现 ============
+
+        private boolean compiledMatches(Process process) {
+            if (process.kneadingCount < 2) {
+                return false;
+            }
+
+            if (process.getTotalFlourCount() != flourTotal) {
+                return false;
+            }
+            for (int i = 0; i < flourTypes.length; i++) {
+                if (process.getFlourCount(flourTypes[i]) < flourAmounts[i]) {
+                    return false;
+                }
+            }
+
+            if (process.getTotalLiquidCount() != liquidTotal) {
+                return false;
+            }
+            for (int i = 0; i < liquidTypes.length; i++) {
+                if (process.getLiquidCount(liquidTypes[i]) < liquidAmounts[i]) {
+                    return false;
+                }
+            }
+
+            int[] units = ExtraItemMatcher.unitBuffer(process.slots.length);
+            int unitCount = 0;
+            for (int item : process.slots) {
+                if (item != 0) {
+                    units[unitCount++] = item;
+                }
+            }
+            return extraItemMatcher.matches(units, unitCount);
+        }
+    }
+
+    /**
+     * 揉面状态，计数表与{@code KneadingProcess}一样使用HashMap，额外物品槽位以0表示空
+     */
+    private static final class Process {
+        private final Map<Integer, Integer> flourCounts = new HashMap<>();
+        private final Map<Integer, Integer> liquidCounts = new HashMap<>();
+        private final int[] slots = new int[EXTRA_SLOTS];
+        private final int kneadingCount = 2;
+
+        // 旧版的访问方法每次都复制
+        private Map<Integer, Integer> getFlourCounts() {
+            return new HashMap<>(flourCounts);
+        }
+
+        private Map<Integer, Integer> getLiquidCounts() {
+            return new HashMap<>(liquidCounts);
+        }
+
+        private List<Integer> getExtraItems() {
+            List<Integer> extras = new ArrayList<>();
+            for (int item : slots) {
+                if (item != 0) {
+                    extras.add(item);
+                }
+            }
+            return extras;
+        }
+
+        // 当前的访问方法
+        private int getFlourCount(int type) {
+            return flourCounts.getOrDefault(type, 0);
+        }
+
+        private int getLiquidCount(int type) {
+            return liquidCounts.getOrDefault(type, 0);
+        }
+
+        private int getTotalFlourCount() {
+            int total = 0;
+            for (int count : flourCounts.values()) {
+                total += count;
+            }
+            return total;
+        }
+
+        private int getTotalLiquidCount() {
+            int total = 0;
+            for (int count : liquidCounts.values()) {
+                total += count;
+            }
+            return total;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+
+        recipes = new Recipe[recipeCount];
+        for (int r = 0; r < recipeCount; r++) {
+            Map<int[], Integer> extras = new LinkedHashMap<>();
+            int extraTotal = 0;
+            int ingredientCount = random.nextInt(4);
+            for (int i = 0; i < ingredientCount; i++) {
+                int[] ingredient = new int[1 + random.nextInt(3)];
+                for (int j = 0; j < ingredient.length; j++) {
+                    ingredient[j] = 1 + random.nextInt(ITEM_POOL);
+                }
+                int amount = 1 + random.nextInt(3);
+                extras.put(ingredient, amount);
+                extraTotal += amount;
+            }
+            if (extraTotal > EXTRA_SLOTS) {
+                extras.clear();
+            }
+            recipes[r] = new Recipe(randomCounts(random, FLOUR_TYPES, REQUIRED_FLOUR),
+                    randomCounts(random, LIQUID_TYPES, REQUIRED_LIQUID), extras);
+        }
+
+        processes = new Process[processCount];
+        for (int p = 0; p < processCount; p++) {
+            Process process = new Process();
+            if (p % 2 == 0) {
+                // 复制一个配方的要求，该配方必然匹配
+                Recipe recipe = recipes[random.nextInt(recipeCount)];
+                process.flourCounts.putAll(recipe.flourRequirements);
+                process.liquidCounts.putAll(recipe.liquidRequirements);
+                List<Integer> items = new ArrayList<>();
+                for (Map.Entry<int[], Integer> requirement : recipe.extraRequirements.entrySet()) {
+                    for (int i = 0; i < requirement.getValue(); i++) {
+                        items.add(requirement.getKey()[random.nextInt(requirement.getKey().length)]);
+                    }
+                }
+                fillSlots(process, items, random);
+                if (!recipe.compiledMatches(process)) {
+                    throw new IllegalStateException("Process copied from a recipe does not match it");
+                }
+            } else {
+                process.flourCounts.putAll(randomCounts(random, FLOUR_TYPES, REQUIRED_FLOUR));
+                process.liquidCounts.putAll(randomCounts(random, LIQUID_TYPES, REQUIRED_LIQUID));
+                List<Integer> items = new ArrayList<>();
+                int extraCount = random.nextInt(7);
+                for (int i = 0; i < extraCount; i++) {
+                    items.add(1 + random.nextInt(ITEM_POOL));
+                }
+                fillSlots(process, items, random);
+            }
+            processes[p] = process;
+        }
+    }
+
+    private static Map<Integer, Integer> randomCounts(Random random, int types, int total) {
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (int i = 0; i < total; i++) {
+            counts.merge(random.nextInt(types), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    private static void fillSlots(Process process, List<Integer> items, Random random) {
+        List<Integer> slots = new ArrayList<>(items);
+        while (slots.size() < EXTRA_SLOTS) {
+            slots.add(0);
+        }
+        Collections.shuffle(slots, random);
+        for (int i = 0; i < EXTRA_SLOTS; i++) {
+            process.slots[i] = slots.get(i);
+        }
+    }
+
+    @Benchmark
+    public int legacy() {
+        int matches = 0;
+        for (Process process : processes) {
+            for (Recipe recipe : recipes) {
+                if (recipe.legacyMatches(process)) {
+                    matches++;
+                }
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int compiled() {
+        int matches = 0;
+        for (Process process : processes) {
+            for (Recipe recipe : recipes) {
+                if (recipe.compiledMatches(process)) {
+                    matches++;
+                }
+            }
+        }
+        return matches;
+    }
+}
@@ -2,8 +2,6 @@ package org.foodcraft.block;
 
 import net.minecraft.block.*;
 import net.minecraft.block.entity.BlockEntity;
-import net.minecraft.block.entity.BlockEntityTicker;
-import net.minecraft.block.entity.BlockEntityType;
 import net.minecraft.enchantment.EnchantmentHelper;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.LivingEntity;
@@ -35,7 +33,6 @@ import net.minecraft.world.WorldView;
 import org.dfood.block.FoodBlock;
 import org.dfood.tag.ModTags;
 import org.foodcraft.block.entity.CombustionFirewoodBlockEntity;
-import org.foodcraft.registry.ModBlockEntityTypes;
 import org.foodcraft.registry.ModItems;
 import org.jetbrains.annotations.Nullable;
 
@@ -236,9 +233,15 @@ public class CombustionFirewoodBlock extends BlockWithEntity {
         return BlockRenderType.MODEL;
     }
 
+    /**
+     * 燃烧状态的转换由方块实体调度，不需要逐tick更新
+     * @see CombustionFirewoodBlockEntity#onScheduledTick(ServerWorld, BlockPos, BlockState)
+     */
     @Override
-    public @Nullable <T extends BlockEntity> BlockEntityTicker<T> getTicker(World world, BlockState state, BlockEntityType<T> type) {
-        return world.isClient ? null : checkType(type, ModBlockEntityTypes.COMBUSTION_FIREWOOD, CombustionFirewoodBlockEntity::tick);
+    public void scheduledTick(BlockState state, ServerWorld world, BlockPos pos, Random random) {
+        if (world.getBlockEntity(pos) instanceof CombustionFirewoodBlockEntity firewoodEntity) {
+            firewoodEntity.onScheduledTick(world, pos, state);
+        }
     }
 
     /**
@@ -72,6 +72,9 @@ public class GrindingStoneBlock extends BlockWithEntity {
 
         BlockEntity blockEntity = world.getBlockEntity(pos);
         if (blockEntity instanceof GrindingStoneBlockEntity grindingEntity) {
+            // 先补上降频模拟累计的tick，再根据最新的状态交互
+            grindingEntity.flushLod();
+
             // 空手时检查
             if (handStack.isEmpty()) {
                 // 检查是否可以研磨当前物品
@@ -117,6 +120,7 @@ public class GrindingStoneBlock extends BlockWithEntity {
         if (!state.isOf(newState.getBlock())) {
             BlockEntity blockEntity = world.getBlockEntity(pos);
             if (blockEntity instanceof GrindingStoneBlockEntity grindingEntity) {
+                grindingEntity.flushLod();
                 // 掉落所有物品
                 dropItems(grindingEntity, world, pos);
             }
@@ -27,7 +27,7 @@ import net.minecraft.world.World;
 import org.foodcraft.block.entity.CombustionFirewoodBlockEntity;
 import org.foodcraft.block.entity.HeatResistantSlateBlockEntity;
 import org.foodcraft.block.entity.UpPlaceBlockEntity;
-import org.foodcraft.block.multi.MultiBlockHelper;
+import org.foodcraft.block.multi.MultiBlockUpdateQueue;
 import org.foodcraft.registry.ModBlockEntityTypes;
 import org.foodcraft.registry.ModItems;
 import org.foodcraft.registry.ModSounds;
@@ -52,8 +52,8 @@ public class HeatResistantSlateBlock extends UpPlaceBlock {
         super.onBlockAdded(state, world, pos, oldState, notify);
 
         if (!world.isClient) {
-            // 处理方块放置
-            MultiBlockHelper.onBlockPlaced(world, pos, this);
+            // 记录方块放置，刻末统一处理
+            MultiBlockUpdateQueue.enqueuePlaced(world, pos, this);
         }
     }
 
@@ -62,8 +62,8 @@ public class HeatResistantSlateBlock extends UpPlaceBlock {
         super.neighborUpdate(state, world, pos, sourceBlock, fromPos, notify);
 
         if (!world.isClient) {
-            // 处理相邻方块更新，检查多方块结构完整性
-            MultiBlockHelper.onNeighborUpdate(world, pos, this);
+            // 记录相邻方块更新，刻末统一检查多方块结构完整性
+            MultiBlockUpdateQueue.enqueueNeighborUpdate(world, pos, fromPos, this);
         }
     }
 
@@ -77,7 +77,7 @@ public class HeatResistantSlateBlock extends UpPlaceBlock {
             }
 
             // 处理方块破坏
-            MultiBlockHelper.onBlockBroken(world, pos, this);
+            MultiBlockUpdateQueue.enqueueBroken(world, pos, this);
         }
 
         super.onStateReplaced(state, world, pos, newState, moved);
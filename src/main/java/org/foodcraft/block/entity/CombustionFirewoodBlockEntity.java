@@ -1,20 +1,47 @@
 package org.foodcraft.block.entity;
 
+import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.entity.BlockEntity;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.particle.ParticleTypes;
+import net.minecraft.server.world.ServerWorld;
 import net.minecraft.sound.SoundCategory;
 import net.minecraft.sound.SoundEvents;
+import net.minecraft.util.math.BlockBox;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
 import net.minecraft.util.math.random.Random;
 import net.minecraft.world.World;
 import org.foodcraft.block.CombustionFirewoodBlock;
 import org.foodcraft.block.FirewoodBlock;
 import org.foodcraft.registry.ModBlockEntityTypes;
-
+import org.foodcraft.util.BlockChangeTracker;
+import org.foodcraft.util.HeatNetwork;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * 燃烧中的柴火堆
+ *
+ * <h2>能量模型</h2>
+ * <p>能量以每tick {@value #BURN_RATE}点的速度线性消耗，因此只保存{@link #lastUpdateTick}时的能量，
+ * 当前能量由{@link World#getTime()}按需计算（见{@link #getEnergy()}），只有添柴、消耗和熄灭会重新结算。
+ * 燃烧状态和热量等级只会在能量越过50%和耗尽时改变，这两个时刻通过{@link World#scheduleBlockTick}精确调度，
+ * 方块实体只在状态转换时标记为脏。</p>
+ *
+ * <p>上方6格的空间通过{@link BlockChangeTracker}监听，其中任何方块变化都会在下一tick检查是否需要因阻塞而熄灭。</p>
+ *
+ * <p>热量等级改变时发布到{@link HeatNetwork}，炉子从网络读取聚合热量，不需要访问柴火堆方块实体。</p>
+ */
 public class CombustionFirewoodBlockEntity extends BlockEntity {
+    /** {@link #lastUpdateTick}时的能量 */
     protected int energy;
+    /** 上次结算能量时的世界时间，-1表示尚未加入世界 */
+    protected long lastUpdateTick = -1;
+    /** 已调度的方块刻的世界时间 */
+    protected long scheduledTick = -1;
+    @Nullable
+    protected BlockChangeTracker.Watch clearanceWatch;
     protected int cycleCount; // 循环次数
     protected boolean isFirstCycle = true; // 是否是首次循环
     /** 热量等级，0-无热量，1-低热量，2-高热量 */
@@ -23,6 +50,8 @@ public class CombustionFirewoodBlockEntity extends BlockEntity {
     static final int MAX_ENERGY = 12000;
     static final int HALF_ENERGY = MAX_ENERGY / 2; // 50%能量阈值
     static final int FIREWOOD_ENERGY = HALF_ENERGY; // 每次添柴增加50%能量
+    static final int BURN_RATE = 1; // 每tick消耗的能量
+    static final int CLEARANCE_HEIGHT = 6; // 需要保持为空气的上方高度
 
     public CombustionFirewoodBlockEntity(BlockPos pos, BlockState state) {
         super(ModBlockEntityTypes.COMBUSTION_FIREWOOD, pos, state);
@@ -39,6 +68,7 @@ public class CombustionFirewoodBlockEntity extends BlockEntity {
     public void writeNbt(NbtCompound nbt) {
         super.writeNbt(nbt);
         nbt.putInt("Energy", energy);
+        nbt.putLong("LastUpdateTick", lastUpdateTick);
         nbt.putInt("CycleCount", cycleCount);
         nbt.putBoolean("IsFirstCycle", isFirstCycle);
         nbt.putInt("HeatLevel", heatLevel); // 保存热量等级
@@ -48,6 +78,12 @@ public class CombustionFirewoodBlockEntity extends BlockEntity {
     public void readNbt(NbtCompound nbt) {
         super.readNbt(nbt);
         energy = nbt.getInt("Energy");
+        // 旧数据没有结算时间，从加入世界时开始计算；/setblock等命令在加入世界后才读取NBT，此时从当前时间开始计算
+        if (nbt.contains("LastUpdateTick")) {
+            lastUpdateTick = nbt.getLong("LastUpdateTick");
+        } else {
+            lastUpdateTick = world != null ? world.getTime() : -1;
+        }
         cycleCount = nbt.getInt("CycleCount");
         isFirstCycle = nbt.getBoolean("IsFirstCycle");
         heatLevel = nbt.getInt("HeatLevel"); // 读取热量等级
@@ -57,23 +93,138 @@ public class CombustionFirewoodBlockEntity extends BlockEntity {
         }
     }
 
+    @Override
+    public void setWorld(World world) {
+        super.setWorld(world);
+        if (lastUpdateTick < 0) {
+            lastUpdateTick = world.getTime();
+        }
+        if (world instanceof ServerWorld serverWorld) {
+            HeatNetwork.publish(serverWorld, pos, heatLevel);
+            // 在已加载的区块中创建（放置、/setblock、/clone、结构方块等）时没有区块加载事件，在此调度第一次状态转换
+            if (serverWorld.getChunkManager().isChunkLoaded(
+                    ChunkSectionPos.getSectionCoord(pos.getX()), ChunkSectionPos.getSectionCoord(pos.getZ()))) {
+                onLoaded();
+            }
+        }
+    }
+
+    @Override
+    public void markRemoved() {
+        super.markRemoved();
+        onUnloaded();
+    }
+
     /**
-     * 更新热量等级
+     * 所在区块加载完成后或在已加载的区块中加入世界时调用，结算离线期间的状态转换并恢复上方空间的监听
      */
-    public void updateHeatLevel() {
-        int oldHeatLevel = heatLevel;
+    public void onLoaded() {
+        updateClearanceWatch();
+        if (getEnergy() > 0 || getCachedState().get(CombustionFirewoodBlock.COMBUSTION_STATE).isBurning()) {
+            scheduleUpdate(1);
+        }
+    }
 
+    /**
+     * 方块实体被卸载或移除时调用，取消上方空间的监听并从热量网络中移除
+     */
+    public void onUnloaded() {
+        BlockChangeTracker.unwatch(clearanceWatch);
+        clearanceWatch = null;
+        scheduledTick = -1;
+        if (world instanceof ServerWorld serverWorld) {
+            HeatNetwork.remove(serverWorld, pos);
+        }
+    }
+
+    /**
+     * 由{@link CombustionFirewoodBlock#scheduledTick}调用，处理到期的状态转换和上方空间检查
+     */
+    public void onScheduledTick(ServerWorld world, BlockPos pos, BlockState state) {
+        scheduledTick = -1;
+        boolean wasBurning = state.get(CombustionFirewoodBlock.COMBUSTION_STATE).isBurning();
+
+        // 与逐tick消耗相同的顺序：先结算能量和状态，再检查上方空间
+        updateCombustionState();
+        if (wasBurning && !FirewoodBlock.hasClearSpaceAbove(world, pos)) {
+            // 上方空间被阻塞，强制熄灭
+            extinguishDueToObstruction(world, pos);
+        }
+
+        scheduleNextTransition();
+    }
+
+    /**
+     * 结算当前能量，之后的消耗从当前时间开始计算。只在能量被改变前调用
+     */
+    private void settleEnergy() {
+        this.energy = getEnergy();
+        if (world != null) {
+            this.lastUpdateTick = world.getTime();
+        }
+    }
+
+    /**
+     * 调度下一次状态转换：能量降到50%时热量等级降低，耗尽时燃尽
+     */
+    private void scheduleNextTransition() {
+        updateClearanceWatch();
+
+        int energy = getEnergy();
         if (energy <= 0) {
-            heatLevel = 0; // 未燃烧或能量耗尽，无热量
-        } else if (energy > HALF_ENERGY) {
-            heatLevel = 2; // 能量大于50%，高热量
-        } else {
-            heatLevel = 1; // 能量小于等于50%，低热量
+            return;
+        }
+        int remaining = energy > HALF_ENERGY ? energy - HALF_ENERGY : energy;
+        scheduleUpdate((remaining + BURN_RATE - 1) / BURN_RATE);
+    }
+
+    /**
+     * 在指定tick数后调度方块刻。同一位置只能有一个已调度的方块刻，需要提前时先清除已调度的方块刻。
+     */
+    private void scheduleUpdate(int delay) {
+        if (!(world instanceof ServerWorld serverWorld)) {
+            return;
         }
 
-        // 如果热量等级改变，标记需要同步
+        long tick = serverWorld.getTime() + delay;
+        Block block = getCachedState().getBlock();
+        if (serverWorld.getBlockTickScheduler().isQueued(pos, block)) {
+            if (scheduledTick >= 0 && scheduledTick <= tick) {
+                return;
+            }
+            serverWorld.getBlockTickScheduler().clearNextTicks(new BlockBox(pos));
+        }
+        serverWorld.scheduleBlockTick(pos, block, delay);
+        scheduledTick = tick;
+    }
+
+    /**
+     * 燃烧时监听上方空间，熄灭后取消监听
+     */
+    private void updateClearanceWatch() {
+        boolean burning = getCachedState().get(CombustionFirewoodBlock.COMBUSTION_STATE).isBurning();
+        if (burning && clearanceWatch == null && world instanceof ServerWorld serverWorld && !isRemoved()) {
+            BlockBox box = BlockBox.create(pos.up(), pos.up(CLEARANCE_HEIGHT));
+            clearanceWatch = BlockChangeTracker.watch(serverWorld, box, (changedWorld, changedPos) -> scheduleUpdate(1));
+        } else if (!burning && clearanceWatch != null) {
+            BlockChangeTracker.unwatch(clearanceWatch);
+            clearanceWatch = null;
+        }
+    }
+
+    /**
+     * 更新热量等级
+     */
+    public void updateHeatLevel() {
+        int oldHeatLevel = heatLevel;
+        heatLevel = getHeatLevel(getEnergy());
+
+        // 如果热量等级改变，标记需要保存并通知受热的炉子
         if (oldHeatLevel != heatLevel) {
             markDirty();
+            if (world instanceof ServerWorld serverWorld && !isRemoved()) {
+                HeatNetwork.publish(serverWorld, pos, heatLevel);
+            }
         }
     }
 
@@ -84,6 +235,42 @@ public class CombustionFirewoodBlockEntity extends BlockEntity {
         return heatLevel;
     }
 
+    /**
+     * 根据能量计算热量等级
+     */
+    private static int getHeatLevel(int energy) {
+        if (energy <= 0) {
+            return 0; // 未燃烧或能量耗尽，无热量
+        } else if (energy > HALF_ENERGY) {
+            return 2; // 能量大于50%，高热量
+        } else {
+            return 1; // 能量小于等于50%，低热量
+        }
+    }
+
+    /**
+     * 获取指定世界时间的热量等级，用于区块重新加载后推算离线期间的热量。
+     * 能量只在添柴、消耗和熄灭时结算，此后按时间线性消耗，因此对上次结算之后的时间是精确的，即使柴火堆已经燃尽；
+     * 更早的时间返回结算时的热量等级
+     */
+    public int getHeatLevelAt(long time) {
+        return getHeatLevel(getEnergyAt(time));
+    }
+
+    /**
+     * 获取指定世界时间之后热量等级下一次改变的世界时间
+     *
+     * @return 热量等级不会再改变时返回{@link Long#MAX_VALUE}
+     */
+    public long getNextHeatChangeAfter(long time) {
+        int energy = getEnergyAt(time);
+        if (energy <= 0) {
+            return Long.MAX_VALUE;
+        }
+        int remaining = energy > HALF_ENERGY ? energy - HALF_ENERGY : energy;
+        return time + (remaining + BURN_RATE - 1) / BURN_RATE;
+    }
+
     /**
      * 检查是否有热量
      */
@@ -97,10 +284,32 @@ public class CombustionFirewoodBlockEntity extends BlockEntity {
     public void updateCombustionState() {
         if (world == null || world.isClient()) return;
 
+        // 状态转换不结算能量，保存的能量和结算时间只在能量被改变时更新，炉子据此推算离线期间的热量
         CombustionFirewoodBlock.CombustionState currentState = getCachedState().get(CombustionFirewoodBlock.COMBUSTION_STATE);
         CombustionFirewoodBlock.CombustionState newState = currentState;
 
-        // 根据当前状态和能量值决定下一个状态
+        // 区块加载后结算时可能需要连续经过多个状态，例如首次点燃→燃烧过半→燃尽
+        CombustionFirewoodBlock.CombustionState nextState;
+        while ((nextState = getNextState(newState)) != newState) {
+            newState = nextState;
+        }
+
+        // 只有当状态确实改变时才更新，避免不必要的方块更新
+        if (currentState != newState) {
+            world.setBlockState(pos, getCachedState().with(CombustionFirewoodBlock.COMBUSTION_STATE, newState));
+            markDirty();
+        }
+
+        // 更新热量等级
+        updateHeatLevel();
+    }
+
+    /**
+     * 根据当前状态和能量值决定下一个状态
+     */
+    private CombustionFirewoodBlock.CombustionState getNextState(CombustionFirewoodBlock.CombustionState currentState) {
+        CombustionFirewoodBlock.CombustionState newState = currentState;
+        int energy = getEnergy();
         if (energy > 0) {
             // 燃烧状态转换
             switch (currentState) {
@@ -150,16 +359,7 @@ public class CombustionFirewoodBlockEntity extends BlockEntity {
                     break;
             }
         }
-
-        // 只有当状态确实改变时才更新，避免不必要的方块更新
-        if (currentState != newState) {
-            world.setBlockState(pos, getCachedState().with(CombustionFirewoodBlock.COMBUSTION_STATE, newState));
-        }
-
-        // 更新热量等级
-        updateHeatLevel();
-
-        markDirty();
+        return newState;
     }
 
     /**
@@ -191,11 +391,17 @@ public class CombustionFirewoodBlockEntity extends BlockEntity {
                             CombustionFirewoodBlock.CombustionState.AGAIN_EXTINGUISHED;
         };
 
-        this.energy = 0;
+        // 已经燃尽时保留原来的结算时间，炉子据此推算燃尽的时刻
+        if (getEnergy() > 0) {
+            this.energy = 0;
+            this.lastUpdateTick = world.getTime();
+        }
         world.setBlockState(pos, currentState.with(CombustionFirewoodBlock.COMBUSTION_STATE, extinguishedState));
         world.playSound(null, pos, SoundEvents.BLOCK_FIRE_EXTINGUISH, SoundCategory.BLOCKS, 0.5f, 1.0f);
         spawnExtinguishParticles(world, pos);
 
+        updateHeatLevel();
+        updateClearanceWatch();
         markDirty();
         return true;
     }
@@ -221,34 +427,6 @@ public class CombustionFirewoodBlockEntity extends BlockEntity {
         }
     }
 
-    public static void tick(World world, BlockPos pos, BlockState state, CombustionFirewoodBlockEntity blockEntity) {
-        // 每tick消耗1点能量
-        blockEntity.consumeEnergy();
-        blockEntity.checkClearSpaceAbove(world, pos, state);
-
-        // 如果能量耗尽且处于燃烧状态，更新到燃尽状态
-        if (blockEntity.energy <= 0 && state.get(CombustionFirewoodBlock.COMBUSTION_STATE).isBurning()) {
-            blockEntity.updateCombustionState();
-        }
-    }
-
-    /**
-     * 检查上方空间，如果不满足条件则强制熄灭
-     */
-    private void checkClearSpaceAbove(World world, BlockPos pos, BlockState state) {
-        if (world.isClient()) return;
-
-        // 只有在燃烧状态下才需要检查
-        CombustionFirewoodBlock.CombustionState currentState = state.get(CombustionFirewoodBlock.COMBUSTION_STATE);
-        if (!currentState.isBurning()) return;
-
-        // 检查上方空间
-        if (!FirewoodBlock.hasClearSpaceAbove(world, pos)) {
-            // 上方空间被阻塞，强制熄灭
-            extinguishDueToObstruction(world, pos);
-        }
-    }
-
     /**
      * 由于上方阻塞而强制熄灭
      */
@@ -264,11 +442,16 @@ public class CombustionFirewoodBlockEntity extends BlockEntity {
                     CombustionFirewoodBlock.CombustionState.FIRST_EXTINGUISHED :
                     CombustionFirewoodBlock.CombustionState.AGAIN_EXTINGUISHED;
         };
-        // 设置能量为0
-        this.energy = 0;
+        // 设置能量为0，已经燃尽时保留原来的结算时间
+        if (getEnergy() > 0) {
+            this.energy = 0;
+            this.lastUpdateTick = world.getTime();
+        }
 
         // 更新方块状态
         world.setBlockState(pos, currentState.with(CombustionFirewoodBlock.COMBUSTION_STATE, extinguishedState));
+        updateHeatLevel();
+        updateClearanceWatch();
 
         // 播放特殊的阻塞熄灭音效
         world.playSound(null, pos, SoundEvents.BLOCK_FIRE_EXTINGUISH, SoundCategory.BLOCKS, 0.7f, 0.8f);
@@ -305,7 +488,7 @@ public class CombustionFirewoodBlockEntity extends BlockEntity {
      * @return 是否成功添柴
      */
     public boolean addFirewood() {
-        if (energy >= MAX_ENERGY || isCompletelyExtinguished()) {
+        if (getEnergy() >= MAX_ENERGY || isCompletelyExtinguished()) {
             return false; // 能量已满或完全燃尽，无法添柴
         }
 
@@ -336,6 +519,7 @@ public class CombustionFirewoodBlockEntity extends BlockEntity {
         if (world != null) {
             world.setBlockState(pos, getCachedState().with(CombustionFirewoodBlock.COMBUSTION_STATE, newState));
         }
+        scheduleNextTransition();
         markDirty();
         return true;
     }
@@ -370,7 +554,7 @@ public class CombustionFirewoodBlockEntity extends BlockEntity {
      * 检查是否可以添柴
      */
     public boolean canAddFirewood() {
-        return energy < MAX_ENERGY && !isCompletelyExtinguished();
+        return getEnergy() < MAX_ENERGY && !isCompletelyExtinguished();
     }
 
     /**
@@ -381,9 +565,12 @@ public class CombustionFirewoodBlockEntity extends BlockEntity {
     }
 
     public void addEnergy(int energy) {
+        settleEnergy();
         this.energy = Math.min(this.energy + energy, MAX_ENERGY);
         updateHeatLevel();
         updateCombustionState();
+        scheduleNextTransition();
+        markDirty();
     }
 
     public boolean consumeEnergy() {
@@ -396,9 +583,10 @@ public class CombustionFirewoodBlockEntity extends BlockEntity {
      * @return 是否成功消耗了能量
      */
     public boolean consumeEnergy(int amount) {
-        if (energy <= 0 || amount <= 0) {
+        if (getEnergy() <= 0 || amount <= 0) {
             return false;
         }
+        settleEnergy();
 
         int oldEnergy = this.energy;
         this.energy = Math.max(0, this.energy - amount);
@@ -407,6 +595,8 @@ public class CombustionFirewoodBlockEntity extends BlockEntity {
         if (oldEnergy != this.energy) {
             updateHeatLevel();
             updateCombustionState();
+            scheduleNextTransition();
+            markDirty();
             return true;
         }
 
@@ -414,9 +604,12 @@ public class CombustionFirewoodBlockEntity extends BlockEntity {
     }
 
     public void setEnergy(int energy) {
+        settleEnergy();
         this.energy = Math.min(energy, MAX_ENERGY);
         updateHeatLevel();
         updateCombustionState();
+        scheduleNextTransition();
+        markDirty();
     }
 
 
@@ -425,7 +618,7 @@ public class CombustionFirewoodBlockEntity extends BlockEntity {
      * @return 能量是否<=0
      */
     public boolean isEnergyDepleted() {
-        return energy <= 0;
+        return getEnergy() <= 0;
     }
 
     /**
@@ -433,7 +626,7 @@ public class CombustionFirewoodBlockEntity extends BlockEntity {
      * @return 当前能量值
      */
     public int getCurrentEnergy() {
-        return energy;
+        return getEnergy();
     }
 
     /**
@@ -441,11 +634,25 @@ public class CombustionFirewoodBlockEntity extends BlockEntity {
      * @return 能量消耗进度，0表示满能量，1表示能量耗尽
      */
     public float getEnergyConsumptionProgress() {
-        return 1.0f - ((float) energy / MAX_ENERGY);
+        return 1.0f - ((float) getEnergy() / MAX_ENERGY);
     }
 
+    /**
+     * 获取当前能量值，由上次结算时的能量和经过的时间计算
+     */
     public int getEnergy() {
-        return energy;
+        return world != null ? getEnergyAt(world.getTime()) : Math.max(0, energy);
+    }
+
+    /**
+     * 获取指定世界时间的能量值
+     */
+    private int getEnergyAt(long time) {
+        if (lastUpdateTick < 0 || energy <= 0) {
+            return Math.max(0, energy);
+        }
+        long elapsed = Math.max(0, time - lastUpdateTick);
+        return (int) Math.max(0, energy - elapsed * BURN_RATE);
     }
 
     public static int getMaxEnergy() {
@@ -474,7 +681,7 @@ public class CombustionFirewoodBlockEntity extends BlockEntity {
      * 获取当前能量百分比
      */
     public float getEnergyRatio() {
-        return (float) energy / MAX_ENERGY;
+        return (float) getEnergy() / MAX_ENERGY;
     }
 
     /**
@@ -484,7 +691,7 @@ public class CombustionFirewoodBlockEntity extends BlockEntity {
         CombustionFirewoodBlock.CombustionState currentState = getCachedState().get(CombustionFirewoodBlock.COMBUSTION_STATE);
         return (currentState == CombustionFirewoodBlock.CombustionState.FIRST_EXTINGUISHED ||
                 currentState == CombustionFirewoodBlock.CombustionState.AGAIN_EXTINGUISHED) &&
-                energy <= 0;
+                getEnergy() <= 0;
     }
 
     /**
@@ -4,13 +4,11 @@ import net.minecraft.block.BlockState;
 import net.minecraft.block.ShapeContext;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.inventory.Inventories;
-import net.minecraft.inventory.Inventory;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.network.listener.ClientPlayPacketListener;
 import net.minecraft.network.packet.Packet;
 import net.minecraft.network.packet.s2c.play.BlockEntityUpdateS2CPacket;
-import net.minecraft.recipe.RecipeManager;
 import net.minecraft.sound.SoundCategory;
 import net.minecraft.util.ActionResult;
 import net.minecraft.util.Hand;
@@ -23,6 +21,7 @@ import net.minecraft.world.World;
 import org.foodcraft.FoodCraft;
 import org.foodcraft.block.process.CuttingProcess;
 import org.foodcraft.recipe.CutRecipe;
+import org.foodcraft.recipe.RecipeIndex;
 import org.foodcraft.registry.ModBlockEntityTypes;
 import org.foodcraft.registry.ModItems;
 import org.foodcraft.registry.ModRecipeTypes;
@@ -34,12 +33,10 @@ import java.util.Optional;
 public class CuttingBoardBlockEntity extends UpPlaceBlockEntity {
     private static final VoxelShape CONTENT_SHAPE = VoxelShapes.cuboid(0.125, 0.125, 0.125, 0.875, 0.25, 0.875);
 
-    private final RecipeManager.MatchGetter<Inventory, CutRecipe> cutRecipeMatchGetter;
     private final CuttingProcess<CuttingBoardBlockEntity> cuttingProcess;
 
     public CuttingBoardBlockEntity(BlockPos pos, BlockState state) {
         super(ModBlockEntityTypes.CUTTING_BOARD, pos, state, 5); // 5个槽位
-        this.cutRecipeMatchGetter = RecipeManager.createCachedMatchGetter(ModRecipeTypes.CUT);
         this.cuttingProcess = new CuttingProcess<>();
     }
 
@@ -60,7 +57,7 @@ public class CuttingBoardBlockEntity extends UpPlaceBlockEntity {
         ItemStack originalStack = getStack(0);
         setStack(0, stack);
 
-        boolean isValid = cutRecipeMatchGetter.getFirstMatch(this, world).isPresent();
+        boolean isValid = RecipeIndex.get(world).getFirstMatch(ModRecipeTypes.CUT, this, world).isPresent();
 
         // 恢复原始状态
         setStack(0, originalStack);
@@ -122,7 +119,7 @@ public class CuttingBoardBlockEntity extends UpPlaceBlockEntity {
     public ActionResult tryCutItem(PlayerEntity player, ItemStack tool, Hand hand, BlockHitResult hit) {
         // 如果没有活跃的流程，尝试开始新的流程
         if (!cuttingProcess.isActive() && cuttingProcess.isValidCuttingTool(tool) && !isEmpty()) {
-            Optional<CutRecipe> recipeOpt = cutRecipeMatchGetter.getFirstMatch(this, world);
+            Optional<CutRecipe> recipeOpt = RecipeIndex.get(world).getFirstMatch(ModRecipeTypes.CUT, this, world);
 
             if (recipeOpt.isPresent()) {
                 cuttingProcess.start(world, this);
@@ -151,7 +148,7 @@ public class CuttingBoardBlockEntity extends UpPlaceBlockEntity {
         }
 
         // 重新匹配当前库存
-        return cutRecipeMatchGetter.getFirstMatch(this, world);
+        return RecipeIndex.get(world).getFirstMatch(ModRecipeTypes.CUT, this, world);
     }
 
     @Override
@@ -8,7 +8,6 @@ import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.inventory.Inventories;
 import net.minecraft.inventory.Inventory;
 import net.minecraft.inventory.SidedInventory;
-import net.minecraft.inventory.SimpleInventory;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NbtCompound;
@@ -22,9 +21,12 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Direction;
 import net.minecraft.world.World;
 import org.foodcraft.recipe.GrindingRecipe;
+import org.foodcraft.recipe.RecipeIndex;
 import org.foodcraft.registry.ModRecipeTypes;
 import org.foodcraft.registry.ModBlockEntityTypes;
+import org.foodcraft.util.AnimationSyncState;
 import org.foodcraft.util.ModAnimationState;
+import org.foodcraft.util.SimulationLod;
 import org.jetbrains.annotations.Nullable;
 
 public class GrindingStoneBlockEntity extends BlockEntity implements SidedInventory, RecipeUnlocker, RecipeInputProvider {
@@ -40,18 +42,45 @@ public class GrindingStoneBlockEntity extends BlockEntity implements SidedInvent
     int grindingTime;
     int grindingTimeTotal;
 
+    /** 研磨动画的同步状态，只在开始和停止研磨时同步 */
+    public final AnimationSyncState grindingAnimation = new AnimationSyncState();
+    /** 客户端播放的研磨动画，服务端不使用 */
     public final ModAnimationState grindingAnimationState = new ModAnimationState();
     protected int age;
+    /** 远离玩家时累计若干tick后一次性推进 */
+    protected final SimulationLod.Clock lodClock = new SimulationLod.Clock();
+    /**
+     * 从NBT读取的写入时的世界时间，-1表示无需补算。
+     * 服务端加载后的第一次tick据此补上离线期间的研磨，客户端据此推算两次同步之间的研磨进度
+     */
+    protected long savedTick = -1;
+    /** 正在模拟时喷出产物等修改物品的操作不再补算累计的tick */
+    private boolean simulating;
 
     private final Object2IntOpenHashMap<Identifier> recipesUsed = new Object2IntOpenHashMap<>();
-    private final RecipeManager.MatchGetter<Inventory, ? extends GrindingRecipe> matchGetter;
 
     @Nullable
     private Recipe<?> lastRecipe;
 
+    /** 查询任意物品的配方时使用的输入视图，复用同一个实例而不是每次创建新的物品栏 */
+    private final RecipeInput recipeInput = new RecipeInput();
+
+    /**
+     * 输入物品匹配的配方缓存，以物品、数量、NBT哈希和配方索引为键，同时缓存配方产物的数量。
+     * 配方重载后配方索引会重建，缓存随之失效
+     */
+    @Nullable
+    private GrindingRecipe cachedRecipe;
+    @Nullable
+    private Item cachedRecipeItem;
+    private int cachedRecipeCount;
+    private int cachedRecipeNbtHash;
+    @Nullable
+    private RecipeIndex cachedRecipeIndex;
+    private int cachedOutputCount;
+
     public GrindingStoneBlockEntity(BlockPos pos, BlockState state) {
         super(ModBlockEntityTypes.GRINDING_STONE, pos, state);
-        this.matchGetter = RecipeManager.createCachedMatchGetter(ModRecipeTypes.GRINDING);
     }
 
     @Override
@@ -63,6 +92,9 @@ public class GrindingStoneBlockEntity extends BlockEntity implements SidedInvent
         this.grindingTime = nbt.getInt("GrindingTime");
         this.grindingTimeTotal = nbt.getInt("GrindingTimeTotal");
         this.age = nbt.getInt("Age");
+        this.lodClock.readNbt(nbt);
+        this.savedTick = nbt.contains("SavedTick") ? nbt.getLong("SavedTick") : -1;
+        this.grindingAnimation.readFromNbt(nbt.getCompound("GrindingAnimation"));
     }
 
     @Override
@@ -73,6 +105,11 @@ public class GrindingStoneBlockEntity extends BlockEntity implements SidedInvent
         nbt.putInt("GrindingTime", this.grindingTime);
         nbt.putInt("GrindingTimeTotal", this.grindingTimeTotal);
         nbt.putInt("Age", this.age);
+        this.lodClock.writeNbt(nbt);
+        if (this.world != null) {
+            nbt.putLong("SavedTick", this.world.getTime());
+        }
+        nbt.put("GrindingAnimation", this.grindingAnimation.toNbt());
     }
 
     @Override
@@ -113,19 +150,23 @@ public class GrindingStoneBlockEntity extends BlockEntity implements SidedInvent
 
     @Override
     public ItemStack removeStack(int slot, int amount) {
+        flushLod();
         return Inventories.splitStack(this.inventory, slot, amount);
     }
 
     @Override
     public ItemStack removeStack(int slot) {
+        flushLod();
         return Inventories.removeStack(this.inventory, slot);
     }
 
     @Override
     public void setStack(int slot, ItemStack stack) {
+        flushLod();
         if (slot == INPUT_SLOT_INDEX && !ItemStack.areEqual(stack, this.inventory.get(slot))) {
-            // 输入物品发生变化，重置研磨进度
+            // 输入物品发生变化，重置研磨进度，并把新的输入同步到客户端用于渲染产物
             this.resetGrindingProgress();
+            this.sync();
         }
         this.inventory.set(slot, stack);
         if (stack.getCount() > this.getMaxCountPerStack()) {
@@ -139,7 +180,7 @@ public class GrindingStoneBlockEntity extends BlockEntity implements SidedInvent
     }
 
     public Item getExpectedOutput(){
-        GrindingRecipe recipe = this.matchGetter.getFirstMatch(this, this.world).orElse(null);
+        GrindingRecipe recipe = getCurrentRecipe();
         if (recipe != null) {
             return recipe.getOutput(null).getItem();
         }
@@ -147,27 +188,52 @@ public class GrindingStoneBlockEntity extends BlockEntity implements SidedInvent
     }
 
     /**
-     * 获取当前输入物品对应的配方
+     * 获取当前输入物品对应的配方，只在输入物品或配方索引变化时重新匹配
      */
     @Nullable
     public GrindingRecipe getCurrentRecipe() {
         ItemStack inputStack = this.inventory.get(INPUT_SLOT_INDEX);
-        if (inputStack.isEmpty()) {
+        if (inputStack.isEmpty() || this.world == null) {
+            return null;
+        }
+
+        RecipeIndex recipeIndex = RecipeIndex.get(this.world);
+        NbtCompound stackNbt = inputStack.getNbt();
+        int nbtHash = stackNbt != null ? stackNbt.hashCode() : 0;
+
+        if (recipeIndex != cachedRecipeIndex || inputStack.getItem() != cachedRecipeItem
+                || inputStack.getCount() != cachedRecipeCount || nbtHash != cachedRecipeNbtHash) {
+            cachedRecipe = findRecipe(inputStack);
+            cachedOutputCount = cachedRecipe != null ? cachedRecipe.getOutput(null).getCount() : 0;
+            cachedRecipeIndex = recipeIndex;
+            cachedRecipeItem = inputStack.getItem();
+            cachedRecipeCount = inputStack.getCount();
+            cachedRecipeNbtHash = nbtHash;
+        }
+        return cachedRecipe;
+    }
+
+    /**
+     * 查询任意物品作为输入时匹配的配方
+     */
+    @Nullable
+    private GrindingRecipe findRecipe(ItemStack stack) {
+        if (stack.isEmpty() || this.world == null) {
             return null;
         }
-        Inventory tempInventory = new SimpleInventory(inputStack);
-        return this.matchGetter.getFirstMatch(tempInventory, this.world).orElse(null);
+        this.recipeInput.stack = stack;
+        try {
+            return RecipeIndex.get(this.world).getFirstMatch(ModRecipeTypes.GRINDING, this.recipeInput, this.world).orElse(null);
+        } finally {
+            this.recipeInput.stack = ItemStack.EMPTY;
+        }
     }
 
     /**
      * 检查物品是否可以作为任何研磨配方的输入
      */
     private boolean isValidGrindingInput(ItemStack stack) {
-        if (stack.isEmpty()) {
-            return false;
-        }
-        Inventory tempInventory = new SimpleInventory(stack);
-        return this.matchGetter.getFirstMatch(tempInventory, this.world).isPresent();
+        return findRecipe(stack) != null;
     }
 
     /**
@@ -201,8 +267,7 @@ public class GrindingStoneBlockEntity extends BlockEntity implements SidedInvent
         }
 
         // 获取配方信息
-        Inventory tempInventory = new SimpleInventory(stack);
-        GrindingRecipe recipe = this.matchGetter.getFirstMatch(tempInventory, this.world).orElse(null);
+        GrindingRecipe recipe = findRecipe(stack);
         if (recipe == null) {
             return AddInputResult.INVALID;
         }
@@ -363,42 +428,124 @@ public class GrindingStoneBlockEntity extends BlockEntity implements SidedInvent
     }
 
     public static void tick(World world, BlockPos pos, BlockState state, GrindingStoneBlockEntity blockEntity) {
-        blockEntity.age++;
-        if (blockEntity.age == Integer.MAX_VALUE) {
-            blockEntity.age = 0;
+        // 区块重新加载后，补上离线期间和卸载前累计尚未模拟的研磨
+        if (blockEntity.savedTick >= 0) {
+            long offlineTicks = Math.max(0, world.getTime() - blockEntity.savedTick - 1) + blockEntity.lodClock.drain();
+            blockEntity.savedTick = -1;
+            blockEntity.simulate(world, pos, (int) Math.min(offlineTicks, Integer.MAX_VALUE));
+        }
+
+        // 远离玩家时降低频率，累计的tick一次性推进
+        int ticks = blockEntity.lodClock.advance(world, pos);
+        if (ticks > 0) {
+            blockEntity.simulate(world, pos, ticks);
         }
+    }
+
+    /**
+     * 推进若干tick，结果与逐tick推进相同
+     */
+    private void simulate(World world, BlockPos pos, int ticks) {
+        this.simulating = true;
+        try {
+            simulateSteps(world, pos, ticks);
+        } finally {
+            this.simulating = false;
+        }
+    }
+
+    private void simulateSteps(World world, BlockPos pos, int ticks) {
+        int energyBefore = this.energy;
+        int grindingTimeBefore = this.grindingTime;
+        int grindingTimeTotalBefore = this.grindingTimeTotal;
+        boolean crafted = false;
+        while (ticks > 0) {
+            // 无法研磨且没有产物时状态不再改变，直接跳过剩余的tick，离线补算的开销因此受能量上限约束
+            if (!(this.energy > 0 && this.canGrind()) && this.getStack(OUTPUT_SLOT_INDEX).isEmpty()) {
+                this.age = (int) ((this.age + (long) ticks) % Integer.MAX_VALUE);
+                break;
+            }
 
+            // 每10tick尝试给予产物，以此把推进分段，段内只有研磨完成会改变是否可以研磨
+            int step = Math.min(ticks, 10 - Math.floorMod(this.age, 10));
+            ticks -= step;
+            this.age = (int) ((this.age + (long) step) % Integer.MAX_VALUE);
+            crafted |= grind(step);
+
+            // 尝试给予产物
+            if (this.age % 10 == 0) {
+                ItemStack outputStack = this.getStack(OUTPUT_SLOT_INDEX);
+                if (!outputStack.isEmpty()) {
+                    this.ejectOutputItem(world, pos);
+                }
+            }
+        }
+
+        // 下一个物品的研磨总时间在开始前就确定，客户端可以立即推算进度
+        boolean running = this.energy > 0 && this.canGrind();
+        if (running && this.grindingTime == 0) {
+            GrindingRecipe recipe = this.getCurrentRecipe();
+            if (recipe != null) {
+                this.grindingTimeTotal = recipe.getGrindingTime();
+            }
+        }
+
+        // 只在状态改变时保存，未保存时重新加载会从旧的存档时间补算，结果相同
+        if (crafted || this.energy != energyBefore || this.grindingTime != grindingTimeBefore
+                || this.grindingTimeTotal != grindingTimeTotalBefore) {
+            this.markDirty();
+        }
+        // 只在开始、停止和完成研磨时同步，之间的进度由客户端推算
+        if (this.grindingAnimation.update(running, world.getTime()) || crafted) {
+            this.sync();
+        }
+    }
+
+    /**
+     * 研磨若干tick，每tick消耗1点能量并增加1点进度
+     *
+     * @return 是否完成了研磨
+     */
+    private boolean grind(int ticks) {
+        boolean crafted = false;
         // 如果当前有能量且可以研磨，则继续或开始研磨
-        if (blockEntity.energy > 0 && blockEntity.canGrind()) {
+        while (ticks > 0 && this.energy > 0 && this.canGrind()) {
             // 如果当前没有研磨进度，则初始化
-            if (blockEntity.grindingTime == 0) {
-                GrindingRecipe recipe = blockEntity.getCurrentRecipe();
+            if (this.grindingTime == 0) {
+                GrindingRecipe recipe = this.getCurrentRecipe();
                 if (recipe != null) {
-                    blockEntity.grindingTimeTotal = recipe.getGrindingTime();
+                    this.grindingTimeTotal = recipe.getGrindingTime();
                 }
             }
 
-            // 消耗能量并增加进度
-            blockEntity.energy--;
-            blockEntity.grindingTime++;
+            // 消耗能量并增加进度，最多推进到完成所在的tick
+            int step = Math.min(Math.min(ticks, this.energy), Math.max(1, this.grindingTimeTotal - this.grindingTime));
+            this.energy -= step;
+            this.grindingTime += step;
+            ticks -= step;
 
             // 检查是否研磨完成
-            if (blockEntity.grindingTime >= blockEntity.grindingTimeTotal) {
-                blockEntity.resetGrindingProgress();
-                blockEntity.grindItem();
+            if (this.grindingTime >= this.grindingTimeTotal) {
+                this.resetGrindingProgress();
+                this.grindItem();
+                crafted = true;
             }
         }
+        return crafted;
+    }
 
-        // 尝试给予产物
-        if (!world.isClient && blockEntity.age % 10 == 0) {
-            ItemStack outputStack = blockEntity.getStack(OUTPUT_SLOT_INDEX);
-            if (!outputStack.isEmpty()) {
-                blockEntity.ejectOutputItem(world, pos);
-            }
+    /**
+     * 补上累计尚未模拟的tick，在物品或能量被外部修改前调用，保证降频模拟的结果与逐tick相同
+     */
+    public void flushLod() {
+        if (this.world == null || this.world.isClient || this.simulating) {
+            return;
+        }
+        // 先取出累计的tick，模拟过程中修改物品不会再次触发
+        int ticks = this.lodClock.drain();
+        if (ticks > 0) {
+            this.simulate(this.world, this.pos, ticks);
         }
-
-        blockEntity.markDirty();
-        blockEntity.sync();
     }
 
     /**
@@ -453,7 +600,7 @@ public class GrindingStoneBlockEntity extends BlockEntity implements SidedInvent
             return false;
         }
 
-        int resultCount = outputSlot.getCount() + output.getCount();
+        int resultCount = outputSlot.getCount() + this.cachedOutputCount;
         return resultCount <= getMaxCountPerStack() && resultCount <= outputSlot.getMaxCount();
     }
 
@@ -484,12 +631,25 @@ public class GrindingStoneBlockEntity extends BlockEntity implements SidedInvent
         return this.grindingTime > 0 && this.energy > 0;
     }
 
+    /**
+     * 客户端推算的自上次同步以来研磨的tick数，研磨停止或在服务端时为0
+     */
+    private long getPredictedTicks() {
+        if (this.world == null || !this.world.isClient || !this.grindingAnimation.isRunning() || this.savedTick < 0) {
+            return 0;
+        }
+        return Math.min(this.energy, Math.max(0, this.world.getTime() - this.savedTick));
+    }
+
     public int getGrindingTimeTotal() {
         return this.grindingTimeTotal;
     }
 
+    /**
+     * 获取能量，客户端根据上次同步后研磨的时间推算
+     */
     public int getEnergy() {
-        return energy;
+        return (int) (energy - getPredictedTicks());
     }
 
     public int getMaxEnergy() {
@@ -497,14 +657,17 @@ public class GrindingStoneBlockEntity extends BlockEntity implements SidedInvent
     }
 
     public void setEnergy(int energy) {
+        flushLod();
         this.energy = Math.min(energy, MAX_ENERGY);
         markDirty();
+        sync();
     }
 
     /**
      * 尝试添加能量，考虑时间间隔限制
      */
     public boolean tryAddEnergy(int amount) {
+        flushLod();
         if (this.age - this.lastEnergyAddTime < MIN_ENERGY_ADD_INTERVAL) {
             return false;
         }
@@ -522,13 +685,17 @@ public class GrindingStoneBlockEntity extends BlockEntity implements SidedInvent
     }
 
     public void addEnergy(int energy) {
+        flushLod();
         this.energy = Math.min(this.energy + energy, MAX_ENERGY);
         markDirty();
+        sync();
     }
 
     public void consumeEnergy(int energy) {
+        flushLod();
         this.energy = Math.max(0, this.energy - energy);
         markDirty();
+        sync();
     }
 
     @Override
@@ -546,7 +713,7 @@ public class GrindingStoneBlockEntity extends BlockEntity implements SidedInvent
     }
 
     public boolean canPlaySound(){
-        return this.energy >= 20;
+        return this.getEnergy() >= 20;
     }
 
     public void sync() {
@@ -560,7 +727,8 @@ public class GrindingStoneBlockEntity extends BlockEntity implements SidedInvent
      */
     public float getGrindingProgress() {
         if (grindingTimeTotal != 0) {
-            return (float) grindingTime / grindingTimeTotal * 100.0f;
+            long predictedTime = Math.min(grindingTimeTotal, grindingTime + getPredictedTicks());
+            return (float) predictedTime / grindingTimeTotal * 100.0f;
         }
         return 0.0f;
     }
@@ -578,6 +746,55 @@ public class GrindingStoneBlockEntity extends BlockEntity implements SidedInvent
         return drops;
     }
 
+    /**
+     * 只读的单槽输入视图，槽位0为正在查询的物品
+     */
+    private static final class RecipeInput implements Inventory {
+        private ItemStack stack = ItemStack.EMPTY;
+
+        @Override
+        public int size() {
+            return 1;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return this.stack.isEmpty();
+        }
+
+        @Override
+        public ItemStack getStack(int slot) {
+            return slot == 0 ? this.stack : ItemStack.EMPTY;
+        }
+
+        @Override
+        public ItemStack removeStack(int slot, int amount) {
+            return ItemStack.EMPTY;
+        }
+
+        @Override
+        public ItemStack removeStack(int slot) {
+            return ItemStack.EMPTY;
+        }
+
+        @Override
+        public void setStack(int slot, ItemStack stack) {
+        }
+
+        @Override
+        public void markDirty() {
+        }
+
+        @Override
+        public boolean canPlayerUse(PlayerEntity player) {
+            return false;
+        }
+
+        @Override
+        public void clear() {
+        }
+    }
+
     public enum AddInputResult {
         SUCCESS,
         FULL,
@@ -13,6 +13,7 @@ import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.inventory.Inventory;
 import net.minecraft.inventory.SidedInventory;
 import net.minecraft.inventory.SimpleInventory;
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.nbt.NbtList;
@@ -20,13 +21,16 @@ import net.minecraft.network.listener.ClientPlayPacketListener;
 import net.minecraft.network.packet.Packet;
 import net.minecraft.network.packet.s2c.play.BlockEntityUpdateS2CPacket;
 import net.minecraft.recipe.*;
+import net.minecraft.server.world.ServerWorld;
 import net.minecraft.sound.SoundCategory;
 import net.minecraft.sound.SoundEvents;
 import net.minecraft.util.ActionResult;
 import net.minecraft.util.Hand;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.hit.BlockHitResult;
+import net.minecraft.util.math.BlockBox;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
 import net.minecraft.util.math.Direction;
 import net.minecraft.util.shape.VoxelShape;
 import net.minecraft.util.shape.VoxelShapes;
@@ -38,10 +42,14 @@ import org.foodcraft.block.FirewoodBlock;
 import org.foodcraft.block.HeatResistantSlateBlock;
 import org.foodcraft.block.multi.*;
 import org.foodcraft.item.ModSharpKitchenwareItem;
+import org.foodcraft.recipe.RecipeIndex;
 import org.foodcraft.recipe.StoveRecipe;
 import org.foodcraft.registry.ModBlockEntityTypes;
 import org.foodcraft.registry.ModRecipeTypes;
+import org.foodcraft.util.BlockChangeTracker;
 import org.foodcraft.util.FoodCraftUtils;
+import org.foodcraft.util.HeatNetwork;
+import org.foodcraft.util.SimulationLod;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
@@ -49,7 +57,6 @@ import org.slf4j.Logger;
 import java.util.*;
 
 public class HeatResistantSlateBlockEntity extends UpPlaceBlockEntity implements MultiBlockEntity, SidedInventory, RecipeUnlocker, RecipeInputProvider {
-    protected static final int MIN_CHECK_INTERVAL = 10;
     protected static final String MULTIBLOCK_REF_KEY = "MultiBlockRef";
     protected static final double INPUT_OFFSET_Y = 0.1;
     protected static final int MIN_BAKING_TIME = 100; // 最小烘烤时间
@@ -65,23 +72,63 @@ public class HeatResistantSlateBlockEntity extends UpPlaceBlockEntity implements
     protected NbtCompound refNbt;
 
     protected Set<BlockPos> firewoodPos = new HashSet<>(); // 绑定的柴火堆位置集合
-    protected Set<CombustionFirewoodBlockEntity> firewoodEntities = new HashSet<>(); // 缓存的柴火堆方块实体集合
+    protected Set<CombustionFirewoodBlockEntity> firewoodEntities = new HashSet<>(); // 缓存的柴火堆方块实体集合，只在交互时按需获取
+    /** 绑定柴火堆在热量网络中的订阅，烘烤时只读取其中缓存的聚合热量 */
+    @Nullable
+    protected HeatNetwork.Consumer heatConsumer;
 
-    /**@see HeatResistantSlateBlockEntity#getBakingSpeed() */
+    /**@see HeatNetwork.Consumer#getBakingSpeed() */
     protected int bakingTime;
     protected int bakingTimeTotal;
+    /**
+     * 最近一次同步时的烘烤速度和世界时间。烘烤进度只在开始、速度变化、完成和中断时同步，
+     * 客户端在两次同步之间按速度自行推算进度，见{@link #getBakingTime()}
+     */
+    protected int bakingRate;
+    protected long bakingSyncTick;
 
     protected final Object2IntOpenHashMap<Identifier> recipesUsed = new Object2IntOpenHashMap<>();
-    protected final RecipeManager.MatchGetter<Inventory, ? extends StoveRecipe> matchGetter;
     @Nullable
     protected Recipe<?> lastRecipe;
 
+    /**
+     * 当前物品匹配的配方缓存，以物品、数量、NBT哈希和配方索引为键。
+     * 容器种类由物品和NBT决定，无需单独比较；配方重载后配方索引会重建，缓存随之失效
+     */
+    @Nullable
+    protected StoveRecipe cachedRecipe;
+    @Nullable
+    protected Item cachedRecipeItem;
+    protected int cachedRecipeCount;
+    protected int cachedRecipeNbtHash;
+    @Nullable
+    protected RecipeIndex cachedRecipeIndex;
+
     public int age;
-    protected int lastCheckTime = 0;
+
+    /** 结构检查结果是否需要重新计算，由{@link #patternWatch}在相关方块变化时设置 */
+    protected boolean patternDirty = true;
+    @Nullable
+    protected BlockChangeTracker.Watch patternWatch;
+
+    /**
+     * 从方块绑定的主方块实体。绑定后从方块不再运行炉子逻辑，只作为主方块的视图，
+     * 烘烤由主方块统一推进，见{@link #getStoveMembers(World)}
+     */
+    @Nullable
+    protected HeatResistantSlateBlockEntity master;
+    /** 主方块缓存的结构成员（包括主方块自身），为null时在下次tick重新收集 */
+    @Nullable
+    protected List<HeatResistantSlateBlockEntity> stoveMembers;
+    /** 主方块的模拟时钟，远离玩家时累计若干tick后一次性推进所有成员 */
+    protected final SimulationLod.Clock lodClock = new SimulationLod.Clock();
+    /** 从NBT加载时读取的保存时的世界时间，主方块在加载后的第一次tick补上离线期间的烘烤，-1表示无需补算 */
+    protected long savedTick = -1;
+    /** 最近一次推进烘烤时的世界时间，主方块补算时跳过卸载期间仍在运行的成员 */
+    protected long lastSimulatedTick = Long.MIN_VALUE;
 
     public HeatResistantSlateBlockEntity(BlockPos pos, BlockState state) {
         super(ModBlockEntityTypes.HEAT_RESISTANT_SLATE, pos, state, 1);
-        this.matchGetter = RecipeManager.createCachedMatchGetter(ModRecipeTypes.STOVE);
         this.bakingTime = 0;
         this.bakingTimeTotal = 0;
     }
@@ -114,6 +161,12 @@ public class HeatResistantSlateBlockEntity extends UpPlaceBlockEntity implements
         // 保存烘烤进度
         nbt.putInt("BakingTime", bakingTime);
         nbt.putInt("BakingTimeTotal", bakingTimeTotal);
+        nbt.putInt("BakingRate", bakingRate);
+        nbt.putLong("BakingSyncTick", bakingSyncTick);
+        lodClock.writeNbt(nbt);
+        if (world != null) {
+            nbt.putLong("SavedTick", world.getTime());
+        }
     }
 
     @Override
@@ -163,6 +216,10 @@ public class HeatResistantSlateBlockEntity extends UpPlaceBlockEntity implements
         // 读取烘烤进度
         bakingTime = nbt.getInt("BakingTime");
         bakingTimeTotal = nbt.getInt("BakingTimeTotal");
+        bakingRate = nbt.getInt("BakingRate");
+        bakingSyncTick = nbt.getLong("BakingSyncTick");
+        lodClock.readNbt(nbt);
+        savedTick = nbt.contains("SavedTick") ? nbt.getLong("SavedTick") : -1;
     }
 
     @Override
@@ -189,7 +246,7 @@ public class HeatResistantSlateBlockEntity extends UpPlaceBlockEntity implements
         }
 
         Inventory tempInventory = new SimpleInventory(stack);
-        return this.matchGetter.getFirstMatch(tempInventory, this.world).isPresent();
+        return RecipeIndex.get(this.world).getFirstMatch(ModRecipeTypes.STOVE, tempInventory, this.world).isPresent();
     }
 
     @Override
@@ -287,6 +344,9 @@ public class HeatResistantSlateBlockEntity extends UpPlaceBlockEntity implements
         this.currentStoveResult = null;
         this.stoveStructureType = -1;
         this.isValidStove = false;
+        this.patternDirty = true;
+        this.master = null;
+        this.stoveMembers = null;
 
         // 标记需要保存和同步
         this.markDirty();
@@ -318,6 +378,40 @@ public class HeatResistantSlateBlockEntity extends UpPlaceBlockEntity implements
         return multiBlockRef != null && multiBlockRef.isMasterBlock();
     }
 
+    /**
+     * 获取负责运行炉子逻辑的方块实体
+     * @return 已绑定的主方块实体，如果当前方块就是主方块或尚未绑定则返回自身
+     */
+    public HeatResistantSlateBlockEntity getMaster() {
+        if (master != null && !master.isRemoved() && multiBlockRef != null && multiBlockRef.isValid()) {
+            return master;
+        }
+        return this;
+    }
+
+    /**
+     * 从方块的主方块所在区块未加载，无法解析主方块。
+     * 此时从方块既不自行烘烤也不重置进度，等主方块重新加载后由它补算
+     */
+    private boolean isAwaitingMaster(World world) {
+        if (!(multiBlockRef instanceof ServerMultiBlockReference) || !multiBlockRef.isValid() || multiBlockRef.isMasterBlock()) {
+            return false;
+        }
+        if (master != null && !master.isRemoved()) {
+            return false;
+        }
+        BlockPos masterPos = multiBlockRef.getMasterWorldPos();
+        return !world.getChunkManager().isChunkLoaded(
+                ChunkSectionPos.getSectionCoord(masterPos.getX()), ChunkSectionPos.getSectionCoord(masterPos.getZ()));
+    }
+
+    /**
+     * 是否作为主方块的视图休眠，休眠时tick不做任何工作
+     */
+    private boolean isDelegating() {
+        return !patternDirty && getMaster() != this;
+    }
+
     @Override
     public void markRemoved() {
         super.markRemoved();
@@ -326,6 +420,18 @@ public class HeatResistantSlateBlockEntity extends UpPlaceBlockEntity implements
             multiBlockRef.dispose();
             multiBlockRef = null;
         }
+        onUnloaded();
+    }
+
+    /**
+     * 方块实体被卸载或移除时调用，取消结构检查的方块变化监听和热量网络的订阅
+     */
+    public void onUnloaded() {
+        BlockChangeTracker.unwatch(patternWatch);
+        patternWatch = null;
+        patternDirty = true;
+        HeatNetwork.unsubscribe(heatConsumer);
+        heatConsumer = null;
     }
 
     /**
@@ -441,7 +547,12 @@ public class HeatResistantSlateBlockEntity extends UpPlaceBlockEntity implements
      * 扩大搜索范围以提高匹配成功率
      */
     private BlockPattern.Result searchAround(World world, BlockPos searchPos, int patternType, BlockPattern pattern) {
-        for (int i = 0; i < patternType + 2; i++) {
+        BlockPattern.Result centerResult = pattern.searchAround(world, searchPos);
+        if (centerResult != null) {
+            return centerResult;
+        }
+
+        for (int i = 1; i < patternType + 2; i++) {
             List<BlockPos> params = Arrays.asList(
                     searchPos.offset(Direction.EAST, i),
                     searchPos.offset(Direction.WEST, i),
@@ -459,13 +570,48 @@ public class HeatResistantSlateBlockEntity extends UpPlaceBlockEntity implements
         return null;
     }
 
+    /**
+     * 计算{@link #searchAround(World, BlockPos, int, BlockPattern)}可能读取的所有方块的范围。
+     *
+     * <p>{@link BlockPattern#searchAround(net.minecraft.world.WorldView, BlockPos)}从起点向正方向遍历图案最大边长的立方体，
+     * 并以每个位置为角点尝试所有朝向，因此图案可能向任意方向再延伸最大边长减一格。</p>
+     */
+    private static BlockBox getSearchBox(BlockPos searchPos, int patternType, BlockPattern pattern) {
+        int extent = Math.max(Math.max(pattern.getWidth(), pattern.getHeight()), pattern.getDepth()) - 1;
+        int offset = patternType + 1;
+        return BlockBox.create(
+                searchPos.add(-offset - extent, -extent, -offset - extent),
+                searchPos.add(offset + 2 * extent, 2 * extent, offset + 2 * extent));
+    }
+
+    /**
+     * 计算匹配结果覆盖的方块范围
+     */
+    private static BlockBox getResultBox(BlockPattern.Result result) {
+        return BlockBox.create(
+                result.translate(0, 0, 0).getBlockPos(),
+                result.translate(result.getWidth() - 1, result.getHeight() - 1, result.getDepth() - 1).getBlockPos());
+    }
+
+    /**
+     * 重新监听结构检查依赖的方块，区域内任何方块变化都会让下一次tick重新检查结构
+     */
+    private void watchPattern(World world, @Nullable BlockBox box) {
+        BlockChangeTracker.unwatch(patternWatch);
+        patternWatch = null;
+        if (box != null && world instanceof ServerWorld serverWorld) {
+            patternWatch = BlockChangeTracker.watch(serverWorld, box, (changedWorld, changedPos) -> this.patternDirty = true);
+        }
+    }
+
     private void bindFirewoodFromStructure(World world, BlockPattern.Result result, int patternType) {
         // 获取所有'~'字符对应的位置
         Set<BlockPos> newFirewoodPositions = FoodCraftUtils.findTargetPositionsFromPattern(result, HeatResistantSlateBlockEntity::isFirewoodPositionPredicate);
 
         if (!newFirewoodPositions.isEmpty()) {
             this.firewoodPos = newFirewoodPositions;
-            this.firewoodEntities.clear(); // 将在下次tick时重新获取
+            this.firewoodEntities.clear(); // 将在下次交互时重新获取
+            subscribeHeat(world);
             markDirty();
         } else {
             clearFirewoodBinding();
@@ -502,9 +648,21 @@ public class HeatResistantSlateBlockEntity extends UpPlaceBlockEntity implements
     private void clearFirewoodBinding() {
         this.firewoodPos.clear();
         this.firewoodEntities.clear();
+        HeatNetwork.unsubscribe(heatConsumer);
+        this.heatConsumer = null;
         markDirty();
     }
 
+    /**
+     * 在热量网络中订阅绑定的柴火堆位置，替换之前的订阅
+     */
+    private void subscribeHeat(World world) {
+        HeatNetwork.unsubscribe(heatConsumer);
+        this.heatConsumer = world instanceof ServerWorld serverWorld
+                ? HeatNetwork.subscribe(serverWorld, firewoodPos, this::flushLod)
+                : null;
+    }
+
     /**
      * 更新绑定的柴火堆
      */
@@ -538,85 +696,94 @@ public class HeatResistantSlateBlockEntity extends UpPlaceBlockEntity implements
      * @return 绑定的柴火堆方块实体的集合
      */
     public Set<CombustionFirewoodBlockEntity> getFirewoodEntities() {
-        return firewoodEntities;
+        HeatResistantSlateBlockEntity masterBlockEntity = getMaster();
+        if (masterBlockEntity.world != null) {
+            masterBlockEntity.updateFirewood(masterBlockEntity.world);
+        }
+        return masterBlockEntity.firewoodEntities;
     }
 
     public int getActiveFirewoodCount() {
-        return (int) firewoodEntities.stream()
-                .filter(Objects::nonNull)
-                .filter(CombustionFirewoodBlockEntity::isCombusting)
-                .count();
+        HeatNetwork.Consumer consumer = getMaster().heatConsumer;
+        return consumer != null ? consumer.getActiveSourceCount() : 0;
     }
 
     /**
-     * 处理烘烤逻辑
+     * 处理烘烤逻辑，一次推进若干tick，结果与逐tick推进相同
      */
-    private void processBaking(World world) {
-        // 检查是否有输入物品
-        if (isEmpty()) {
-            resetBakingProgress();
-            return;
-        }
-
-        // 获取匹配的配方
-        StoveRecipe recipe = this.matchGetter.getFirstMatch(this, world).orElse(null);
-        if (recipe == null) {
-            resetBakingProgress();
-            return;
-        }
-
-        // 初始化烘烤总时间
-        if (bakingTimeTotal == 0) {
-            bakingTimeTotal = Math.max(recipe.getBakingTimeForInput(getStack(0).getCount()), MIN_BAKING_TIME);
-        }
+    private void processBaking(World world, int bakingSpeed, int ticks) {
+        while (ticks > 0) {
+            // 检查是否有输入物品
+            if (isEmpty()) {
+                resetBakingProgress();
+                return;
+            }
 
-        // 根据热量等级决定烘烤速度
-        int bakingSpeed = getBakingSpeed();
+            // 获取匹配的配方
+            StoveRecipe recipe = getCurrentRecipe(world);
+            if (recipe == null) {
+                resetBakingProgress();
+                return;
+            }
 
-        // 增加烘烤进度
-        bakingTime += bakingSpeed;
+            // 初始化烘烤总时间
+            if (bakingTimeTotal == 0) {
+                bakingTimeTotal = Math.max(recipe.getBakingTimeForInput(getStack(0).getCount()), MIN_BAKING_TIME);
+            }
 
-        // 检查是否烘烤完成
-        if (bakingTime >= bakingTimeTotal) {
-            completeBaking(world, recipe);
+            // 增加烘烤进度，最多推进到完成所在的tick
+            int ticksToComplete = Math.max(1, (bakingTimeTotal - bakingTime + bakingSpeed - 1) / bakingSpeed);
+            int step = Math.min(ticks, ticksToComplete);
+            bakingTime += bakingSpeed * step;
+            ticks -= step;
+
+            // 检查是否烘烤完成，产物在剩余的tick中继续烘烤
+            if (bakingTime >= bakingTimeTotal) {
+                completeBaking(world, recipe);
+                if (ticks == 0) {
+                    return;
+                }
+                continue;
+            }
+            break;
         }
 
-        // 标记需要同步（用于客户端渲染进度）
-        markDirtyAndSync();
+        // 开始烘烤或速度变化时同步，之后由客户端推算进度
+        if (bakingSpeed != bakingRate) {
+            bakingRate = bakingSpeed;
+            bakingSyncTick = world.getTime();
+            markDirtyAndSync();
+        } else {
+            markDirty();
+        }
     }
 
     /**
-     * 获取烘烤速度
+     * 获取当前物品匹配的配方，只在物品或配方索引变化时重新匹配
      */
-    private int getBakingSpeed() {
-        if (firewoodEntities.isEmpty()) {
-            return 0;
-        }
-
-        int activeFirewoodCount = 0;
-        double totalEffectiveSpeed = 0;
-
-        // 计算每个柴火堆的有效速度
-        for (CombustionFirewoodBlockEntity firewoodBlock : firewoodEntities) {
-            if (firewoodBlock != null && firewoodBlock.isCombusting()) {
-                activeFirewoodCount++;
-
-                // 单个柴火堆的基础速度 + 热量加成
-                double individualSpeed = 10 + (firewoodBlock.getHeatLevel() - 1);
-
-                // 应用收益递减：使用平方根函数
-                double effectiveSpeed = individualSpeed / Math.pow(activeFirewoodCount, 0.7);
-                totalEffectiveSpeed += effectiveSpeed;
-            }
-        }
-
-        if (activeFirewoodCount == 0) {
-            return 0;
+    @Nullable
+    private StoveRecipe getCurrentRecipe(World world) {
+        ItemStack stack = getStack(0);
+        RecipeIndex recipeIndex = RecipeIndex.get(world);
+        NbtCompound stackNbt = stack.getNbt();
+        int nbtHash = stackNbt != null ? stackNbt.hashCode() : 0;
+
+        if (recipeIndex != cachedRecipeIndex || stack.getItem() != cachedRecipeItem
+                || stack.getCount() != cachedRecipeCount || nbtHash != cachedRecipeNbtHash) {
+            cachedRecipe = recipeIndex.getFirstMatch(ModRecipeTypes.STOVE, this, world).orElse(null);
+            cachedRecipeIndex = recipeIndex;
+            cachedRecipeItem = stack.getItem();
+            cachedRecipeCount = stack.getCount();
+            cachedRecipeNbtHash = nbtHash;
         }
+        return cachedRecipe;
+    }
 
-        // 最终结果取整，并确保至少为10
-        int result = (int) Math.round(totalEffectiveSpeed);
-        return Math.max(10, result);
+    /**
+     * 获取烘烤速度，由热量网络根据绑定柴火堆的热量等级计算并缓存
+     */
+    private int getBakingSpeed() {
+        return heatConsumer != null ? heatConsumer.getBakingSpeed() : 0;
     }
 
     /**
@@ -637,6 +804,7 @@ public class HeatResistantSlateBlockEntity extends UpPlaceBlockEntity implements
         setLastRecipe(recipe);
         recipesUsed.addTo(recipe.getId(), 1);
 
+        // 重置进度的同时把产物同步到客户端
         resetBakingProgress();
         world.playSound(null, pos, SoundEvents.BLOCK_FURNACE_FIRE_CRACKLE, SoundCategory.BLOCKS, 0.5f, 1.0f);
     }
@@ -645,9 +813,16 @@ public class HeatResistantSlateBlockEntity extends UpPlaceBlockEntity implements
      * 重置烘烤进度
      */
     private void resetBakingProgress() {
+        if (this.bakingTime == 0 && this.bakingTimeTotal == 0 && this.bakingRate == 0) {
+            return;
+        }
+
         this.bakingTime = 0;
         this.bakingTimeTotal = 0;
-        markDirty();
+        this.bakingRate = 0;
+
+        // 烘烤中断，通知客户端停止推算
+        markDirtyAndSync();
     }
 
     /**
@@ -656,7 +831,7 @@ public class HeatResistantSlateBlockEntity extends UpPlaceBlockEntity implements
      */
     public float getBakingProgress() {
         if (bakingTimeTotal > 0) {
-            return (float) bakingTime / bakingTimeTotal;
+            return (float) getBakingTime() / bakingTimeTotal;
         }
         return 0.0f;
     }
@@ -669,11 +844,18 @@ public class HeatResistantSlateBlockEntity extends UpPlaceBlockEntity implements
             return false;
         }
 
-        StoveRecipe recipe = this.matchGetter.getFirstMatch(this, world).orElse(null);
+        StoveRecipe recipe = getCurrentRecipe(world);
         return recipe != null;
     }
 
+    /**
+     * 获取烘烤进度，客户端根据最近一次同步的速度推算
+     */
     public int getBakingTime() {
+        if (world != null && world.isClient && bakingRate > 0 && bakingTimeTotal > 0) {
+            long elapsed = Math.max(0, world.getTime() - bakingSyncTick);
+            return (int) Math.min(bakingTimeTotal, bakingTime + elapsed * bakingRate);
+        }
         return bakingTime;
     }
 
@@ -682,12 +864,8 @@ public class HeatResistantSlateBlockEntity extends UpPlaceBlockEntity implements
     }
 
     public boolean hasHeat(){
-        for (CombustionFirewoodBlockEntity firewood : firewoodEntities) {
-            if (firewood.isCombusting()) {
-                return true;
-            }
-        }
-        return false;
+        HeatNetwork.Consumer consumer = getMaster().heatConsumer;
+        return consumer != null && consumer.hasHeat();
     }
 
     public boolean isBaking() {
@@ -701,7 +879,7 @@ public class HeatResistantSlateBlockEntity extends UpPlaceBlockEntity implements
      */
     protected int getMaxInputCount(ItemStack stack){
         Inventory tempInventory = new SimpleInventory(stack);
-        Optional<? extends StoveRecipe> expectedRecipe = this.matchGetter.getFirstMatch(tempInventory, this.world);
+        Optional<StoveRecipe> expectedRecipe = RecipeIndex.get(this.world).getFirstMatch(ModRecipeTypes.STOVE, tempInventory, this.world);
 
         return expectedRecipe.map(StoveRecipe::getMaxInputCount).orElse(0);
     }
@@ -730,37 +908,272 @@ public class HeatResistantSlateBlockEntity extends UpPlaceBlockEntity implements
             blockEntity.age = 0;
         }
 
-        // 尝试检查结构
-        boolean interval = blockEntity.age - blockEntity.lastCheckTime < MIN_CHECK_INTERVAL;
-        if (!interval) {
+        // 引用过期时需要重新解析引用并检查结构
+        if (blockEntity.multiBlockRef instanceof ServerMultiBlockReference && !blockEntity.multiBlockRef.isValid()) {
+            blockEntity.patternDirty = true;
+        }
+
+        // 主方块被卸载或移除后重新解析主方块，主方块所在区块未加载时休眠
+        if (blockEntity.master != null && blockEntity.master.isRemoved()) {
+            blockEntity.master = null;
+            blockEntity.patternDirty = true;
+        }
+        if (blockEntity.isAwaitingMaster(world)) {
+            return;
+        }
+
+        // 从方块由主方块统一推进
+        if (blockEntity.isDelegating()) {
+            return;
+        }
+
+        // 只在相关方块变化后检查结构，结构变化前先按旧的结构补上累计的tick，刚加载时还没有旧的结构
+        if (blockEntity.patternDirty) {
+            if (blockEntity.patternWatch != null) {
+                blockEntity.flushLod();
+            }
             blockEntity.checkPattern(world, pos, state);
-            blockEntity.lastCheckTime = blockEntity.age;
+            if (blockEntity.isDelegating() || blockEntity.isAwaitingMaster(world)) {
+                return;
+            }
         }
 
-        // 更新绑定的柴火堆
-        blockEntity.updateFirewood(world);
+        // 区块重新加载后，补上离线期间和卸载前尚未模拟的tick。离线期间的热量由柴火堆推算，需要等所有柴火堆所在的区块都加载
+        if (blockEntity.savedTick >= 0) {
+            if (!blockEntity.areFirewoodChunksLoaded(world)) {
+                return;
+            }
+            long offlineTicks = Math.max(0, world.getTime() - blockEntity.savedTick - 1) + blockEntity.lodClock.drain();
+            blockEntity.savedTick = -1;
+            blockEntity.catchUp(world, offlineTicks);
+        }
 
-        // 如果有热量且炉子结构有效，处理烘烤逻辑
-        if (blockEntity.hasHeat() && blockEntity.isValidStove) {
-            blockEntity.processBaking(world);
-        } else {
-            // 没有热量时重置烘烤进度
-            blockEntity.resetBakingProgress();
+        // 远离玩家时降低频率，累计的tick一次性推进
+        int ticks = blockEntity.lodClock.advance(world, pos);
+        if (ticks > 0) {
+            blockEntity.simulate(world, ticks);
+        }
+    }
+
+    /**
+     * 检查绑定的柴火堆所在的区块是否都已加载
+     */
+    private boolean areFirewoodChunksLoaded(World world) {
+        if (!isValidStove) {
+            return true;
+        }
+        for (BlockPos sourcePos : firewoodPos) {
+            if (!world.getChunkManager().isChunkLoaded(
+                    ChunkSectionPos.getSectionCoord(sourcePos.getX()), ChunkSectionPos.getSectionCoord(sourcePos.getZ()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 补上截至当前tick之前若干tick的烘烤。
+     * 柴火堆的能量从保存的结算时间起随世界时间线性消耗，离线期间的热量等级可以从保存的能量精确推算，
+     * 即使柴火堆在离线期间已经燃尽并在加载后结算了状态。调用前所有柴火堆所在的区块必须已加载：
+     * 按热量等级改变的时刻分段，每段以固定的烘烤速度一次性推进，开销只与柴火堆和配方完成的次数有关。
+     * 主方块卸载期间仍被其他方块推进过的成员不再补算
+     */
+    private void catchUp(World world, long ticks) {
+        long end = world.getTime();
+        long time = end - ticks;
+
+        List<HeatResistantSlateBlockEntity> members = new ArrayList<>();
+        for (HeatResistantSlateBlockEntity member : getStoveMembers(world)) {
+            if (member.lastSimulatedTick < time) {
+                members.add(member);
+            }
+        }
+
+        List<CombustionFirewoodBlockEntity> sources = new ArrayList<>();
+        if (isValidStove) {
+            for (BlockPos sourcePos : firewoodPos) {
+                if (world.getBlockEntity(sourcePos) instanceof CombustionFirewoodBlockEntity firewood) {
+                    sources.add(firewood);
+                }
+            }
+        }
+
+        int[] heatLevels = new int[sources.size()];
+        while (time < end) {
+            long next = end;
+            for (int i = 0; i < heatLevels.length; i++) {
+                CombustionFirewoodBlockEntity firewood = sources.get(i);
+                heatLevels[i] = firewood.getHeatLevelAt(time);
+                next = Math.min(next, firewood.getNextHeatChangeAfter(time));
+            }
+
+            int step = (int) Math.min(next - time, Integer.MAX_VALUE);
+            simulate(world, members, HeatNetwork.getBakingSpeed(heatLevels), step);
+            time += step;
+        }
+    }
+
+    /**
+     * 按当前热量推进所有结构成员若干tick
+     */
+    private void simulate(World world, int ticks) {
+        // 根据热量等级决定烘烤速度，所有成员共用同一组柴火堆
+        simulate(world, hasHeat() && isValidStove ? getBakingSpeed() : 0, ticks);
+    }
+
+    /**
+     * 以指定的烘烤速度推进所有结构成员若干tick
+     */
+    private void simulate(World world, int bakingSpeed, int ticks) {
+        simulate(world, getStoveMembers(world), bakingSpeed, ticks);
+    }
+
+    /**
+     * 以指定的烘烤速度推进指定的结构成员若干tick
+     */
+    private void simulate(World world, List<HeatResistantSlateBlockEntity> members, int bakingSpeed, int ticks) {
+        for (HeatResistantSlateBlockEntity member : members) {
+            // 成员已转投其他主方块，下次tick重新收集
+            if (member != this && member.master != this) {
+                stoveMembers = null;
+                continue;
+            }
+            member.lastSimulatedTick = world.getTime();
+
+            // 如果有热量且炉子结构有效，处理烘烤逻辑
+            if (bakingSpeed > 0) {
+                member.processBaking(world, bakingSpeed, ticks);
+            } else {
+                // 没有热量时重置烘烤进度
+                member.resetBakingProgress();
+            }
+        }
+    }
+
+    /**
+     * 补上主方块累计尚未模拟的tick，在物品、热量或结构改变前调用，保证降频模拟的结果与逐tick相同
+     */
+    private void flushLod() {
+        HeatResistantSlateBlockEntity masterBlockEntity = getMaster();
+        if (masterBlockEntity.world == null || masterBlockEntity.world.isClient) {
+            return;
         }
+        // 先取出累计的tick，模拟过程中修改物品不会再次触发
+        int ticks = masterBlockEntity.lodClock.drain();
+        if (ticks > 0) {
+            masterBlockEntity.simulate(masterBlockEntity.world, ticks);
+        }
+    }
+
+    @Override
+    public ItemStack removeStack(int slot, int amount) {
+        flushLod();
+        return super.removeStack(slot, amount);
+    }
+
+    @Override
+    public ItemStack removeStack(int slot) {
+        flushLod();
+        return super.removeStack(slot);
+    }
+
+    @Override
+    public void setStack(int slot, ItemStack stack) {
+        flushLod();
+        super.setStack(slot, stack);
+    }
+
+    /**
+     * 获取由当前主方块推进的所有结构成员，成员变化时重新收集并把结构检查结果推送给从方块
+     */
+    private List<HeatResistantSlateBlockEntity> getStoveMembers(World world) {
+        if (stoveMembers != null) {
+            for (HeatResistantSlateBlockEntity member : stoveMembers) {
+                if (member.isRemoved()) {
+                    stoveMembers = null;
+                    break;
+                }
+            }
+        }
+        if (stoveMembers != null) {
+            return stoveMembers;
+        }
+
+        if (!(multiBlockRef instanceof ServerMultiBlockReference serverRef) || !serverRef.isMasterBlock() || !serverRef.isValid()) {
+            stoveMembers = List.of(this);
+            return stoveMembers;
+        }
+
+        List<HeatResistantSlateBlockEntity> members = new ArrayList<>();
+        members.add(this);
+        MultiBlock.PatternRange range = serverRef.getMultiBlock().getRange();
+        BlockPos start = range.getStart();
+        for (int dx = 0; dx < range.getWidth(); dx++) {
+            for (int dy = 0; dy < range.getHeight(); dy++) {
+                for (int dz = 0; dz < range.getDepth(); dz++) {
+                    BlockPos memberPos = start.add(dx, dy, dz);
+                    if (memberPos.equals(pos)) {
+                        continue;
+                    }
+                    if (world.getBlockEntity(memberPos) instanceof HeatResistantSlateBlockEntity member
+                            && member.multiBlockRef != null && member.multiBlockRef.isValid()
+                            && pos.equals(member.multiBlockRef.getMasterWorldPos())) {
+                        member.applyMasterState(this);
+                        members.add(member);
+                    }
+                }
+            }
+        }
+        stoveMembers = members;
+        return members;
+    }
 
-        blockEntity.markDirty();
+    /**
+     * 从方块绑定到主方块，并复制主方块的结构检查结果用于保存和客户端渲染
+     */
+    private void applyMasterState(HeatResistantSlateBlockEntity masterBlockEntity) {
+        this.master = masterBlockEntity;
+        this.patternDirty = false;
+        // 离线期间的烘烤由主方块统一补算
+        this.savedTick = -1;
+        watchPattern(masterBlockEntity.world, null);
+
+        // 同步主方块的柴火堆信息，从方块的柴火堆实体集合和热量始终读取主方块
+        this.firewoodPos = new HashSet<>(masterBlockEntity.firewoodPos);
+        this.firewoodEntities.clear();
+        HeatNetwork.unsubscribe(this.heatConsumer);
+        this.heatConsumer = null;
+
+        // 同步主方块的方块图案数据
+        Direction oldDirection = this.resultDirection;
+        this.currentStoveResult = masterBlockEntity.currentStoveResult;
+        this.resultDirection = masterBlockEntity.resultDirection;
+        this.stoveStructureType = masterBlockEntity.stoveStructureType;
+        this.isValidStove = masterBlockEntity.isValidStove;
+
+        if (oldDirection != this.resultDirection) {
+            markDirtyAndSync();
+        } else {
+            markDirty();
+        }
     }
 
     private void checkPattern(World world, BlockPos pos, BlockState state) {
-        // 重置检查结果
-        this.currentStoveResult = null;
-        this.stoveStructureType = -1;
-        this.isValidStove = false;
+        this.patternDirty = false;
 
         if (world != null && !world.isClient &&
                 (this.multiBlockRef == null || this.multiBlockRef instanceof ClientMultiBlockReference)){
             // 如果因为某些意外导致引用为空或者实现了客户端引用，则尝试重构引用
-            MultiBlockReference ref = ServerMultiBlockReference.fromNbt(world, refNbt);
+            MultiBlockReference ref = refNbt != null ? ServerMultiBlockReference.fromNbt(world, refNbt) : null;
+            if (ref != null) {
+                setMultiBlockReference(ref);
+            }
+        }
+
+        if (world != null && !world.isClient &&
+                this.multiBlockRef instanceof ServerMultiBlockReference && !this.multiBlockRef.isValid()) {
+            // 结构已销毁，引用已过期（例如主方块所在区块被卸载后重新加载），按当前位置重新解析
+            MultiBlockReference ref = ServerMultiBlockReference.fromWorldPos(world, pos, false);
             if (ref != null) {
                 setMultiBlockReference(ref);
             }
@@ -768,27 +1181,27 @@ public class HeatResistantSlateBlockEntity extends UpPlaceBlockEntity implements
 
         // 如果没有多方块引用，不进行检查
         if (multiBlockRef == null || multiBlockRef.isDisposed()) {
+            resetPatternResult();
             return;
         }
 
-        // 直接同步主方块的数据
+        // 从方块绑定到主方块，由主方块在下次tick重新收集成员
         if (!multiBlockRef.isMasterBlock()){
+            // 主方块所在区块加载后再绑定，不在这里强制加载区块
+            if (world != null && isAwaitingMaster(world)) {
+                this.patternDirty = true;
+                return;
+            }
             if (world != null &&
                     world.getBlockEntity(this.multiBlockRef.getMasterWorldPos()) instanceof HeatResistantSlateBlockEntity masterBlockEntity) {
-                // 同步主方块的柴火堆信息
-                this.firewoodPos = new HashSet<>(masterBlockEntity.firewoodPos);
-                this.firewoodEntities = new HashSet<>(masterBlockEntity.firewoodEntities);
-
-                // 同步主方块的方块图案数据
-                this.currentStoveResult = masterBlockEntity.currentStoveResult;
-                this.resultDirection = masterBlockEntity.resultDirection;
-                this.stoveStructureType = masterBlockEntity.stoveStructureType;
-                this.isValidStove = masterBlockEntity.isValidStove;
-
+                applyMasterState(masterBlockEntity);
+                masterBlockEntity.stoveMembers = null;
                 return;
             }
         }
 
+        resetPatternResult();
+
         // 检查多方块结构是否有效
         if (!multiBlockRef.checkIntegrity()) {
             return;
@@ -814,7 +1227,6 @@ public class HeatResistantSlateBlockEntity extends UpPlaceBlockEntity implements
         // 在周围搜索匹配的炉子结构
         // 使用主方块位置作为搜索起点
         BlockPos searchPos = multiBlockRef.getMasterWorldPos();
-        pattern.searchAround(world, searchPos);
         BlockPattern.Result result = searchAround(world, searchPos, patternType, pattern);
 
         if (result != null) {
@@ -822,14 +1234,27 @@ public class HeatResistantSlateBlockEntity extends UpPlaceBlockEntity implements
             this.stoveStructureType = patternType;
             this.isValidStove = true;
 
-            // 结构匹配成功
+            // 结构匹配成功，之后只需监听结构本身
+            watchPattern(world, getResultBox(result));
             onStoveStructureValid(world, pos, result, patternType);
         } else {
-            // 结构不匹配
+            // 结构不匹配，监听整个搜索范围，等待玩家补全结构
+            watchPattern(world, getSearchBox(searchPos, patternType, pattern));
             onStoveStructureInvalid(world, pos);
         }
     }
 
+    /**
+     * 重置结构检查结果，并使主方块在下次tick把新的结果推送给从方块
+     */
+    private void resetPatternResult() {
+        this.currentStoveResult = null;
+        this.stoveStructureType = -1;
+        this.isValidStove = false;
+        this.master = null;
+        this.stoveMembers = null;
+    }
+
     public @Nullable Direction getResultDirection(){
         return this.resultDirection;
     }
@@ -456,7 +456,7 @@ public interface PlatableBlockEntity extends Inventory {
             return null;
         }
         // 默认创建添加物品操作
-        return new AddItemPlayerAction(stack.getItem(), stack.getCount());
+        return AddItemPlayerAction.of(stack.getItem(), stack.getCount());
     }
 
     /**
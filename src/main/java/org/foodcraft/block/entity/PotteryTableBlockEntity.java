@@ -26,9 +26,11 @@ import net.minecraft.world.World;
 import org.foodcraft.FoodCraft;
 import org.foodcraft.block.PotteryTableBlock;
 import org.foodcraft.recipe.PotteryRecipe;
+import org.foodcraft.recipe.RecipeIndex;
 import org.foodcraft.registry.ModBlockEntityTypes;
 import org.foodcraft.registry.ModRecipeTypes;
 import org.foodcraft.screen.PotteryTableScreenHandler;
+import org.foodcraft.util.AnimationSyncState;
 import org.foodcraft.util.ModAnimationState;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
@@ -77,10 +79,16 @@ public class PotteryTableBlockEntity extends BlockEntity implements SidedInvento
     /** 玩家使用界面时间戳映射，用于清理过期的玩家 */
     private final Map<UUID, Long> playerUsageTimestamps = new HashMap<>();
 
-    /** 工作台面旋转动画状态 */
+    /** 工作台面旋转动画的同步状态 */
+    public final AnimationSyncState workSurfaceAnimation = new AnimationSyncState();
+
+    /** 陶球旋转动画的同步状态 */
+    public final AnimationSyncState clayBallAnimation = new AnimationSyncState();
+
+    /** 客户端播放的工作台面旋转动画，服务端不使用 */
     public final ModAnimationState workSurfaceAnimationState = new ModAnimationState();
 
-    /** 陶球旋转动画状态 */
+    /** 客户端播放的陶球旋转动画，服务端不使用 */
     public final ModAnimationState clayBallAnimationState = new ModAnimationState();
 
     protected int age;
@@ -197,21 +205,7 @@ public class PotteryTableBlockEntity extends BlockEntity implements SidedInvento
      */
     private boolean updateWorkSurfaceAnimation() {
         boolean shouldPlay = (hasPlayersUsing() || isCrafting) && getStack(OUTPUT_SLOT).isEmpty();
-        boolean wasRunning = workSurfaceAnimationState.isEffectivelyRunning();
-
-        if (shouldPlay) {
-            // 启动或继续动画
-            if (!wasRunning) {
-                workSurfaceAnimationState.isRunning = true;
-                workSurfaceAnimationState.startIfNotRunning(getAge());
-                return true;
-            }
-        } else if (wasRunning) {
-            workSurfaceAnimationState.isRunning = false;
-            workSurfaceAnimationState.stop();
-            return true;
-        }
-        return false;
+        return world != null && workSurfaceAnimation.update(shouldPlay, world.getTime());
     }
     /**
      * 更新陶球旋转动画状态
@@ -222,21 +216,7 @@ public class PotteryTableBlockEntity extends BlockEntity implements SidedInvento
      * @return 是否开始或者停止了动画
      */
     private boolean updateClayBallAnimation() {
-        boolean wasRunning = clayBallAnimationState.isEffectivelyRunning();
-
-        if (isCrafting) {
-            // 启动或继续动画
-            if (!wasRunning) {
-                clayBallAnimationState.isRunning = true;
-                clayBallAnimationState.startIfNotRunning(getAge());
-                return true;
-            }
-        } else if (wasRunning) {
-            clayBallAnimationState.isRunning = false;
-            clayBallAnimationState.stop();
-            return true;
-        }
-        return false;
+        return world != null && clayBallAnimation.update(isCrafting, world.getTime());
     }
 
     /**
@@ -350,7 +330,7 @@ public class PotteryTableBlockEntity extends BlockEntity implements SidedInvento
         if (world == null) {
             return List.of();
         }
-        return world.getRecipeManager()
+        return RecipeIndex.get(world)
                 .getAllMatches(ModRecipeTypes.POTTERY, this, world);
     }
 
@@ -548,11 +528,11 @@ public class PotteryTableBlockEntity extends BlockEntity implements SidedInvento
 
         // 读取动画状态
         if (nbt.contains("WorkSurfaceAnimation")) {
-            workSurfaceAnimationState.readFromNbt(nbt.getCompound("WorkSurfaceAnimation"));
+            workSurfaceAnimation.readFromNbt(nbt.getCompound("WorkSurfaceAnimation"));
         }
 
         if (nbt.contains("ClayBallAnimation")) {
-            clayBallAnimationState.readFromNbt(nbt.getCompound("ClayBallAnimation"));
+            clayBallAnimation.readFromNbt(nbt.getCompound("ClayBallAnimation"));
         }
     }
 
@@ -565,8 +545,8 @@ public class PotteryTableBlockEntity extends BlockEntity implements SidedInvento
         nbt.putBoolean("IsCrafting", isCrafting);
 
         // 保存动画状态
-        nbt.put("WorkSurfaceAnimation", workSurfaceAnimationState.toNbt());
-        nbt.put("ClayBallAnimation", clayBallAnimationState.toNbt());
+        nbt.put("WorkSurfaceAnimation", workSurfaceAnimation.toNbt());
+        nbt.put("ClayBallAnimation", clayBallAnimation.toNbt());
     }
 
     // NameScreenHandlerFactory implementation
@@ -56,7 +56,17 @@ public class MultiBlock implements AutoCloseable {
     protected final Block baseBlock;
     protected final PatternRange range;
     protected final BlockPos masterPos;
-    protected boolean disposed = false;
+    /**
+     * 是否已销毁（包括拆分、合并和区块卸载），销毁后引用即过期，见{@link ServerMultiBlockReference#isValid()}
+     */
+    protected volatile boolean disposed = false;
+
+    /**
+     * 缓存的占用掩码，为null表示尚未扫描或已失效。
+     * <p>依赖基础方块在放置、破坏时调用{@link MultiBlockHelper}的事件方法来保持同步。</p>
+     */
+    @Nullable
+    protected MultiBlockOccupancy occupancy;
 
     /**
      * 创建多方块结构实例。
@@ -68,13 +78,23 @@ public class MultiBlock implements AutoCloseable {
      * @throws IllegalStateException    如果注册失败
      */
     protected MultiBlock(WorldView world, Block baseBlock, PatternRange range) {
+        this(world, baseBlock, range, true);
+    }
+
+    /**
+     * 创建多方块结构实例，可选择不注册到管理器。
+     * <p>不注册的实例由{@link MultiBlockManager#replaceMultiBlocks}在同一事务中统一登记。</p>
+     */
+    MultiBlock(WorldView world, Block baseBlock, PatternRange range, boolean register) {
         this.world = Objects.requireNonNull(world, "World cannot be null");
         this.baseBlock = Objects.requireNonNull(baseBlock, "Base block cannot be null");
         this.range = Objects.requireNonNull(range, "Range cannot be null");
         this.masterPos = range.getStart();
 
         validateSize(range);
-        registerToManager();
+        if (register) {
+            registerToManager();
+        }
 
         LOGGER.debug("Created new MultiBlock at {} with base block {} and size {}x{}x{}",
                 masterPos, baseBlock, range.getWidth(), range.getHeight(), range.getDepth());
@@ -183,356 +203,194 @@ public class MultiBlock implements AutoCloseable {
             return Collections.emptyList();
         }
 
-        List<BlockPos> validBlocks = findValidBlocks();
-
-        if (validBlocks.size() == getVolume()) {
-            LOGGER.debug("MultiBlock at {} is intact, no need to split", masterPos);
-            return Collections.emptyList();
-        }
-
-        LOGGER.info("MultiBlock at {} is incomplete. Valid blocks: {}/{}. Splitting...",
-                masterPos, validBlocks.size(), getVolume());
-
-        dispose();
-        List<MultiBlock> newMultiBlocks = splitMultiBlock(validBlocks);
-
-        LOGGER.info("Split MultiBlock at {} into {} new MultiBlocks", masterPos, newMultiBlocks.size());
-        return newMultiBlocks;
+        occupancy = MultiBlockOccupancy.scan(world, range, baseBlock);
+        return splitByOccupancy();
     }
 
     /**
-     * 检查结构是否完整（所有方块都是基础方块类型）。
+     * 在单个方块变化后增量检查完整性，如果不完整则自动拆分为完整的子结构。
      *
-     * @return 如果结构完整返回true，否则返回false
+     * <p>只读取变化位置的方块状态并更新缓存的占用掩码，拆分结果与{@link #checkAndSplitIntegrity()}完全一致。
+     * 如果还没有缓存的占用掩码，则退化为完整扫描。</p>
+     *
+     * @param changedPos 发生变化的世界坐标
+     * @return 拆分后的新方块堆列表，如果结构完整或变化位置不在范围内则返回空列表
      */
-    public boolean checkIntegrity() {
+    public List<MultiBlock> checkAndSplitIntegrity(BlockPos changedPos) {
         if (disposed) {
             LOGGER.warn("Attempted to check integrity of disposed MultiBlock at {}", masterPos);
-            return false;
+            return Collections.emptyList();
         }
 
-        BlockPos start = range.getStart();
-        BlockPos end = getEndPos();
-        LOGGER.debug("Checking integrity of MultiBlock at {} to {}", start, end);
-
-        int invalidCount = 0;
-        for (int x = start.getX(); x <= end.getX(); x++) {
-            for (int y = start.getY(); y <= end.getY(); y++) {
-                for (int z = start.getZ(); z <= end.getZ(); z++) {
-                    BlockPos pos = new BlockPos(x, y, z);
-                    Block block = world.getBlockState(pos).getBlock();
-                    if (block != baseBlock) {
-                        invalidCount++;
-                        if (LOGGER.isTraceEnabled()) {
-                            LOGGER.trace("Found invalid block at {}: expected {}, found {}", pos, baseBlock, block);
-                        }
-                    }
-                }
-            }
+        if (!range.contains(changedPos)) {
+            return Collections.emptyList();
         }
 
-        if (invalidCount > 0) {
-            LOGGER.warn("MultiBlock at {} has {} invalid blocks out of {}", masterPos, invalidCount, getVolume());
-            return false;
+        if (occupancy == null) {
+            return checkAndSplitIntegrity();
         }
 
-        LOGGER.debug("MultiBlock at {} integrity check passed", masterPos);
-        return true;
-    }
-
-    /**
-     * 查找范围内所有有效的方块位置。
-     */
-    private List<BlockPos> findValidBlocks() {
-        List<BlockPos> validBlocks = new ArrayList<>();
-        BlockPos start = range.getStart();
-        BlockPos end = getEndPos();
-
-        for (int x = start.getX(); x <= end.getX(); x++) {
-            for (int y = start.getY(); y <= end.getY(); y++) {
-                for (int z = start.getZ(); z <= end.getZ(); z++) {
-                    BlockPos pos = new BlockPos(x, y, z);
-                    if (world.getBlockState(pos).getBlock() == baseBlock) {
-                        validBlocks.add(pos);
-                    }
-                }
-            }
-        }
-        return validBlocks;
+        occupancy.set(occupancy.index(
+                        changedPos.getX() - masterPos.getX(),
+                        changedPos.getY() - masterPos.getY(),
+                        changedPos.getZ() - masterPos.getZ()),
+                world.getBlockState(changedPos).getBlock() == baseBlock);
+        return splitByOccupancy();
     }
 
     /**
-     * 将不完整的方块堆拆分为多个完整的小方块堆。
+     * 在一批方块变化后增量检查完整性，所有变化只触发一次拆分。
+     *
+     * @param changedPositions 发生变化的世界坐标，不在范围内的坐标会被忽略
+     * @return 拆分后的新方块堆列表，如果结构完整则返回空列表
+     * @see #checkAndSplitIntegrity(BlockPos)
      */
-    private List<MultiBlock> splitMultiBlock(List<BlockPos> validBlocks) {
-        if (validBlocks.isEmpty()) {
+    public List<MultiBlock> checkAndSplitIntegrity(Collection<BlockPos> changedPositions) {
+        if (disposed) {
+            LOGGER.warn("Attempted to check integrity of disposed MultiBlock at {}", masterPos);
             return Collections.emptyList();
         }
 
-        List<MultiBlock> result = splitMultiBlockOptimized(validBlocks);
-        if (result.isEmpty()) {
-            LOGGER.warn("Optimized decomposition failed, falling back to original algorithm");
-            result = splitMultiBlockFallback(validBlocks);
-        }
-        return result;
+        updateOccupancy(changedPositions);
+        return splitByOccupancy();
     }
 
     /**
-     * 使用三维立方体分解算法进行优化拆分。
-     */
-    private List<MultiBlock> splitMultiBlockOptimized(List<BlockPos> validBlocks) {
-        LOGGER.debug("Starting optimized cube decomposition for {} valid blocks", validBlocks.size());
-        List<CubeDecomposition> decomposedCubes = decomposeIntoSolidCubes(validBlocks);
-        List<MultiBlock> result = new ArrayList<>();
-
-        for (CubeDecomposition cube : decomposedCubes) {
-            if (cube.isValid()) {
-                MultiBlock newMultiBlock = createMultiBlockFromCube(cube);
-                if (newMultiBlock != null) {
-                    result.add(newMultiBlock);
-                    LOGGER.debug("Created optimized MultiBlock: {} with size {}x{}x{}",
-                            cube.start, cube.width, cube.height, cube.depth);
-                }
-            }
-        }
-
-        LOGGER.info("Optimized decomposition created {} MultiBlocks from {} blocks",
-                result.size(), validBlocks.size());
-        return result;
-    }
-
-    /**
-     * 回退拆分算法：使用三维连通组件算法。
-     */
-    private List<MultiBlock> splitMultiBlockFallback(List<BlockPos> validBlocks) {
-        List<List<BlockPos>> connectedComponents = findConnectedComponents(validBlocks);
-        List<MultiBlock> result = new ArrayList<>();
-
-        for (List<BlockPos> component : connectedComponents) {
-            if (!component.isEmpty()) {
-                MultiBlock newMultiBlock = createMultiBlockFromComponent(component);
-                if (newMultiBlock != null) {
-                    result.add(newMultiBlock);
-                }
+     * 在一批方块变化后更新缓存的占用掩码，不拆分结构。如果还没有缓存的占用掩码，则完整扫描。
+     *
+     * @param changedPositions 发生变化的世界坐标，不在范围内的坐标会被忽略
+     * @return 更新后结构是否完整
+     * @see MultiBlockUpdateQueue#flush
+     */
+    boolean updateOccupancy(Collection<BlockPos> changedPositions) {
+        if (occupancy == null) {
+            occupancy = MultiBlockOccupancy.scan(world, range, baseBlock);
+            return occupancy.isFull();
+        }
+
+        for (BlockPos changedPos : changedPositions) {
+            if (range.contains(changedPos)) {
+                occupancy.set(occupancy.index(
+                                changedPos.getX() - masterPos.getX(),
+                                changedPos.getY() - masterPos.getY(),
+                                changedPos.getZ() - masterPos.getZ()),
+                        world.getBlockState(changedPos).getBlock() == baseBlock);
             }
         }
-        return result;
+        return occupancy.isFull();
     }
 
     /**
-     * 使用广度优先搜索找到连通的方块组件。
+     * 使缓存的占用掩码失效，下次检查时将重新扫描世界。
+     * <p>在区块重新加载等方块可能在事件之外发生变化的情况下调用。</p>
      */
-    private List<List<BlockPos>> findConnectedComponents(List<BlockPos> validBlocks) {
-        Set<BlockPos> visited = new HashSet<>();
-        List<List<BlockPos>> components = new ArrayList<>();
-        Set<BlockPos> validSet = new HashSet<>(validBlocks);
-
-        // 定义六个方向：上下左右前后
-        int[][] directions = {
-                {1, 0, 0}, {-1, 0, 0},  // 东西
-                {0, 1, 0}, {0, -1, 0},  // 上下
-                {0, 0, 1}, {0, 0, -1}   // 南北
-        };
-
-        for (BlockPos block : validBlocks) {
-            if (!visited.contains(block)) {
-                List<BlockPos> component = new ArrayList<>();
-                Queue<BlockPos> queue = new LinkedList<>();
-
-                queue.add(block);
-                visited.add(block);
-                component.add(block);
-
-                while (!queue.isEmpty()) {
-                    BlockPos current = queue.poll();
-                    for (int[] dir : directions) {
-                        BlockPos neighbor = new BlockPos(
-                                current.getX() + dir[0],
-                                current.getY() + dir[1],
-                                current.getZ() + dir[2]);
-                        if (validSet.contains(neighbor) && !visited.contains(neighbor)) {
-                            visited.add(neighbor);
-                            component.add(neighbor);
-                            queue.add(neighbor);
-                        }
-                    }
-                }
-                components.add(component);
-            }
-        }
-        return components;
+    public void invalidateOccupancy() {
+        occupancy = null;
     }
 
     /**
-     * 将连通区域分解为实心立方体（使用贪心算法）。
+     * 根据当前占用掩码拆分方块堆。
+     *
+     * <p>只重新划分包含空位的区域，见{@link #computeSplitRanges(MultiBlockOccupancy)}，
+     * 新结构在一次注册事务中替换当前结构。</p>
      */
-    private List<CubeDecomposition> decomposeIntoSolidCubes(List<BlockPos> blocks) {
-        if (blocks.isEmpty()) {
+    private List<MultiBlock> splitByOccupancy() {
+        if (occupancy.isFull()) {
+            LOGGER.debug("MultiBlock at {} is intact, no need to split", masterPos);
             return Collections.emptyList();
         }
 
-        Set<BlockPos> blockSet = new HashSet<>(blocks);
-        BlockPos min = findMinBounds(blocks);
-        BlockPos max = findMaxBounds(blocks);
-        Set<BlockPos> covered = new HashSet<>();
-        List<CubeDecomposition> cubes = new ArrayList<>();
-
-        // 使用优先级队列按体积从大到小处理
-        PriorityQueue<CubeCandidate> candidateQueue = new PriorityQueue<>(
-                (a, b) -> Integer.compare(b.volume, a.volume));
-        generateCubeCandidates(blockSet, min, max, candidateQueue);
-
-        // 贪心选择：总是选择当前最大的可用立方体
-        while (!candidateQueue.isEmpty() && covered.size() < blocks.size()) {
-            CubeCandidate candidate = candidateQueue.poll();
-            if (isCubeAvailable(blockSet, covered, candidate)) {
-                CubeDecomposition cube = new CubeDecomposition(
-                        candidate.start, candidate.size, candidate.size, candidate.size);
-                cubes.add(cube);
-                markCubeAsCovered(covered, candidate);
-                LOGGER.trace("Selected cube: {} size {} (volume: {})", candidate.start, candidate.size, candidate.volume);
-            }
-        }
+        LOGGER.debug("MultiBlock at {} is incomplete. Valid blocks: {}/{}. Splitting...",
+                masterPos, occupancy.count(), getVolume());
 
-        coverRemainingBlocks(blocks, covered, cubes);
-        return cubes;
-    }
+        List<MultiBlock> newMultiBlocks = MultiBlockManager.replaceMultiBlocks(
+                world, baseBlock, List.of(this), computeSplitRanges(occupancy));
 
-    /**
-     * 生成立方体候选。
-     */
-    private void generateCubeCandidates(Set<BlockPos> blockSet, BlockPos min, BlockPos max,
-                                        PriorityQueue<CubeCandidate> queue) {
-        int maxPossibleSize = Math.min(
-                max.getX() - min.getX() + 1,
-                Math.min(max.getY() - min.getY() + 1, max.getZ() - min.getZ() + 1));
-
-        for (int size = maxPossibleSize; size >= 1; size--) {
-            for (int x = min.getX(); x <= max.getX() - size + 1; x++) {
-                for (int y = min.getY(); y <= max.getY() - size + 1; y++) {
-                    for (int z = min.getZ(); z <= max.getZ() - size + 1; z++) {
-                        BlockPos start = new BlockPos(x, y, z);
-                        if (isSolidCube(blockSet, start, size)) {
-                            queue.offer(new CubeCandidate(start, size));
-                        }
-                    }
-                }
-            }
-        }
+        LOGGER.debug("Split MultiBlock at {} into {} new MultiBlocks", masterPos, newMultiBlocks.size());
+        return newMultiBlocks;
     }
 
     /**
-     * 检查给定区域是否是实心立方体。
+     * 检查结构是否完整（所有方块都是基础方块类型）。
+     *
+     * <p>如果存在缓存的占用掩码则直接使用，不读取方块状态；否则扫描世界并缓存结果。</p>
+     *
+     * @return 如果结构完整返回true，否则返回false
      */
-    private boolean isSolidCube(Set<BlockPos> blockSet, BlockPos start, int size) {
-        for (int dx = 0; dx < size; dx++) {
-            for (int dy = 0; dy < size; dy++) {
-                for (int dz = 0; dz < size; dz++) {
-                    BlockPos pos = new BlockPos(
-                            start.getX() + dx,
-                            start.getY() + dy,
-                            start.getZ() + dz);
-                    if (!blockSet.contains(pos)) {
-                        return false;
-                    }
-                }
-            }
+    public boolean checkIntegrity() {
+        if (disposed) {
+            LOGGER.warn("Attempted to check integrity of disposed MultiBlock at {}", masterPos);
+            return false;
         }
-        return true;
-    }
 
-    /**
-     * 从连通的方块组件创建新的方块堆。
-     */
-    private MultiBlock createMultiBlockFromComponent(List<BlockPos> component) {
-        if (component.isEmpty()) {
-            return null;
+        if (occupancy != null) {
+            return occupancy.isFull();
         }
 
-        // 找到组件的最小和最大坐标
-        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
-        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
-
-        for (BlockPos pos : component) {
-            minX = Math.min(minX, pos.getX());
-            minY = Math.min(minY, pos.getY());
-            minZ = Math.min(minZ, pos.getZ());
-            maxX = Math.max(maxX, pos.getX());
-            maxY = Math.max(maxY, pos.getY());
-            maxZ = Math.max(maxZ, pos.getZ());
-        }
+        LOGGER.debug("Checking integrity of MultiBlock at {} to {}", range.getStart(), getEndPos());
+        occupancy = MultiBlockOccupancy.scan(world, range, baseBlock);
 
-        // 检查是否为完整矩形区域
-        if (isRectangularRegionValid(component, minX, minY, minZ, maxX, maxY, maxZ)) {
-            return createRectangularMultiBlock(minX, minY, minZ, maxX, maxY, maxZ);
-        } else {
-            return createMinimalMultiBlock(component, minX, minY, minZ, maxX, maxY, maxZ);
+        int invalidCount = occupancy.volume() - occupancy.count();
+        if (invalidCount > 0) {
+            LOGGER.warn("MultiBlock at {} has {} invalid blocks out of {}", masterPos, invalidCount, getVolume());
+            return false;
         }
+
+        LOGGER.debug("MultiBlock at {} integrity check passed", masterPos);
+        return true;
     }
 
     /**
-     * 创建完整的矩形多方块结构。
+     * 计算拆分后的实心范围，不注册任何结构。
+     *
+     * <p>以所有空位的包围盒切开范围：包围盒沿X轴、Y轴、Z轴两侧依次切出的最多6个长方体中没有空位，直接保留；
+     * 只有包围盒内部通过立方体分解重新划分。破坏单个方块时包围盒只有一格，不需要分解。</p>
+     *
+     * @param validBlocks 范围内的占用掩码
+     * @return 互不重叠、恰好覆盖所有被占用位置的范围
+     * @see MultiBlockOccupancy#decomposeIntoCubes()
      */
-    private MultiBlock createRectangularMultiBlock(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
-        BlockPos newStart = new BlockPos(minX, minY, minZ);
-        int width = maxX - minX + 1;
-        int height = maxY - minY + 1;
-        int depth = maxZ - minZ + 1;
-
-        try {
-            return MultiBlock.builder()
-                    .world(world)
-                    .baseBlock(baseBlock)
-                    .range(newStart, width, height, depth)
-                    .build();
-        } catch (Exception e) {
-            LOGGER.error("Failed to create MultiBlock from component: {}", e.getMessage());
-            return null;
+    List<PatternRange> computeSplitRanges(MultiBlockOccupancy validBlocks) {
+        List<PatternRange> ranges = new ArrayList<>();
+        int[] holes = validBlocks.emptyBounds();
+        if (holes == null) {
+            ranges.add(range);
+            return ranges;
         }
-    }
 
-    /**
-     * 创建包含所有方块的最小矩形方块堆。
-     */
-    private MultiBlock createMinimalMultiBlock(List<BlockPos> component, int minX, int minY, int minZ,
-                                               int maxX, int maxY, int maxZ) {
-        BlockPos newStart = new BlockPos(minX, minY, minZ);
-        int width = maxX - minX + 1;
-        int height = maxY - minY + 1;
-        int depth = maxZ - minZ + 1;
+        int width = range.getWidth();
+        int height = range.getHeight();
+        int depth = range.getDepth();
+        int holeWidth = holes[3] - holes[0] + 1;
+        int holeHeight = holes[4] - holes[1] + 1;
+        int holeDepth = holes[5] - holes[2] + 1;
 
-        try {
-            MultiBlock multiBlock = MultiBlock.builder()
-                    .world(world)
-                    .baseBlock(baseBlock)
-                    .range(newStart, width, height, depth)
-                    .build();
+        // 包围盒外的实心部分
+        addSplitRange(ranges, 0, 0, 0, holes[0], height, depth);
+        addSplitRange(ranges, holes[3] + 1, 0, 0, width - holes[3] - 1, height, depth);
+        addSplitRange(ranges, holes[0], 0, 0, holeWidth, holes[1], depth);
+        addSplitRange(ranges, holes[0], holes[4] + 1, 0, holeWidth, height - holes[4] - 1, depth);
+        addSplitRange(ranges, holes[0], holes[1], 0, holeWidth, holeHeight, holes[2]);
+        addSplitRange(ranges, holes[0], holes[1], holes[5] + 1, holeWidth, holeHeight, depth - holes[5] - 1);
 
-            LOGGER.warn("Created non-solid MultiBlock at {} with size {}x{}x{} containing {} blocks",
-                    newStart, width, height, depth, component.size());
-            return multiBlock;
-        } catch (Exception e) {
-            LOGGER.error("Failed to create minimal MultiBlock: {}", e.getMessage());
-            return null;
+        // 包围盒内部
+        MultiBlockOccupancy holeBlocks = validBlocks.copyBox(holes[0], holes[1], holes[2], holeWidth, holeHeight, holeDepth);
+        for (int packedCube : holeBlocks.decomposeIntoCubes()) {
+            int index = MultiBlockOccupancy.cubeIndex(packedCube);
+            int size = MultiBlockOccupancy.cubeSize(packedCube);
+            addSplitRange(ranges,
+                    holes[0] + holeBlocks.getRelativeX(index),
+                    holes[1] + holeBlocks.getRelativeY(index),
+                    holes[2] + holeBlocks.getRelativeZ(index),
+                    size, size, size);
         }
+        return ranges;
     }
 
-    /**
-     * 检查矩形区域是否完全由有效方块填充。
-     */
-    private boolean isRectangularRegionValid(List<BlockPos> component, int minX, int minY, int minZ,
-                                             int maxX, int maxY, int maxZ) {
-        Set<BlockPos> componentSet = new HashSet<>(component);
-        for (int x = minX; x <= maxX; x++) {
-            for (int y = minY; y <= maxY; y++) {
-                for (int z = minZ; z <= maxZ; z++) {
-                    if (!componentSet.contains(new BlockPos(x, y, z))) {
-                        return false;
-                    }
-                }
-            }
+    private void addSplitRange(List<PatternRange> ranges, int dx, int dy, int dz, int width, int height, int depth) {
+        if (width > 0 && height > 0 && depth > 0) {
+            ranges.add(new PatternRange(masterPos.add(dx, dy, dz), width, height, depth));
         }
-        return true;
     }
 
     /**
@@ -720,10 +578,18 @@ public class MultiBlock implements AutoCloseable {
         if (!disposed) {
             LOGGER.debug("Disposing MultiBlock at {}", masterPos);
             MultiBlockManager.unregisterMultiBlock(this);
-            disposed = true;
+            markDisposed();
         }
     }
 
+    /**
+     * 标记为已销毁并使所有引用过期，不修改注册表。
+     * <p>由{@link MultiBlockManager}在已经自行移除索引时调用。</p>
+     */
+    void markDisposed() {
+        disposed = true;
+    }
+
     public WorldView getWorld() {
         checkDisposed();
         return world;
@@ -810,44 +676,6 @@ public class MultiBlock implements AutoCloseable {
         }
     }
 
-    /**
-     * 表示三维立方体分解结果。
-     */
-    private static class CubeDecomposition {
-        public final BlockPos start;
-        public final int width;
-        public final int height;
-        public final int depth;
-        public final int volume;
-
-        public CubeDecomposition(BlockPos start, int width, int height, int depth) {
-            this.start = start;
-            this.width = width;
-            this.height = height;
-            this.depth = depth;
-            this.volume = width * height * depth;
-        }
-
-        public boolean isValid() {
-            return width > 0 && height > 0 && depth > 0;
-        }
-    }
-
-    /**
-     * 立方体候选。
-     */
-    private static class CubeCandidate {
-        public final BlockPos start;
-        public final int size;
-        public final int volume;
-
-        public CubeCandidate(BlockPos start, int size) {
-            this.start = start;
-            this.size = size;
-            this.volume = size * size * size;
-        }
-    }
-
     /**
      * 验证合并条件。
      */
@@ -904,8 +732,14 @@ public class MultiBlock implements AutoCloseable {
         first.dispose();
         second.dispose();
 
+        boolean bothIntact = first.occupancy != null && first.occupancy.isFull()
+                && second.occupancy != null && second.occupancy.isFull();
+
         try {
             MultiBlock combined = new MultiBlock(first.world, first.baseBlock, newRange);
+            if (bothIntact) {
+                combined.occupancy = MultiBlockOccupancy.full(newRange);
+            }
             LOGGER.info("Successfully combined MultiBlocks at {} and {} into new MultiBlock at {}",
                     first.masterPos, second.masterPos, combined.masterPos);
             return combined;
@@ -915,99 +749,6 @@ public class MultiBlock implements AutoCloseable {
         }
     }
 
-    /**
-     * 从立方体分解创建MultiBlock。
-     */
-    private MultiBlock createMultiBlockFromCube(CubeDecomposition cube) {
-        try {
-            return MultiBlock.builder()
-                    .world(world)
-                    .baseBlock(baseBlock)
-                    .range(cube.start, cube.width, cube.height, cube.depth)
-                    .build();
-        } catch (Exception e) {
-            LOGGER.error("Failed to create MultiBlock from cube {}: {}", cube.start, e.getMessage());
-            return null;
-        }
-    }
-
-    /**
-     * 检查立方体是否可用（所有方块都未被覆盖）。
-     */
-    private boolean isCubeAvailable(Set<BlockPos> blockSet, Set<BlockPos> covered, CubeCandidate candidate) {
-        for (int dx = 0; dx < candidate.size; dx++) {
-            for (int dy = 0; dy < candidate.size; dy++) {
-                for (int dz = 0; dz < candidate.size; dz++) {
-                    BlockPos pos = new BlockPos(
-                            candidate.start.getX() + dx,
-                            candidate.start.getY() + dy,
-                            candidate.start.getZ() + dz);
-                    if (covered.contains(pos)) {
-                        return false;
-                    }
-                }
-            }
-        }
-        return true;
-    }
-
-    /**
-     * 将立方体标记为已覆盖。
-     */
-    private void markCubeAsCovered(Set<BlockPos> covered, CubeCandidate candidate) {
-        for (int dx = 0; dx < candidate.size; dx++) {
-            for (int dy = 0; dy < candidate.size; dy++) {
-                for (int dz = 0; dz < candidate.size; dz++) {
-                    BlockPos pos = new BlockPos(
-                            candidate.start.getX() + dx,
-                            candidate.start.getY() + dy,
-                            candidate.start.getZ() + dz);
-                    covered.add(pos);
-                }
-            }
-        }
-    }
-
-    /**
-     * 覆盖剩余的未覆盖方块（使用1x1x1立方体）。
-     */
-    private void coverRemainingBlocks(List<BlockPos> blocks, Set<BlockPos> covered,
-                                      List<CubeDecomposition> cubes) {
-        for (BlockPos block : blocks) {
-            if (!covered.contains(block)) {
-                cubes.add(new CubeDecomposition(block, 1, 1, 1));
-                covered.add(block);
-                LOGGER.trace("Added 1x1x1 cube for remaining block: {}", block);
-            }
-        }
-    }
-
-    /**
-     * 查找最小边界坐标。
-     */
-    private BlockPos findMinBounds(List<BlockPos> blocks) {
-        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
-        for (BlockPos pos : blocks) {
-            minX = Math.min(minX, pos.getX());
-            minY = Math.min(minY, pos.getY());
-            minZ = Math.min(minZ, pos.getZ());
-        }
-        return new BlockPos(minX, minY, minZ);
-    }
-
-    /**
-     * 查找最大边界坐标。
-     */
-    private BlockPos findMaxBounds(List<BlockPos> blocks) {
-        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
-        for (BlockPos pos : blocks) {
-            maxX = Math.max(maxX, pos.getX());
-            maxY = Math.max(maxY, pos.getY());
-            maxZ = Math.max(maxZ, pos.getZ());
-        }
-        return new BlockPos(maxX, maxY, maxZ);
-    }
-
     /**
      * 表示多方块结构的范围。
      */
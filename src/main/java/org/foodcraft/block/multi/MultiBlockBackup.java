@@ -0,0 +1,184 @@
+package org.foodcraft.block.multi;
+
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.WorldSavePath;
+import org.foodcraft.FoodCraft;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * 多方块数据的异步备份
+ *
+ * <p>在服务器线程上只复制已加载区域的数据（{@link MultiBlockPersistentState#snapshot(ServerWorld)}），
+ * 未加载区域的读取以及编码、压缩和写入都在专用的I/O线程上完成，不会阻塞游戏刻。</p>
+ *
+ * <h2>崩溃安全</h2>
+ * <p>备份先写入同目录下的临时文件，再原子重命名为正式文件，进程在任何时刻崩溃都不会留下写了一半的备份。
+ * 替换前旧的备份会依次轮换为{@code .1}、{@code .2}……，最多保留{@value #MAX_ROTATED_BACKUPS}份。</p>
+ *
+ * <h2>服务器关闭</h2>
+ * <p>{@link #awaitPending(long, TimeUnit)}等待仍在进行的备份完成，{@link #cancelPending()}取消它们，
+ * 被取消的备份会删除临时文件，不会替换已有的备份。{@link #shutdown(long, TimeUnit)}依次执行两者并关闭I/O线程。</p>
+ *
+ * @see MultiBlockManager#backupMultiBlockData(net.minecraft.server.MinecraftServer)
+ */
+public class MultiBlockBackup {
+    private static final Logger LOGGER = FoodCraft.LOGGER;
+
+    /** 保留的旧备份数量 */
+    private static final int MAX_ROTATED_BACKUPS = 3;
+
+    private static ExecutorService executor;
+    private static final Set<Future<?>> pendingBackups = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 备份维度中的所有多方块数据，必须在服务器线程上调用。
+     *
+     * @return 表示备份任务的Future，可用于等待或取消
+     */
+    public static Future<?> backup(ServerWorld world) {
+        Identifier worldId = world.getRegistryKey().getValue();
+        Path backupFile = world.getServer().getSavePath(WorldSavePath.ROOT)
+                .resolve("multiblocks_backup_" + worldId.getNamespace() + "_" + worldId.getPath() + ".dat");
+        MultiBlockPersistentState.Snapshot snapshot = MultiBlockPersistentState.snapshot(world);
+
+        FutureTask<Void> task = new FutureTask<>(() -> {
+            try {
+                writeBackup(worldId, snapshot.read(), backupFile);
+            } catch (IOException e) {
+                LOGGER.error("Failed to backup MultiBlock data: {}", e.getMessage());
+            } catch (InterruptedException e) {
+                LOGGER.info("MultiBlock backup for world {} was cancelled", worldId);
+            }
+            return null;
+        }) {
+            @Override
+            protected void done() {
+                pendingBackups.remove(this);
+            }
+        };
+        pendingBackups.add(task);
+        getExecutor().execute(task);
+        return task;
+    }
+
+    /**
+     * 等待所有仍在进行的备份完成。
+     *
+     * @return 如果在超时前全部完成返回true
+     */
+    public static boolean awaitPending(long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (Future<?> future : List.copyOf(pendingBackups)) {
+            try {
+                future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                return false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } catch (CancellationException | ExecutionException ignored) {
+                // 已取消或失败的备份已经记录过日志
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 取消所有仍在进行的备份。
+     *
+     * @return 被取消的备份数量
+     */
+    public static int cancelPending() {
+        int cancelled = 0;
+        for (Future<?> future : List.copyOf(pendingBackups)) {
+            if (future.cancel(true)) {
+                cancelled++;
+            }
+        }
+        return cancelled;
+    }
+
+    /**
+     * 等待仍在进行的备份，超时后取消剩余的备份并关闭I/O线程。
+     */
+    public static synchronized void shutdown(long timeout, TimeUnit unit) {
+        if (executor == null) {
+            return;
+        }
+
+        if (!awaitPending(timeout, unit)) {
+            int cancelled = cancelPending();
+            LOGGER.warn("Cancelled {} MultiBlock backups still in flight at shutdown", cancelled);
+        }
+        executor.shutdown();
+        executor = null;
+    }
+
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "FoodCraft MultiBlock Backup");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+
+    /**
+     * 在I/O线程上编码并写入备份。
+     */
+    private static void writeBackup(Identifier worldId, List<MultiBlockPersistentState.MultiBlockData> snapshot,
+                                    Path backupFile) throws IOException {
+        NbtCompound nbt = new NbtCompound();
+        nbt.putString("worldId", worldId.toString());
+        MultiBlockPersistentState.writeCompact(snapshot, nbt);
+
+        Path tempFile = Files.createTempFile(backupFile.getParent(), backupFile.getFileName().toString(), ".tmp");
+        try {
+            NbtIo.writeCompressed(nbt, tempFile.toFile());
+            if (Thread.currentThread().isInterrupted()) {
+                LOGGER.info("MultiBlock backup for world {} was cancelled", worldId);
+                return;
+            }
+
+            rotate(backupFile);
+            try {
+                Files.move(tempFile, backupFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, backupFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            LOGGER.info("Backed up {} MultiBlocks to: {}", snapshot.size(), backupFile.toAbsolutePath());
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * 轮换旧备份：{@code .2}→{@code .3}，{@code .1}→{@code .2}，当前备份→{@code .1}。
+     */
+    private static void rotate(Path backupFile) throws IOException {
+        String name = backupFile.getFileName().toString();
+        Files.deleteIfExists(backupFile.resolveSibling(name + "." + MAX_ROTATED_BACKUPS));
+        for (int i = MAX_ROTATED_BACKUPS - 1; i >= 1; i--) {
+            Path older = backupFile.resolveSibling(name + "." + i);
+            if (Files.exists(older)) {
+                Files.move(older, backupFile.resolveSibling(name + "." + (i + 1)), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (Files.exists(backupFile)) {
+            Files.copy(backupFile, backupFile.resolveSibling(name + ".1"), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -18,8 +18,8 @@ import java.util.*;
  *
  * <h2>核心职责</h2>
  * <ul>
- *   <li><strong>事件处理</strong> - 处理方块放置、破坏和邻居更新事件</li>
- *   <li><strong>自动合并</strong> - 执行多轮合并，最大化多方块结构</li>
+ *   <li><strong>事件处理</strong> - 将方块放置、破坏和邻居更新事件转发到{@link MultiBlockUpdateQueue}，在刻末批量处理</li>
+ *   <li><strong>自动合并</strong> - 通过{@link MultiBlockMergePlanner}一次性规划合并，最大化多方块结构</li>
  *   <li><strong>引用更新</strong> - 更新实现{@link MultiBlockEntity}的方块实体中的多方块引用</li>
  *   <li><strong>完整性维护</strong> - 确保多方块结构在变化时保持正确状态</li>
  *   <li><strong>调试工具</strong> - 提供强制更新和修复功能</li>
@@ -32,201 +32,85 @@ import java.util.*;
 public class MultiBlockHelper {
     private static final Logger LOGGER = FoodCraft.LOGGER;
 
-    /** 最大合并轮数，防止无限循环 */
-    private static final int MAX_MERGE_ROUNDS = 10;
-
     /**
-     * 处理方块放置事件，创建新的多方块结构并尝试与相邻结构合并。
+     * 处理方块放置事件，记录到{@link MultiBlockUpdateQueue}，在刻末统一创建、拆分和合并多方块结构。
      *
      * @param world      世界实例
      * @param pos        方块位置
      * @param coreBlock  核心方块类型
      *
-     * @see MultiBlockEntity
-     * @see #performMultiRoundMerging(MultiBlock)
+     * @see MultiBlockUpdateQueue#enqueuePlaced(World, BlockPos, Block)
      * @apiNote 需要在使用了多方块系统的对应方块类中重写
      * {@link net.minecraft.block.AbstractBlock#onBlockAdded(BlockState, World, BlockPos, BlockState, boolean)}
-     * 方法主动调用此方法。
+     * 方法主动调用此方法或{@link MultiBlockUpdateQueue#enqueuePlaced}。
      */
     public static void onBlockPlaced(World world, BlockPos pos, Block coreBlock) {
-        Objects.requireNonNull(world, "World cannot be null");
-        Objects.requireNonNull(pos, "Position cannot be null");
-        Objects.requireNonNull(coreBlock, "Core block cannot be null");
-
-        LOGGER.debug("Core block placed at {}", pos);
-
-        // 检查该位置是否已经有方块堆
-        MultiBlock existing = MultiBlockManager.findMultiBlock(world, pos);
-        if (existing != null && !existing.isDisposed()) {
-            // 位置已有方块堆，检查完整性
-            LOGGER.debug("Found existing MultiBlock at {}, checking integrity", pos);
-            List<MultiBlock> newBlocks = existing.checkAndSplitIntegrity();
-            updateBlockEntityReferences(world, newBlocks);
-            LOGGER.info("After integrity check, created {} new MultiBlocks", newBlocks.size());
-            return;
-        }
-
-        // 创建新的单方块堆
-        MultiBlock newMultiBlock = createSingleBlockMultiBlock(world, pos, coreBlock);
-        if (newMultiBlock == null) {
-            LOGGER.error("Failed to create single block MultiBlock at {}", pos);
-            return;
-        }
-
-        // 更新当前方块的引用
-        updateBlockEntityReference(world, pos, newMultiBlock);
-
-        // 尝试与相邻的方块堆合并
-        performMultiRoundMerging(newMultiBlock);
+        MultiBlockUpdateQueue.enqueuePlaced(world, pos, coreBlock);
     }
 
     /**
-     * 处理方块破坏事件，拆分受影响的多方块结构并尝试重新合并。
+     * 处理方块破坏事件，记录到{@link MultiBlockUpdateQueue}，在刻末统一拆分受影响的多方块结构并重新合并。
      *
      * @param world      世界实例
      * @param pos        被破坏的方块位置
      * @param coreBlock  核心方块类型
+     *
+     * @see MultiBlockUpdateQueue#enqueueBroken(World, BlockPos, Block)
      * @apiNote 需要在使用了多方块系统的对应方块类中重写
      * {@link net.minecraft.block.AbstractBlock#onStateReplaced(BlockState, World, BlockPos, BlockState, boolean)}
-     * 方法主动调用此方法。
+     * 方法主动调用此方法或{@link MultiBlockUpdateQueue#enqueueBroken}。
      */
     public static void onBlockBroken(World world, BlockPos pos, Block coreBlock) {
-        Objects.requireNonNull(world, "World cannot be null");
-        Objects.requireNonNull(pos, "Position cannot be null");
-        Objects.requireNonNull(coreBlock, "Core block cannot be null");
-
-        LOGGER.debug("Core block broken at {}", pos);
-
-        // 找到包含该位置的方块堆
-        MultiBlock multiBlock = MultiBlockManager.findMultiBlock(world, pos);
-        if (multiBlock == null || multiBlock.isDisposed()) {
-            LOGGER.debug("No MultiBlock found at {}", pos);
-            return;
-        }
-
-        // 检查并拆分方块堆
-        LOGGER.info("Breaking block at {} in MultiBlock {}, checking integrity",
-                pos, multiBlock.getMasterPos());
-        List<MultiBlock> newBlocks = multiBlock.checkAndSplitIntegrity();
-
-        // 更新所有新方块堆的引用
-        updateBlockEntityReferences(world, newBlocks);
-
-        LOGGER.info("After breaking, created {} new MultiBlocks", newBlocks.size());
-
-        // 尝试合并新创建的方块堆（多轮合并）
-        for (MultiBlock newBlock : newBlocks) {
-            performMultiRoundMerging(newBlock);
-        }
+        MultiBlockUpdateQueue.enqueueBroken(world, pos, coreBlock);
     }
 
     /**
-     * 处理相邻方块更新事件，验证多方块结构的完整性。
+     * 处理相邻方块更新事件，记录到{@link MultiBlockUpdateQueue}，在刻末检查该位置所在的多方块结构。
+     *
+     * <p>不知道发生变化的相邻位置时只检查受影响的核心方块本身；结构中其他方块的变化由它们自己的破坏事件记录。</p>
      *
      * @param world      世界实例
      * @param pos        受影响的核心方块位置
      * @param coreBlock  核心方块类型
+     *
+     * @see MultiBlockUpdateQueue#enqueueNeighborUpdate(World, BlockPos, BlockPos, Block)
      * @apiNote 需要在使用了多方块系统的对应方块类中重写
      * {@link net.minecraft.block.AbstractBlock#neighborUpdate(BlockState, World, BlockPos, Block, BlockPos, boolean)}
-     * 方法主动调用此方法。
+     * 方法主动调用此方法或{@link MultiBlockUpdateQueue#enqueueNeighborUpdate}。
      */
     public static void onNeighborUpdate(World world, BlockPos pos, Block coreBlock) {
-        Objects.requireNonNull(world, "World cannot be null");
-        Objects.requireNonNull(pos, "Position cannot be null");
-        Objects.requireNonNull(coreBlock, "Core block cannot be null");
-
-        LOGGER.debug("Neighbor update for core block at {}", pos);
-
-        // 找到包含该位置的方块堆
-        MultiBlock multiBlock = MultiBlockManager.findMultiBlock(world, pos);
-        if (multiBlock == null || multiBlock.isDisposed()) {
-            LOGGER.debug("No MultiBlock found at {} during neighbor update", pos);
-            return;
-        }
-
-        // 检查方块堆的完整性
-        if (!multiBlock.checkIntegrity()) {
-            LOGGER.info("MultiBlock at {} lost integrity due to neighbor update, splitting...",
-                    multiBlock.getMasterPos());
-            List<MultiBlock> newBlocks = multiBlock.checkAndSplitIntegrity();
-            updateBlockEntityReferences(world, newBlocks);
-
-            // 尝试合并新创建的方块堆
-            for (MultiBlock newBlock : newBlocks) {
-                performMultiRoundMerging(newBlock);
-            }
-        }
+        MultiBlockUpdateQueue.enqueueNeighborUpdate(world, pos, pos, coreBlock);
     }
 
     /**
-     * 执行多轮合并操作，直到无法再合并为止。
+     * 尝试将发生变化的结构与相邻结构合并，然后为所有最终存在的结构统一更新一次方块实体引用。
+     *
+     * <p>合并由{@link MultiBlockMergePlanner}直接规划出最终的长方体划分，并在一次注册事务中提交，
+     * 中间结果不会被注册、持久化或写入方块实体，每个方块实体的引用最多更新一次。</p>
      *
-     * @param initialBlock 初始的多方块结构
+     * @param world   世界实例
+     * @param changed 新创建或发生变化的多方块结构，其方块实体的引用需要更新
+     * @return 最终存在的多方块结构
      */
-    public static void performMultiRoundMerging(MultiBlock initialBlock) {
-        Objects.requireNonNull(initialBlock, "Initial block cannot be null");
-
-        if (initialBlock.isDisposed()) {
-            return;
-        }
-
-        MultiBlock current = initialBlock;
-        boolean mergedInThisRound;
-        int roundCount = 0;
-
-        do {
-            mergedInThisRound = false;
-            roundCount++;
-
-            List<MultiBlock> neighbors = findAdjacentMultiBlocks(current);
-            LOGGER.debug("Round {}: Found {} adjacent MultiBlocks to merge with",
-                    roundCount, neighbors.size());
-
-            for (MultiBlock neighbor : neighbors) {
-                if (neighbor.isDisposed() || neighbor == current) {
-                    continue;
-                }
-
-                try {
-                    LOGGER.debug("Attempting to merge MultiBlock at {} with neighbor at {}",
-                            current.getMasterPos(), neighbor.getMasterPos());
-                    MultiBlock merged = MultiBlock.combine(current, neighbor);
-
-                    if (merged != null) {
-                        // 合并成功，更新引用
-                        updateBlockEntityReferences((World) merged.getWorld(), List.of(merged));
-
-                        current = merged;
-                        mergedInThisRound = true;
-                        LOGGER.info("Successfully merged MultiBlocks into new MultiBlock at {}",
-                                merged.getMasterPos());
-
-                        // 合并后重新查找邻居，因为情况可能发生了变化
-                        break;
-                    } else {
-                        LOGGER.debug("Merge operation returned null, merge failed");
-                    }
+    public static List<MultiBlock> mergeAndUpdateReferences(World world, Collection<MultiBlock> changed) {
+        Objects.requireNonNull(world, "World cannot be null");
+        Objects.requireNonNull(changed, "Changed MultiBlocks cannot be null");
 
-                } catch (IllegalArgumentException e) {
-                    LOGGER.debug("Cannot merge MultiBlocks: {}", e.getMessage());
-                    // 继续尝试与其他邻居合并
-                } catch (Exception e) {
-                    LOGGER.error("Unexpected error during merge: {}", e.getMessage());
-                    // 发生意外错误，停止合并
-                    break;
-                }
+        Set<MultiBlock> results = new LinkedHashSet<>(changed);
+        for (MultiBlock multiBlock : changed) {
+            if (!multiBlock.isDisposed()) {
+                results.addAll(MultiBlockMergePlanner.merge(multiBlock));
             }
+        }
 
-            if (roundCount >= MAX_MERGE_ROUNDS) {
-                LOGGER.warn("Reached maximum merge rounds for MultiBlock at {}",
-                        current.getMasterPos());
-                break;
+        List<MultiBlock> survivors = new ArrayList<>(results.size());
+        for (MultiBlock multiBlock : results) {
+            if (!multiBlock.isDisposed()) {
+                survivors.add(multiBlock);
             }
-
-        } while (mergedInThisRound);
-
-        LOGGER.debug("Completed merging after {} rounds for MultiBlock at {}",
-                roundCount, current.getMasterPos());
+        }
+        updateBlockEntityReferences(world, survivors);
+        return survivors;
     }
 
     /**
@@ -471,10 +355,11 @@ public class MultiBlockHelper {
     public static void checkDirection(List<MultiBlock> neighbors, World world, MultiBlock multiBlock,
                                        BlockPos faceStart, BlockPos faceEnd) {
         // 检查该方向上所有可能的位置
+        BlockPos.Mutable checkPos = new BlockPos.Mutable();
         for (int x = faceStart.getX(); x <= faceEnd.getX(); x++) {
             for (int y = faceStart.getY(); y <= faceEnd.getY(); y++) {
                 for (int z = faceStart.getZ(); z <= faceEnd.getZ(); z++) {
-                    BlockPos checkPos = new BlockPos(x, y, z);
+                    checkPos.set(x, y, z);
                     MultiBlock neighbor = MultiBlockManager.findMultiBlock(world, checkPos);
 
                     if (neighbor != null && !neighbor.isDisposed() &&
@@ -3,30 +3,38 @@ package org.foodcraft.block.multi;
 import net.minecraft.block.Block;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.World;
 import net.minecraft.world.WorldView;
+import net.minecraft.world.chunk.WorldChunk;
 import org.foodcraft.FoodCraft;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 /**
  * 多方块结构管理器 - 全局的多方块注册和查找服务
  *
  * <p>该类负责管理世界中所有的多方块结构实例，提供注册、查找、持久化和生命周期管理功能。
- * 使用弱引用映射来管理世界实例，防止内存泄漏。
+ * 每个世界的索引保存在以世界为键的{@link ConcurrentHashMap}中，世界卸载时由{@link #unloadWorldMultiBlocks}移除，
+ * 服务器关闭时整体清空，因此不会持有已卸载的世界。
  *
  * <h2>主要功能</h2>
  * <ul>
  * <li><strong>注册管理</strong> - 注册和注销多方块实例</li>
  * <li><strong>位置查找</strong> - 根据坐标快速找到对应的多方块结构</li>
- * <li><strong>数据持久化</strong> - 游戏重启时自动恢复多方块数据</li>
+ * <li><strong>数据持久化</strong> - 按区块加载时恢复多方块数据，区块卸载时释放内存</li>
  * <li><strong>内存管理</strong> - 自动清理已销毁的多方块引用</li>
  * </ul>
  *
+ * <h2>线程安全</h2>
+ * <p>所有查询方法都不加锁，可以在渲染线程、异步保存等其他线程中调用而不与服务器线程竞争。
+ * 注册和注销按世界加锁，不同维度之间的写操作互不阻塞。详见{@link WorldMultiBlockIndex}。</p>
+ *
  * <h2>注意</h2>
  * <p>该类以{@link World}作为一集键来区分不同维度中的方块堆，因此不得注册客户端世界的{@link MultiBlock}</p>
  *
@@ -44,13 +52,20 @@ import java.util.function.Consumer;
 public class MultiBlockManager {
     private static final Logger LOGGER = FoodCraft.LOGGER;
 
+    /** 服务器关闭时等待进行中备份的最长时间，超时后取消 */
+    private static final long BACKUP_SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    /** 方块堆的主方块所在区块与其覆盖的区块之间的最大距离（区块数） */
+    private static final int MAX_CHUNK_SPAN = (MultiBlock.MAX_SIZE + 14) >> 4;
+
     /**
      * 存储了所有方块堆的映射。
-     * <P>一级键存储不同世界中的方块堆映射，二级键使用主方块的坐标来标识一个方块堆</P>
-     * <strong>注意：</strong>作为键的世界必须是一个服务器世界。
+     * <P>键存储不同世界，值为该世界中以主方块坐标和区块段双重索引的方块堆</P>
+     * <strong>注意：</strong>作为键的世界必须是一个服务器世界，世界卸载时需调用{@link #unloadWorldMultiBlocks(ServerWorld)}移除。
+     *
+     * @see WorldMultiBlockIndex
      */
-    private static final Map<WorldView, Map<BlockPos, MultiBlock>> multiBlockRegistry = new WeakHashMap<>();
-    private static final Object lock = new Object();
+    private static final Map<WorldView, WorldMultiBlockIndex> multiBlockRegistry = new ConcurrentHashMap<>();
 
     /**
      * 注册一个新的MultiBlock
@@ -79,28 +94,27 @@ public class MultiBlockManager {
         WorldView worldView = multiBlock.getWorld();
         BlockPos masterPos = multiBlock.getMasterPos();
 
-        synchronized (lock) {
-            Map<BlockPos, MultiBlock> worldMap = multiBlockRegistry.computeIfAbsent(worldView, k -> new ConcurrentHashMap<>());
-
-            if (worldMap.containsKey(masterPos)) {
-                MultiBlock existing = worldMap.get(masterPos);
+        WorldMultiBlockIndex worldMap = multiBlockRegistry.computeIfAbsent(worldView, k -> new WorldMultiBlockIndex());
+        synchronized (worldMap) {
+            MultiBlock existing = worldMap.getByMaster(masterPos);
+            if (existing != null) {
                 if (!existing.isDisposed()) {
                     LOGGER.warn("Position {} in world {} is already occupied by MultiBlock with base block {}",
                             masterPos, worldView, existing.getBaseBlock());
                     return false;
                 } else {
                     // 清理已销毁的MultiBlock
-                    worldMap.remove(masterPos);
+                    worldMap.remove(existing);
                     LOGGER.debug("Cleaned up disposed MultiBlock at {}", masterPos);
                 }
             }
 
-            worldMap.put(masterPos, multiBlock);
+            worldMap.put(multiBlock);
             LOGGER.debug("Registered MultiBlock at {} in world", masterPos);
 
             // 持久化到存档
             if (worldView instanceof ServerWorld serverWorld) {
-                MultiBlockPersistentState persistentState = MultiBlockPersistentState.getOrCreate(serverWorld);
+                MultiBlockPersistentState persistentState = MultiBlockPersistentState.getOrCreate(serverWorld, masterPos);
                 persistentState.addMultiBlock(serverWorld, multiBlock);
                 LOGGER.debug("Persisted MultiBlock at {} to world storage", masterPos);
             }
@@ -124,30 +138,22 @@ public class MultiBlockManager {
         WorldView worldView = multiBlock.getWorld();
         BlockPos masterPos = multiBlock.getMasterPos();
 
-        synchronized (lock) {
-            Map<BlockPos, MultiBlock> worldMap = multiBlockRegistry.get(worldView);
-            if (worldMap == null) {
-                LOGGER.debug("No MultiBlocks registered for world");
-                return false;
-            }
+        WorldMultiBlockIndex worldMap = multiBlockRegistry.get(worldView);
+        if (worldMap == null) {
+            LOGGER.debug("No MultiBlocks registered for world");
+            return false;
+        }
 
-            MultiBlock registered = worldMap.get(masterPos);
-            if (registered == multiBlock) {
-                worldMap.remove(masterPos);
+        synchronized (worldMap) {
+            if (worldMap.remove(multiBlock)) {
                 LOGGER.debug("Unregistered MultiBlock at {} from world", masterPos);
 
                 // 从持久化存储中移除
                 if (worldView instanceof ServerWorld serverWorld) {
-                    MultiBlockPersistentState persistentState = MultiBlockPersistentState.getOrCreate(serverWorld);
+                    MultiBlockPersistentState persistentState = MultiBlockPersistentState.getOrCreate(serverWorld, masterPos);
                     persistentState.removeMultiBlock(serverWorld, masterPos);
                     LOGGER.debug("Removed MultiBlock at {} from persistent storage", masterPos);
                 }
-
-                // 如果这个世界没有其他MultiBlock了，清理世界映射
-                if (worldMap.isEmpty()) {
-                    multiBlockRegistry.remove(worldView);
-                    LOGGER.debug("Removed empty world mapping");
-                }
                 return true;
             } else {
                 LOGGER.warn("MultiBlock at {} was not the registered instance", masterPos);
@@ -157,38 +163,17 @@ public class MultiBlockManager {
     }
 
     /**
-     * 加载世界时恢复多方块数据
+     * 加载世界时准备该世界的索引，并迁移旧版本的持久化数据
+     *
+     * <p>方块堆不会在这里重建，而是在其覆盖的任意区块加载时由{@link #onChunkLoad}按需重建。</p>
      */
     public static void loadWorldMultiBlocks(ServerWorld world) {
-        synchronized (lock) {
-            MultiBlockPersistentState persistentState = MultiBlockPersistentState.getOrCreate(world);
-            Collection<MultiBlockPersistentState.MultiBlockData> multiBlockDataList = persistentState.getMultiBlocksForWorld(world);
-
-            LOGGER.info("Loading {} MultiBlocks for world {}", multiBlockDataList.size(), world.getRegistryKey().getValue());
-
-            int loadedCount = 0;
-            for (MultiBlockPersistentState.MultiBlockData data : multiBlockDataList) {
-                try {
-                    // 重建MultiBlock
-                    MultiBlock multiBlock = rebuildMultiBlockFromData(world, data);
-                    if (multiBlock != null) {
-                        // 注册到内存中（不重复持久化）
-                        Map<BlockPos, MultiBlock> worldMap = multiBlockRegistry.computeIfAbsent(world, k -> new ConcurrentHashMap<>());
-                        worldMap.put(data.masterPos(), multiBlock);
-                        loadedCount++;
-                        LOGGER.debug("Reloaded MultiBlock at {}", data.masterPos());
-                    }
-                } catch (Exception e) {
-                    LOGGER.error("Failed to reload MultiBlock at {}: {}", data.masterPos(), e.getMessage());
-                }
-            }
-
-            LOGGER.info("Successfully reloaded {}/{} MultiBlocks for world {}", loadedCount, multiBlockDataList.size(), world.getRegistryKey().getValue());
-        }
+        multiBlockRegistry.computeIfAbsent(world, k -> new WorldMultiBlockIndex());
+        MultiBlockPersistentState.migrateLegacy(world);
     }
 
     /**
-     * 从持久化数据重建MultiBlock
+     * 从持久化数据重建MultiBlock（不注册、不重复持久化）
      */
     private static MultiBlock rebuildMultiBlockFromData(ServerWorld world, MultiBlockPersistentState.MultiBlockData data) {
         try {
@@ -200,11 +185,7 @@ public class MultiBlockManager {
             MultiBlock.PatternRange range = new MultiBlock.PatternRange(data.start(), data.width(), data.height(), data.depth());
 
             // 重建MultiBlock
-            return MultiBlock.builder()
-                    .world(world)
-                    .baseBlock(baseBlock)
-                    .range(range)
-                    .build();
+            return new MultiBlock(world, baseBlock, range, false);
 
         } catch (Exception e) {
             LOGGER.error("Failed to rebuild MultiBlock from data: {}", e.getMessage());
@@ -212,54 +193,279 @@ public class MultiBlockManager {
         }
     }
 
+    /**
+     * 区块加载时重建覆盖该区块的方块堆，并使与该区块相交的已有方块堆缓存的占用掩码失效
+     *
+     * <p>持久化数据按主方块所在区块存储，跨区块的方块堆的主方块可能位于相邻区块中，
+     * 因此需要同时检查相邻区块的数据，使方块堆在其覆盖的任意一个区块加载时都能被找到。</p>
+     *
+     * <p>区块卸载期间方块可能在事件之外被修改（例如外部编辑存档），因此重新加载后需要重新扫描。</p>
+     */
+    public static void onChunkLoad(ServerWorld world, WorldChunk chunk) {
+        WorldMultiBlockIndex worldMap = multiBlockRegistry.computeIfAbsent(world, k -> new WorldMultiBlockIndex());
+        ChunkPos chunkPos = chunk.getPos();
+
+        synchronized (worldMap) {
+            Set<MultiBlock> affected = new HashSet<>();
+            worldMap.collectInChunk(chunkPos.x, chunkPos.z,
+                    world.getBottomSectionCoord(), world.getTopSectionCoord(), affected);
+            for (MultiBlock multiBlock : affected) {
+                multiBlock.invalidateOccupancy();
+            }
+
+            int loadedCount = 0;
+            for (int masterChunkX = chunkPos.x - MAX_CHUNK_SPAN; masterChunkX <= chunkPos.x; masterChunkX++) {
+                for (int masterChunkZ = chunkPos.z - MAX_CHUNK_SPAN; masterChunkZ <= chunkPos.z; masterChunkZ++) {
+                    ChunkPos masterChunk = new ChunkPos(masterChunkX, masterChunkZ);
+                    for (MultiBlockPersistentState.MultiBlockData data :
+                            MultiBlockPersistentState.getOrCreate(world, masterChunk).getMultiBlocksInChunk(masterChunk)) {
+                        if (!coversChunk(data, chunkPos)) {
+                            continue;
+                        }
+                        MultiBlock existing = worldMap.getByMaster(data.masterPos());
+                        if (existing != null && !existing.isDisposed()) {
+                            continue;
+                        }
+
+                        MultiBlock multiBlock = rebuildMultiBlockFromData(world, data);
+                        if (multiBlock != null) {
+                            // 注册到内存中（不重复持久化）
+                            worldMap.put(multiBlock);
+                            loadedCount++;
+                        }
+                    }
+                }
+            }
+
+            if (loadedCount > 0) {
+                LOGGER.debug("Reloaded {} MultiBlocks in chunk {}", loadedCount, chunkPos);
+            }
+        }
+    }
+
+    /**
+     * 区块卸载时从内存中移除已不再有任何已加载区块的方块堆（不修改持久化数据）
+     *
+     * <p>跨区块的方块堆在其覆盖的所有区块都卸载后才会被移除，
+     * 否则仍加载的部分将无法找到方块堆，且在其上所做的修改会在主方块区块重新加载时丢失。</p>
+     */
+    public static void onChunkUnload(ServerWorld world, WorldChunk chunk) {
+        WorldMultiBlockIndex worldMap = multiBlockRegistry.get(world);
+        if (worldMap == null) {
+            return;
+        }
+
+        ChunkPos chunkPos = chunk.getPos();
+        synchronized (worldMap) {
+            Set<MultiBlock> candidates = new HashSet<>();
+            worldMap.collectInChunk(chunkPos.x, chunkPos.z,
+                    world.getBottomSectionCoord(), world.getTopSectionCoord(), candidates);
+
+            int evictedCount = 0;
+            for (MultiBlock multiBlock : candidates) {
+                // 直接读取字段，索引中的方块堆可能已被销毁
+                if (!isAnyOtherChunkLoaded(world, multiBlock.range, chunkPos) && worldMap.remove(multiBlock)) {
+                    multiBlock.markDisposed();
+                    evictedCount++;
+                }
+            }
+
+            if (evictedCount > 0) {
+                LOGGER.debug("Evicted {} MultiBlocks in unloaded chunk {}", evictedCount, chunkPos);
+            }
+        }
+    }
+
+    /**
+     * 多方块数据的范围是否覆盖指定区块
+     */
+    private static boolean coversChunk(MultiBlockPersistentState.MultiBlockData data, ChunkPos chunkPos) {
+        BlockPos start = data.start();
+        return (start.getX() >> 4) <= chunkPos.x && ((start.getX() + data.width() - 1) >> 4) >= chunkPos.x
+                && (start.getZ() >> 4) <= chunkPos.z && ((start.getZ() + data.depth() - 1) >> 4) >= chunkPos.z;
+    }
+
+    /**
+     * 范围覆盖的区块中除指定区块外是否还有已加载的区块
+     */
+    private static boolean isAnyOtherChunkLoaded(ServerWorld world, MultiBlock.PatternRange range, ChunkPos excluded) {
+        int minChunkX = range.getStart().getX() >> 4;
+        int maxChunkX = range.getEnd().getX() >> 4;
+        int minChunkZ = range.getStart().getZ() >> 4;
+        int maxChunkZ = range.getEnd().getZ() >> 4;
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                if ((chunkX != excluded.x || chunkZ != excluded.z)
+                        && world.getChunkManager().isChunkLoaded(chunkX, chunkZ)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 世界卸载时移除该世界的内存索引（不修改持久化数据）
+     */
+    public static void unloadWorldMultiBlocks(ServerWorld world) {
+        WorldMultiBlockIndex worldMap = multiBlockRegistry.remove(world);
+        if (worldMap != null) {
+            LOGGER.debug("Unloaded {} MultiBlocks for world {}", worldMap.size(), world.getRegistryKey().getValue());
+        }
+    }
+
     /**
      * 服务器关闭时清理
      */
     public static void onServerStopping(net.minecraft.server.MinecraftServer server) {
-        synchronized (lock) {
-            LOGGER.info("Server stopping, clearing MultiBlock registry");
-            multiBlockRegistry.clear();
-        }
+        LOGGER.info("Server stopping, clearing MultiBlock registry");
+        multiBlockRegistry.clear();
+        MultiBlockBackup.shutdown(BACKUP_SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
     }
 
     /**
      * 手动备份多方块数据
+     *
+     * <p>只在调用线程上获取快照，写入在后台I/O线程上异步完成，见{@link MultiBlockBackup}。</p>
      */
     public static void backupMultiBlockData(net.minecraft.server.MinecraftServer server) {
         for (ServerWorld world : server.getWorlds()) {
-            MultiBlockPersistentState persistentState = MultiBlockPersistentState.getOrCreate(world);
-            persistentState.saveToFile(server);
+            MultiBlockBackup.backup(world);
         }
     }
 
     /**
      * 根据位置查找MultiBlock
+     *
+     * <p>通过区块段空间索引查找，耗时与世界中方块堆的总数无关，且不加锁。</p>
      */
     @Nullable
     public static MultiBlock findMultiBlock(WorldView world, BlockPos pos) {
-        synchronized (lock) {
-            Map<BlockPos, MultiBlock> worldMap = multiBlockRegistry.get(world);
-            if (worldMap == null) {
-                return null;
+        WorldMultiBlockIndex worldMap = multiBlockRegistry.get(world);
+        if (worldMap == null) {
+            return null;
+        }
+
+        // 首先检查精确匹配
+        MultiBlock exactMatch = worldMap.getByMaster(pos);
+        if (exactMatch != null && !exactMatch.isDisposed()) {
+            return exactMatch;
+        }
+
+        // 如果没有精确匹配，检查该位置是否在某个MultiBlock的范围内
+        MultiBlock multiBlock = worldMap.findContaining(pos);
+        if (multiBlock != null) {
+            LOGGER.debug("Found MultiBlock at {} containing position {}",
+                    multiBlock.getMasterPos(), pos);
+        }
+        return multiBlock;
+    }
+
+    /**
+     * 查找完全位于指定长方体内的所有未销毁MultiBlock
+     *
+     * @param min 长方体最小角（包含）
+     * @param max 长方体最大角（包含）
+     */
+    public static List<MultiBlock> findMultiBlocksInBox(WorldView world, BlockPos min, BlockPos max) {
+        WorldMultiBlockIndex worldMap = multiBlockRegistry.get(world);
+        if (worldMap == null) {
+            return Collections.emptyList();
+        }
+
+        Set<MultiBlock> candidates = new LinkedHashSet<>();
+        worldMap.collectInBox(min, max, candidates);
+
+        List<MultiBlock> result = new ArrayList<>();
+        for (MultiBlock multiBlock : candidates) {
+            if (multiBlock.isDisposed() || worldMap.getByMaster(multiBlock.getMasterPos()) != multiBlock) {
+                continue;
+            }
+            BlockPos start = multiBlock.range.getStart();
+            BlockPos end = multiBlock.range.getEnd();
+            if (start.getX() >= min.getX() && start.getY() >= min.getY() && start.getZ() >= min.getZ()
+                    && end.getX() <= max.getX() && end.getY() <= max.getY() && end.getZ() <= max.getZ()) {
+                result.add(multiBlock);
             }
+        }
+        return result;
+    }
 
-            // 首先检查精确匹配
-            MultiBlock exactMatch = worldMap.get(pos);
-            if (exactMatch != null && !exactMatch.isDisposed()) {
-                return exactMatch;
+    /**
+     * 在一次注册事务中用一组新范围替换一组已注册的MultiBlock
+     *
+     * <p>新结构先于旧结构的注销登记到索引中，并发的无锁查找在整个过程中总能找到覆盖每个位置的结构。
+     * 被替换的结构直接标记为已销毁，不会逐个触发{@link MultiBlock#dispose()}。</p>
+     *
+     * @param world     世界视图，只有服务器世界会写入持久化数据
+     * @param baseBlock 基础方块类型
+     * @param removed   被替换的MultiBlock，必须都已注册在该世界中
+     * @param ranges    新结构的范围，调用者保证这些范围都是实心的
+     * @return 新创建的MultiBlock
+     */
+    static List<MultiBlock> replaceMultiBlocks(WorldView world, Block baseBlock,
+                                               Collection<MultiBlock> removed, List<MultiBlock.PatternRange> ranges) {
+        List<MultiBlock> created = new ArrayList<>(ranges.size());
+        for (MultiBlock.PatternRange range : ranges) {
+            MultiBlock multiBlock = new MultiBlock(world, baseBlock, range, false);
+            multiBlock.occupancy = MultiBlockOccupancy.full(range);
+            created.add(multiBlock);
+        }
+
+        WorldMultiBlockIndex worldMap = multiBlockRegistry.computeIfAbsent(world, k -> new WorldMultiBlockIndex());
+        synchronized (worldMap) {
+            for (MultiBlock multiBlock : created) {
+                worldMap.put(multiBlock);
+            }
+            for (MultiBlock multiBlock : removed) {
+                worldMap.remove(multiBlock);
+                multiBlock.markDisposed();
             }
 
-            // 如果没有精确匹配，检查该位置是否在某个MultiBlock的范围内
-            for (MultiBlock multiBlock : worldMap.values()) {
-                if (!multiBlock.isDisposed() && multiBlock.getRange().contains(pos)) {
-                    LOGGER.debug("Found MultiBlock at {} containing position {}",
-                            multiBlock.getMasterPos(), pos);
-                    return multiBlock;
-                }
+            if (world instanceof ServerWorld serverWorld) {
+                persistReplacement(serverWorld, removed, created);
             }
+        }
 
-            return null;
+        LOGGER.debug("Replaced {} MultiBlocks with {} MultiBlocks in one transaction", removed.size(), created.size());
+        return created;
+    }
+
+    /**
+     * 按主方块所在的区域归组，每个受影响的区域只写入一次
+     */
+    private static void persistReplacement(ServerWorld world, Collection<MultiBlock> removed, List<MultiBlock> created) {
+        Map<Long, List<BlockPos>> removedByRegion = new LinkedHashMap<>();
+        Map<Long, List<MultiBlock>> createdByRegion = new LinkedHashMap<>();
+        Map<Long, BlockPos> regionPositions = new LinkedHashMap<>();
+        for (MultiBlock multiBlock : removed) {
+            long region = regionOf(multiBlock.getMasterPos());
+            removedByRegion.computeIfAbsent(region, k -> new ArrayList<>()).add(multiBlock.getMasterPos());
+            regionPositions.putIfAbsent(region, multiBlock.getMasterPos());
+        }
+        for (MultiBlock multiBlock : created) {
+            long region = regionOf(multiBlock.getMasterPos());
+            createdByRegion.computeIfAbsent(region, k -> new ArrayList<>()).add(multiBlock);
+            regionPositions.putIfAbsent(region, multiBlock.getMasterPos());
         }
+
+        for (Map.Entry<Long, BlockPos> entry : regionPositions.entrySet()) {
+            MultiBlockPersistentState.getOrCreate(world, entry.getValue()).replaceMultiBlocks(world,
+                    removedByRegion.getOrDefault(entry.getKey(), Collections.emptyList()),
+                    createdByRegion.getOrDefault(entry.getKey(), Collections.emptyList()));
+        }
+    }
+
+    private static long regionOf(BlockPos pos) {
+        return ChunkPos.toLong(pos.getX() >> 9, pos.getZ() >> 9);
+    }
+
+    /**
+     * 获取世界的方块堆索引，用于测试和调试
+     */
+    @Nullable
+    static WorldMultiBlockIndex getWorldIndex(WorldView world) {
+        return multiBlockRegistry.get(world);
     }
 
     /**
@@ -268,73 +474,65 @@ public class MultiBlockManager {
     public static boolean isRegistered(MultiBlock multiBlock) {
         if (multiBlock == null || multiBlock.isDisposed()) return false;
 
-        synchronized (lock) {
-            Map<BlockPos, MultiBlock> worldMap = multiBlockRegistry.get(multiBlock.getWorld());
-            if (worldMap == null) return false;
+        WorldMultiBlockIndex worldMap = multiBlockRegistry.get(multiBlock.getWorld());
+        if (worldMap == null) return false;
 
-            MultiBlock registered = worldMap.get(multiBlock.getMasterPos());
-            return registered == multiBlock && !registered.isDisposed();
-        }
+        MultiBlock registered = worldMap.getByMaster(multiBlock.getMasterPos());
+        return registered == multiBlock && !registered.isDisposed();
     }
 
     /**
      * 检查位置是否被有效的MultiBlock占用
      */
     public static boolean isPositionOccupied(WorldView world, BlockPos pos) {
-        synchronized (lock) {
-            Map<BlockPos, MultiBlock> worldMap = multiBlockRegistry.get(world);
-            if (worldMap == null) return false;
+        WorldMultiBlockIndex worldMap = multiBlockRegistry.get(world);
+        if (worldMap == null) return false;
 
-            MultiBlock multiBlock = worldMap.get(pos);
-            return multiBlock != null && !multiBlock.isDisposed();
-        }
+        MultiBlock multiBlock = worldMap.getByMaster(pos);
+        return multiBlock != null && !multiBlock.isDisposed();
     }
 
     /**
      * 获取世界中所有未销毁的MultiBlock
      */
     public static Collection<MultiBlock> getMultiBlocksInWorld(WorldView world) {
-        synchronized (lock) {
-            Map<BlockPos, MultiBlock> worldMap = multiBlockRegistry.get(world);
-            if (worldMap == null) {
-                return Collections.emptyList();
-            }
+        WorldMultiBlockIndex worldMap = multiBlockRegistry.get(world);
+        if (worldMap == null) {
+            return Collections.emptyList();
+        }
 
-            List<MultiBlock> validBlocks = new ArrayList<>();
-            for (MultiBlock multiBlock : worldMap.values()) {
-                if (!multiBlock.isDisposed()) {
-                    validBlocks.add(multiBlock);
-                }
+        List<MultiBlock> validBlocks = new ArrayList<>();
+        for (MultiBlock multiBlock : worldMap.values()) {
+            if (!multiBlock.isDisposed()) {
+                validBlocks.add(multiBlock);
             }
-            return Collections.unmodifiableCollection(validBlocks);
         }
+        return Collections.unmodifiableCollection(validBlocks);
     }
 
     /**
      * 获取所有世界的MultiBlock数量统计
      */
     public static Map<WorldView, Integer> getRegistryStats() {
-        synchronized (lock) {
-            Map<WorldView, Integer> stats = new HashMap<>();
-            for (Map.Entry<WorldView, Map<BlockPos, MultiBlock>> entry : multiBlockRegistry.entrySet()) {
-                int count = (int) entry.getValue().values().stream()
-                        .filter(mb -> !mb.isDisposed())
-                        .count();
-                if (count > 0) {
-                    stats.put(entry.getKey(), count);
-                }
+        Map<WorldView, Integer> stats = new HashMap<>();
+        for (Map.Entry<WorldView, WorldMultiBlockIndex> entry : multiBlockRegistry.entrySet()) {
+            int count = (int) entry.getValue().values().stream()
+                    .filter(mb -> !mb.isDisposed())
+                    .count();
+            if (count > 0) {
+                stats.put(entry.getKey(), count);
             }
-            return stats;
         }
+        return stats;
     }
 
     /**
      * 清理指定世界的所有MultiBlock
      */
     public static int clearWorld(WorldView world) {
-        synchronized (lock) {
-            Map<BlockPos, MultiBlock> worldMap = multiBlockRegistry.remove(world);
-            if (worldMap != null) {
+        WorldMultiBlockIndex worldMap = multiBlockRegistry.remove(world);
+        if (worldMap != null) {
+            synchronized (worldMap) {
                 // 标记所有MultiBlock为已销毁状态
                 for (MultiBlock multiBlock : worldMap.values()) {
                     try {
@@ -347,66 +545,47 @@ public class MultiBlockManager {
                 LOGGER.info("Cleared {} MultiBlocks from world", count);
                 return count;
             }
-            return 0;
         }
+        return 0;
     }
 
     /**
      * 清理所有世界的MultiBlock（用于服务器关闭等情况）
      */
     public static void clearAll() {
-        synchronized (lock) {
-            int totalCount = 0;
-            for (Map<BlockPos, MultiBlock> worldMap : multiBlockRegistry.values()) {
-                for (MultiBlock multiBlock : worldMap.values()) {
-                    try {
-                        multiBlock.dispose();
-                    } catch (Exception e) {
-                        LOGGER.error("Error disposing MultiBlock at {}", multiBlock.getMasterPos(), e);
-                    }
-                }
-                totalCount += worldMap.size();
-            }
-            multiBlockRegistry.clear();
-            LOGGER.info("Cleared all {} MultiBlocks from registry", totalCount);
+        int totalCount = 0;
+        for (WorldView world : new ArrayList<>(multiBlockRegistry.keySet())) {
+            totalCount += clearWorld(world);
         }
+        LOGGER.info("Cleared all {} MultiBlocks from registry", totalCount);
     }
 
     /**
      * 执行垃圾回收检查，清理已销毁的MultiBlock引用
      */
     public static void performCleanup() {
-        synchronized (lock) {
-            Iterator<Map.Entry<WorldView, Map<BlockPos, MultiBlock>>> worldIterator = multiBlockRegistry.entrySet().iterator();
-            int removedCount = 0;
-
-            while (worldIterator.hasNext()) {
-                Map.Entry<WorldView, Map<BlockPos, MultiBlock>> worldEntry = worldIterator.next();
-                Map<BlockPos, MultiBlock> worldMap = worldEntry.getValue();
+        int removedCount = 0;
 
-                Iterator<Map.Entry<BlockPos, MultiBlock>> blockIterator = worldMap.entrySet().iterator();
-                while (blockIterator.hasNext()) {
-                    Map.Entry<BlockPos, MultiBlock> blockEntry = blockIterator.next();
-                    MultiBlock multiBlock = blockEntry.getValue();
-
-                    // 清理已销毁的MultiBlock
+        for (WorldMultiBlockIndex worldMap : multiBlockRegistry.values()) {
+            synchronized (worldMap) {
+                List<MultiBlock> disposedBlocks = new ArrayList<>();
+                for (MultiBlock multiBlock : worldMap.values()) {
                     if (multiBlock.isDisposed()) {
-                        blockIterator.remove();
-                        removedCount++;
-                        LOGGER.debug("Cleaned up disposed MultiBlock at {}", blockEntry.getKey());
+                        disposedBlocks.add(multiBlock);
                     }
                 }
 
-                // 如果这个世界没有有效的MultiBlock了，移除世界条目
-                if (worldMap.isEmpty()) {
-                    worldIterator.remove();
-                    LOGGER.debug("Removed empty world mapping");
+                // 清理已销毁的MultiBlock
+                for (MultiBlock multiBlock : disposedBlocks) {
+                    worldMap.remove(multiBlock);
+                    removedCount++;
+                    LOGGER.debug("Cleaned up disposed MultiBlock at {}", multiBlock.getMasterPos());
                 }
             }
+        }
 
-            if (removedCount > 0) {
-                LOGGER.info("Cleanup removed {} disposed MultiBlocks", removedCount);
-            }
+        if (removedCount > 0) {
+            LOGGER.info("Cleanup removed {} disposed MultiBlocks", removedCount);
         }
     }
 
@@ -0,0 +1,454 @@
+package org.foodcraft.block.multi;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import net.minecraft.block.Block;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import org.foodcraft.FoodCraft;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+
+import java.util.*;
+
+/**
+ * 方块堆合并规划器
+ *
+ * <p>逐对调用{@link MultiBlock#combine(MultiBlock, MultiBlock)}的多轮合并中，每次成功合并都要注册新结构、
+ * 销毁旧结构、写入持久化数据并更新方块实体引用。规划器直接计算最终结果：</p>
+ * <ol>
+ *   <li>在以起始结构为中心、向各方向扩展{@code MAX_SIZE - 1}格的规划窗口中收集同类的完整结构</li>
+ *   <li>将结构栅格化到窗口网格中，用并查集合并面相邻的结构，得到起始结构所在的连通组件</li>
+ *   <li>把组件占用的位置贪心打包为尽量大的实心长方体</li>
+ *   <li>如果结构数量减少，在一次注册事务中用新长方体替换组件中的旧结构，范围不变的结构保持原样</li>
+ * </ol>
+ *
+ * <p>新结构的方块实体引用由调用者在规划完成后统一更新，见{@link MultiBlockHelper#mergeAndUpdateReferences}。
+ * 刻末的批量变化由{@link #plan}一次性规划出拆分和合并后的最终划分，见{@link MultiBlockUpdateQueue#flush}。</p>
+ *
+ * @see MultiBlockOccupancy#decomposeIntoBoxes(int)
+ * @see MultiBlockManager#replaceMultiBlocks
+ */
+final class MultiBlockMergePlanner {
+    private static final Logger LOGGER = FoodCraft.LOGGER;
+    /** 批量规划时按最小角归组的分块边长，限制每个规划窗口的大小 */
+    private static final int PLAN_TILE_SIZE = 32;
+
+    private MultiBlockMergePlanner() {
+    }
+
+    /**
+     * 一批变化的最终划分
+     *
+     * @param removed 需要注销的已注册结构
+     * @param ranges  需要注册的新结构的范围，都是实心的
+     */
+    record Plan(List<MultiBlock> removed, List<MultiBlock.PatternRange> ranges) {
+    }
+
+    /**
+     * 参与批量规划的结构或方块
+     *
+     * @param multiBlock 已注册的结构，暂存的新范围和新放置的方块为null
+     * @param range      完整结构、暂存范围或新放置方块的范围，不完整的结构为null
+     * @param changed    是否为本次变化的不完整结构或新放置的方块
+     */
+    private record Participant(@Nullable MultiBlock multiBlock, @Nullable MultiBlock.PatternRange range, boolean changed) {
+    }
+
+    /**
+     * 为一批变化直接规划拆分和合并后的最终划分，不注册、不持久化任何中间结构。
+     *
+     * <p>变化按最小角所在的分块依次规划。每个分块在自己的规划窗口中，把不完整结构剩余的方块、新放置的孤立方块
+     * 和窗口内同类的完整结构一起栅格化，对包含变化的每个连通组件取结构数量较少的方案：</p>
+     * <ul>
+     *   <li>只在局部拆分不完整的结构（见{@link MultiBlock#computeSplitRanges}），为孤立方块创建单方块结构，其余结构不变</li>
+     *   <li>把整个组件重新打包为尽量大的实心长方体，范围不变的结构保持原样</li>
+     * </ul>
+     * <p>之前分块规划出的范围作为暂存结构参与之后分块的规划。</p>
+     *
+     * @param world     服务器世界
+     * @param baseBlock 基础方块类型
+     * @param broken    占用掩码已更新且不再完整的已注册结构
+     * @param added     不属于任何结构的新放置方块
+     * @return 由调用者通过{@link MultiBlockManager#replaceMultiBlocks}在一次事务中提交的计划
+     */
+    static Plan plan(ServerWorld world, Block baseBlock, Collection<MultiBlock> broken, Collection<BlockPos> added) {
+        Map<Long, List<MultiBlock>> brokenByTile = new LinkedHashMap<>();
+        Map<Long, List<BlockPos>> addedByTile = new LinkedHashMap<>();
+        Set<Long> tiles = new LinkedHashSet<>();
+        for (MultiBlock multiBlock : broken) {
+            long tile = tileOf(multiBlock.masterPos);
+            brokenByTile.computeIfAbsent(tile, k -> new ArrayList<>()).add(multiBlock);
+            tiles.add(tile);
+        }
+        for (BlockPos pos : added) {
+            long tile = tileOf(pos);
+            addedByTile.computeIfAbsent(tile, k -> new ArrayList<>()).add(pos);
+            tiles.add(tile);
+        }
+
+        Set<MultiBlock> removed = new LinkedHashSet<>(broken);
+        Set<MultiBlock.PatternRange> ranges = new LinkedHashSet<>();
+        for (long tile : tiles) {
+            planTile(world, baseBlock,
+                    brokenByTile.getOrDefault(tile, Collections.emptyList()),
+                    addedByTile.getOrDefault(tile, Collections.emptyList()),
+                    removed, ranges);
+        }
+
+        LOGGER.debug("Planned {} broken and {} added {} blocks into {} removed and {} new MultiBlocks",
+                broken.size(), added.size(), baseBlock, removed.size(), ranges.size());
+        return new Plan(new ArrayList<>(removed), new ArrayList<>(ranges));
+    }
+
+    private static void planTile(ServerWorld world, Block baseBlock, List<MultiBlock> broken, List<BlockPos> added,
+                                 Set<MultiBlock> removed, Set<MultiBlock.PatternRange> ranges) {
+        // 规划窗口：变化的包围盒向各方向扩展MAX_SIZE - 1格
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+        for (MultiBlock multiBlock : broken) {
+            BlockPos start = multiBlock.range.getStart();
+            BlockPos end = multiBlock.range.getEnd();
+            minX = Math.min(minX, start.getX());
+            minY = Math.min(minY, start.getY());
+            minZ = Math.min(minZ, start.getZ());
+            maxX = Math.max(maxX, end.getX());
+            maxY = Math.max(maxY, end.getY());
+            maxZ = Math.max(maxZ, end.getZ());
+        }
+        for (BlockPos pos : added) {
+            minX = Math.min(minX, pos.getX());
+            minY = Math.min(minY, pos.getY());
+            minZ = Math.min(minZ, pos.getZ());
+            maxX = Math.max(maxX, pos.getX());
+            maxY = Math.max(maxY, pos.getY());
+            maxZ = Math.max(maxZ, pos.getZ());
+        }
+        int margin = MultiBlock.MAX_SIZE - 1;
+        BlockPos windowMin = new BlockPos(minX - margin, minY - margin, minZ - margin);
+        BlockPos windowMax = new BlockPos(maxX + margin, maxY + margin, maxZ + margin);
+        int width = windowMax.getX() - windowMin.getX() + 1;
+        int height = windowMax.getY() - windowMin.getY() + 1;
+        int depth = windowMax.getZ() - windowMin.getZ() + 1;
+
+        // 栅格化：owners[i]为占用该位置的参与者编号加1
+        List<Participant> participants = new ArrayList<>();
+        int[] owners = new int[width * height * depth];
+        for (MultiBlock multiBlock : MultiBlockManager.findMultiBlocksInBox(world, windowMin, windowMax)) {
+            if (multiBlock.baseBlock == baseBlock && !removed.contains(multiBlock) && multiBlock.checkIntegrity()) {
+                participants.add(new Participant(multiBlock, multiBlock.range, false));
+                fillRange(owners, windowMin, height, depth, multiBlock.range, participants.size());
+            }
+        }
+        for (MultiBlock.PatternRange range : ranges) {
+            if (isInside(range, windowMin, windowMax)) {
+                participants.add(new Participant(null, range, false));
+                fillRange(owners, windowMin, height, depth, range, participants.size());
+            }
+        }
+        for (MultiBlock multiBlock : broken) {
+            participants.add(new Participant(multiBlock, null, true));
+            MultiBlockOccupancy occupancy = multiBlock.occupancy;
+            BlockPos start = multiBlock.range.getStart();
+            for (int dx = 0; dx < multiBlock.range.getWidth(); dx++) {
+                for (int dy = 0; dy < multiBlock.range.getHeight(); dy++) {
+                    for (int dz = 0; dz < multiBlock.range.getDepth(); dz++) {
+                        if (occupancy.get(occupancy.index(dx, dy, dz))) {
+                            owners[windowIndex(windowMin, height, depth,
+                                    start.getX() + dx, start.getY() + dy, start.getZ() + dz)] = participants.size();
+                        }
+                    }
+                }
+            }
+        }
+        for (BlockPos pos : added) {
+            int index = windowIndex(windowMin, height, depth, pos.getX(), pos.getY(), pos.getZ());
+            if (owners[index] == 0) {
+                participants.add(new Participant(null, new MultiBlock.PatternRange(pos, 1, 1, 1), true));
+                owners[index] = participants.size();
+            }
+        }
+
+        // 并查集：合并面相邻的参与者
+        int strideX = height * depth;
+        int[] parent = new int[participants.size()];
+        for (int id = 0; id < parent.length; id++) {
+            parent[id] = id;
+        }
+        for (int index = 0; index < owners.length; index++) {
+            int owner = owners[index];
+            if (owner == 0) {
+                continue;
+            }
+            if ((index / strideX) + 1 < width) union(parent, owner - 1, owners[index + strideX] - 1);
+            if ((index / depth) % height + 1 < height) union(parent, owner - 1, owners[index + depth] - 1);
+            if (index % depth + 1 < depth) union(parent, owner - 1, owners[index + 1] - 1);
+        }
+
+        // 只重新规划包含变化的组件
+        Map<Integer, List<Participant>> members = new LinkedHashMap<>();
+        for (int id = 0; id < participants.size(); id++) {
+            if (participants.get(id).changed()) {
+                members.put(find(parent, id), new ArrayList<>());
+            }
+        }
+        for (int id = 0; id < participants.size(); id++) {
+            List<Participant> component = members.get(find(parent, id));
+            if (component != null) {
+                component.add(participants.get(id));
+            }
+        }
+        Map<Integer, IntArrayList> cells = new HashMap<>();
+        for (int index = 0; index < owners.length; index++) {
+            if (owners[index] != 0) {
+                int root = find(parent, owners[index] - 1);
+                if (members.containsKey(root)) {
+                    cells.computeIfAbsent(root, k -> new IntArrayList()).add(index);
+                }
+            }
+        }
+
+        for (Map.Entry<Integer, List<Participant>> entry : members.entrySet()) {
+            planComponent(entry.getValue(), cells.get(entry.getKey()), windowMin, height, depth, removed, ranges);
+        }
+    }
+
+    /**
+     * 在局部拆分和整体重新打包两种方案中选择结构数量较少的一种
+     */
+    private static void planComponent(List<Participant> component, @Nullable IntArrayList cells, BlockPos windowMin,
+                                      int height, int depth, Set<MultiBlock> removed, Set<MultiBlock.PatternRange> ranges) {
+        // 方案一：局部拆分，其余结构不变
+        List<MultiBlock.PatternRange> localRanges = new ArrayList<>();
+        int localCount = 0;
+        for (Participant participant : component) {
+            if (!participant.changed()) {
+                localCount++;
+            } else if (participant.multiBlock() != null) {
+                localRanges.addAll(participant.multiBlock().computeSplitRanges(participant.multiBlock().occupancy));
+            } else {
+                localRanges.add(participant.range());
+            }
+        }
+        localCount += localRanges.size();
+        if (cells == null) {
+            // 结构的方块全部被移除
+            ranges.addAll(localRanges);
+            return;
+        }
+
+        // 方案二：在组件的包围盒中重新打包
+        int strideX = height * depth;
+        int[] bounds = {Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, -1, -1, -1};
+        for (int i = 0; i < cells.size(); i++) {
+            int index = cells.getInt(i);
+            int x = index / strideX, y = (index / depth) % height, z = index % depth;
+            bounds[0] = Math.min(bounds[0], x);
+            bounds[1] = Math.min(bounds[1], y);
+            bounds[2] = Math.min(bounds[2], z);
+            bounds[3] = Math.max(bounds[3], x);
+            bounds[4] = Math.max(bounds[4], y);
+            bounds[5] = Math.max(bounds[5], z);
+        }
+        MultiBlockOccupancy occupancy = MultiBlockOccupancy.empty(
+                bounds[3] - bounds[0] + 1, bounds[4] - bounds[1] + 1, bounds[5] - bounds[2] + 1);
+        for (int i = 0; i < cells.size(); i++) {
+            int index = cells.getInt(i);
+            occupancy.set(occupancy.index(
+                    index / strideX - bounds[0], (index / depth) % height - bounds[1], index % depth - bounds[2]), true);
+        }
+        int[] boxes = occupancy.decomposeIntoBoxes(MultiBlock.MAX_SIZE);
+
+        if (boxes.length / 4 >= localCount) {
+            ranges.addAll(localRanges);
+            return;
+        }
+
+        // 范围不变的结构保持原样，其余结构统一替换
+        Map<MultiBlock.PatternRange, Participant> unchanged = new HashMap<>();
+        for (Participant participant : component) {
+            if (!participant.changed()) {
+                unchanged.put(participant.range(), participant);
+            }
+        }
+        BlockPos origin = windowMin.add(bounds[0], bounds[1], bounds[2]);
+        List<MultiBlock.PatternRange> packed = new ArrayList<>();
+        for (int i = 0; i < boxes.length; i += 4) {
+            BlockPos start = origin.add(
+                    occupancy.getRelativeX(boxes[i]),
+                    occupancy.getRelativeY(boxes[i]),
+                    occupancy.getRelativeZ(boxes[i]));
+            MultiBlock.PatternRange range = new MultiBlock.PatternRange(start, boxes[i + 1], boxes[i + 2], boxes[i + 3]);
+            if (unchanged.remove(range) == null) {
+                packed.add(range);
+            }
+        }
+        for (Participant participant : unchanged.values()) {
+            if (participant.multiBlock() != null) {
+                removed.add(participant.multiBlock());
+            } else {
+                ranges.remove(participant.range());
+            }
+        }
+        ranges.addAll(packed);
+    }
+
+    private static long tileOf(BlockPos pos) {
+        return BlockPos.asLong(
+                Math.floorDiv(pos.getX(), PLAN_TILE_SIZE),
+                Math.floorDiv(pos.getY(), PLAN_TILE_SIZE),
+                Math.floorDiv(pos.getZ(), PLAN_TILE_SIZE));
+    }
+
+    private static int windowIndex(BlockPos windowMin, int height, int depth, int x, int y, int z) {
+        return ((x - windowMin.getX()) * height + y - windowMin.getY()) * depth + z - windowMin.getZ();
+    }
+
+    private static void fillRange(int[] owners, BlockPos windowMin, int height, int depth,
+                                  MultiBlock.PatternRange range, int owner) {
+        BlockPos start = range.getStart();
+        for (int dx = 0; dx < range.getWidth(); dx++) {
+            for (int dy = 0; dy < range.getHeight(); dy++) {
+                int row = windowIndex(windowMin, height, depth, start.getX() + dx, start.getY() + dy, start.getZ());
+                Arrays.fill(owners, row, row + range.getDepth(), owner);
+            }
+        }
+    }
+
+    private static boolean isInside(MultiBlock.PatternRange range, BlockPos min, BlockPos max) {
+        BlockPos start = range.getStart();
+        BlockPos end = range.getEnd();
+        return start.getX() >= min.getX() && start.getY() >= min.getY() && start.getZ() >= min.getZ()
+                && end.getX() <= max.getX() && end.getY() <= max.getY() && end.getZ() <= max.getZ();
+    }
+
+    /**
+     * 将起始结构与其所在连通组件中的结构合并为尽量少的实心长方体。
+     *
+     * @param seed 起始结构
+     * @return 新创建的结构，如果没有可以减少结构数量的方案则返回空列表
+     */
+    static List<MultiBlock> merge(MultiBlock seed) {
+        if (seed.isDisposed() || !(seed.world instanceof ServerWorld world)) {
+            return Collections.emptyList();
+        }
+
+        // 规划窗口：任何包含起始结构的新结构都不会超出该范围
+        int margin = MultiBlock.MAX_SIZE - 1;
+        BlockPos windowMin = seed.range.getStart().add(-margin, -margin, -margin);
+        BlockPos windowMax = seed.range.getEnd().add(margin, margin, margin);
+        int width = windowMax.getX() - windowMin.getX() + 1;
+        int height = windowMax.getY() - windowMin.getY() + 1;
+        int depth = windowMax.getZ() - windowMin.getZ() + 1;
+
+        List<MultiBlock> candidates = new ArrayList<>();
+        for (MultiBlock multiBlock : MultiBlockManager.findMultiBlocksInBox(world, windowMin, windowMax)) {
+            if (multiBlock.baseBlock == seed.baseBlock && multiBlock.checkIntegrity()) {
+                candidates.add(multiBlock);
+            }
+        }
+        int seedId = candidates.indexOf(seed);
+        if (candidates.size() < 2 || seedId < 0) {
+            return Collections.emptyList();
+        }
+
+        // 栅格化：owners[i]为占用该位置的候选结构编号加1
+        int strideX = height * depth;
+        int[] owners = new int[width * strideX];
+        for (int id = 0; id < candidates.size(); id++) {
+            MultiBlock.PatternRange range = candidates.get(id).range;
+            int ox = range.getStart().getX() - windowMin.getX();
+            int oy = range.getStart().getY() - windowMin.getY();
+            int oz = range.getStart().getZ() - windowMin.getZ();
+            for (int dx = 0; dx < range.getWidth(); dx++) {
+                for (int dy = 0; dy < range.getHeight(); dy++) {
+                    int row = ((ox + dx) * height + oy + dy) * depth + oz;
+                    Arrays.fill(owners, row, row + range.getDepth(), id + 1);
+                }
+            }
+        }
+
+        // 并查集：合并面相邻的结构
+        int[] parent = new int[candidates.size()];
+        for (int id = 0; id < parent.length; id++) {
+            parent[id] = id;
+        }
+        for (int index = 0; index < owners.length; index++) {
+            int owner = owners[index];
+            if (owner == 0) {
+                continue;
+            }
+            if ((index / strideX) + 1 < width) union(parent, owner - 1, owners[index + strideX] - 1);
+            if ((index / depth) % height + 1 < height) union(parent, owner - 1, owners[index + depth] - 1);
+            if (index % depth + 1 < depth) union(parent, owner - 1, owners[index + 1] - 1);
+        }
+
+        int root = find(parent, seedId);
+        List<MultiBlock> component = new ArrayList<>();
+        for (int id = 0; id < candidates.size(); id++) {
+            if (find(parent, id) == root) {
+                component.add(candidates.get(id));
+            }
+        }
+        if (component.size() < 2) {
+            return Collections.emptyList();
+        }
+
+        MultiBlockOccupancy occupancy = MultiBlockOccupancy.empty(width, height, depth);
+        for (int index = 0; index < owners.length; index++) {
+            if (owners[index] != 0 && find(parent, owners[index] - 1) == root) {
+                occupancy.set(index, true);
+            }
+        }
+
+        int[] boxes = occupancy.decomposeIntoBoxes(MultiBlock.MAX_SIZE);
+        int boxCount = boxes.length / 4;
+        if (boxCount >= component.size()) {
+            LOGGER.debug("No better partition for {} MultiBlocks around {}", component.size(), seed.masterPos);
+            return Collections.emptyList();
+        }
+
+        // 范围不变的结构保持原样，其余结构统一替换
+        Map<MultiBlock.PatternRange, MultiBlock> unchanged = new HashMap<>();
+        for (MultiBlock multiBlock : component) {
+            unchanged.put(multiBlock.range, multiBlock);
+        }
+        List<MultiBlock.PatternRange> ranges = new ArrayList<>();
+        for (int i = 0; i < boxes.length; i += 4) {
+            BlockPos start = windowMin.add(
+                    occupancy.getRelativeX(boxes[i]),
+                    occupancy.getRelativeY(boxes[i]),
+                    occupancy.getRelativeZ(boxes[i]));
+            MultiBlock.PatternRange range = new MultiBlock.PatternRange(start, boxes[i + 1], boxes[i + 2], boxes[i + 3]);
+            if (unchanged.remove(range) == null) {
+                ranges.add(range);
+            }
+        }
+        List<MultiBlock> removed = new ArrayList<>(component);
+        removed.removeAll(unchanged.values());
+
+        List<MultiBlock> created = MultiBlockManager.replaceMultiBlocks(world, seed.baseBlock, removed, ranges);
+        LOGGER.debug("Merged {} MultiBlocks around {} into {} MultiBlocks",
+                component.size(), seed.masterPos, boxCount);
+        return created;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        if (b < 0) {
+            return;
+        }
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA != rootB) {
+            parent[rootB] = rootA;
+        }
+    }
+
+    private static int find(int[] parent, int id) {
+        while (parent[id] != id) {
+            parent[id] = parent[parent[id]];
+            id = parent[id];
+        }
+        return id;
+    }
+}
@@ -0,0 +1,430 @@
+package org.foodcraft.block.multi;
+
+import net.minecraft.block.Block;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.WorldView;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 方块堆的占用掩码
+ *
+ * <p>以位图记录方块堆范围内每个位置是否为基础方块，用于在单个方块变化时增量更新完整性，
+ * 而无需重新读取整个范围的方块状态。</p>
+ *
+ * <p>位索引为{@code (dx * height + dy) * depth + dz}，按索引升序遍历的顺序与
+ * 按X、Y、Z三重循环扫描世界的顺序一致。拆分所需的立方体分解和连通组件搜索也直接在位图上通过索引运算完成，
+ * 不会为每个位置创建{@link BlockPos}。</p>
+ *
+ * @see MultiBlock#checkAndSplitIntegrity(BlockPos)
+ */
+final class MultiBlockOccupancy {
+    private final int width;
+    private final int height;
+    private final int depth;
+    private final long[] bits;
+    private int count;
+
+    private MultiBlockOccupancy(int width, int height, int depth) {
+        this.width = width;
+        this.height = height;
+        this.depth = depth;
+        this.bits = new long[(width * height * depth + 63) >>> 6];
+    }
+
+    /**
+     * 创建所有位置都被占用的掩码。
+     */
+    static MultiBlockOccupancy full(MultiBlock.PatternRange range) {
+        MultiBlockOccupancy occupancy = new MultiBlockOccupancy(range.getWidth(), range.getHeight(), range.getDepth());
+        for (int i = 0; i < occupancy.volume(); i++) {
+            occupancy.bits[i >>> 6] |= 1L << i;
+        }
+        occupancy.count = occupancy.volume();
+        return occupancy;
+    }
+
+    /**
+     * 创建所有位置都未被占用的掩码。
+     */
+    static MultiBlockOccupancy empty(int width, int height, int depth) {
+        return new MultiBlockOccupancy(width, height, depth);
+    }
+
+    /**
+     * 扫描世界创建掩码。
+     */
+    static MultiBlockOccupancy scan(WorldView world, MultiBlock.PatternRange range, Block baseBlock) {
+        MultiBlockOccupancy occupancy = new MultiBlockOccupancy(range.getWidth(), range.getHeight(), range.getDepth());
+        BlockPos start = range.getStart();
+        BlockPos.Mutable pos = new BlockPos.Mutable();
+
+        int index = 0;
+        for (int dx = 0; dx < occupancy.width; dx++) {
+            for (int dy = 0; dy < occupancy.height; dy++) {
+                for (int dz = 0; dz < occupancy.depth; dz++, index++) {
+                    pos.set(start.getX() + dx, start.getY() + dy, start.getZ() + dz);
+                    if (world.getBlockState(pos).getBlock() == baseBlock) {
+                        occupancy.bits[index >>> 6] |= 1L << index;
+                        occupancy.count++;
+                    }
+                }
+            }
+        }
+        return occupancy;
+    }
+
+    int index(int dx, int dy, int dz) {
+        return (dx * height + dy) * depth + dz;
+    }
+
+    boolean get(int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    void set(int index, boolean occupied) {
+        if (get(index) == occupied) {
+            return;
+        }
+        if (occupied) {
+            bits[index >>> 6] |= 1L << index;
+            count++;
+        } else {
+            bits[index >>> 6] &= ~(1L << index);
+            count--;
+        }
+    }
+
+    int count() {
+        return count;
+    }
+
+    int volume() {
+        return width * height * depth;
+    }
+
+    boolean isFull() {
+        return count == volume();
+    }
+
+    /**
+     * 将被占用的位置贪心分解为互不重叠的实心立方体。
+     *
+     * <p>按边长从大到小、同一边长按扫描顺序，依次选择不与已选立方体重叠的实心立方体，直到覆盖所有被占用位置。
+     * 每个位置作为最小角时能容纳的最大立方体边长通过一次动态规划求出，之后的判定只需比较边长和检查覆盖位图。</p>
+     *
+     * @return 按选择顺序排列的立方体，每项编码为{@code (最小角位索引 << 4) | 边长}
+     * @see #cubeIndex(int)
+     * @see #cubeSize(int)
+     */
+    int[] decomposeIntoCubes() {
+        int volume = volume();
+        int strideX = height * depth;
+
+        // cubeSizes[i]：以i为最小角的最大实心立方体边长
+        byte[] cubeSizes = new byte[volume];
+        for (int dx = width - 1; dx >= 0; dx--) {
+            for (int dy = height - 1; dy >= 0; dy--) {
+                for (int dz = depth - 1; dz >= 0; dz--) {
+                    int index = index(dx, dy, dz);
+                    if (!get(index)) {
+                        continue;
+                    }
+                    int min = 0;
+                    if (dx + 1 < width && dy + 1 < height && dz + 1 < depth) {
+                        min = Math.min(cubeSizes[index + strideX],
+                                Math.min(cubeSizes[index + depth], cubeSizes[index + 1]));
+                        min = Math.min(min, Math.min(cubeSizes[index + strideX + depth],
+                                Math.min(cubeSizes[index + strideX + 1], cubeSizes[index + depth + 1])));
+                        min = Math.min(min, cubeSizes[index + strideX + depth + 1]);
+                    }
+                    cubeSizes[index] = (byte) (min + 1);
+                }
+            }
+        }
+
+        long[] covered = new long[bits.length];
+        int[] cubes = new int[count];
+        int cubeCount = 0;
+        int remaining = count;
+
+        for (int size = Math.min(width, Math.min(height, depth)); size >= 1 && remaining > 0; size--) {
+            for (int dx = 0; dx <= width - size && remaining > 0; dx++) {
+                for (int dy = 0; dy <= height - size && remaining > 0; dy++) {
+                    for (int dz = 0; dz <= depth - size && remaining > 0; dz++) {
+                        int index = index(dx, dy, dz);
+                        if (cubeSizes[index] >= size && isCubeFree(covered, index, size)) {
+                            markCube(covered, index, size);
+                            cubes[cubeCount++] = (index << 4) | size;
+                            remaining -= size * size * size;
+                        }
+                    }
+                }
+            }
+        }
+        return Arrays.copyOf(cubes, cubeCount);
+    }
+
+    /**
+     * 将被占用的位置贪心打包为互不重叠的实心长方体，每个长方体的边长不超过{@code maxSize}。
+     *
+     * <p>按扫描顺序找到第一个未覆盖的被占用位置作为最小角，依次沿Z轴、X轴、Y轴尽量延伸，
+     * 优先在水平面上展开，使平铺的地板打包为尽量少的结构。</p>
+     *
+     * @return 每4项描述一个长方体：{@code {最小角位索引, 宽度, 高度, 深度}}
+     */
+    int[] decomposeIntoBoxes(int maxSize) {
+        long[] covered = new long[bits.length];
+        int strideX = height * depth;
+        int[] boxes = new int[count * 4];
+        int boxCount = 0;
+
+        for (int index = 0; index < volume(); index++) {
+            if (!get(index) || isSet(covered, index)) {
+                continue;
+            }
+            int dx = getRelativeX(index);
+            int dy = getRelativeY(index);
+            int dz = getRelativeZ(index);
+
+            int d = 1;
+            while (dz + d < depth && d < maxSize && isFree(covered, index + d)) {
+                d++;
+            }
+            int w = 1;
+            while (dx + w < width && w < maxSize && isBoxFree(covered, index + w * strideX, 1, 1, d)) {
+                w++;
+            }
+            int h = 1;
+            while (dy + h < height && h < maxSize && isBoxFree(covered, index + h * depth, w, 1, d)) {
+                h++;
+            }
+
+            markBox(covered, index, w, h, d);
+            boxes[boxCount++] = index;
+            boxes[boxCount++] = w;
+            boxes[boxCount++] = h;
+            boxes[boxCount++] = d;
+        }
+        return Arrays.copyOf(boxes, boxCount);
+    }
+
+    /**
+     * 使用广度优先搜索拆分出六向连通的组件，每个组件使用与当前掩码相同尺寸的新掩码表示。
+     */
+    List<MultiBlockOccupancy> connectedComponents() {
+        int volume = volume();
+        int strideX = height * depth;
+        long[] visited = new long[bits.length];
+        int[] queue = new int[count];
+        List<MultiBlockOccupancy> components = new ArrayList<>();
+
+        for (int start = 0; start < volume; start++) {
+            if (!get(start) || isSet(visited, start)) {
+                continue;
+            }
+
+            MultiBlockOccupancy component = new MultiBlockOccupancy(width, height, depth);
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = start;
+            setBit(visited, start);
+
+            while (head < tail) {
+                int index = queue[head++];
+                component.set(index, true);
+
+                int dx = index / strideX;
+                int dy = (index / depth) % height;
+                int dz = index % depth;
+
+                // 东西、上下、南北六个方向
+                if (dx + 1 < width) tail = visit(index + strideX, visited, queue, tail);
+                if (dx > 0) tail = visit(index - strideX, visited, queue, tail);
+                if (dy + 1 < height) tail = visit(index + depth, visited, queue, tail);
+                if (dy > 0) tail = visit(index - depth, visited, queue, tail);
+                if (dz + 1 < depth) tail = visit(index + 1, visited, queue, tail);
+                if (dz > 0) tail = visit(index - 1, visited, queue, tail);
+            }
+            components.add(component);
+        }
+        return components;
+    }
+
+    /**
+     * 计算被占用位置的包围盒。
+     *
+     * @return {@code {minX, minY, minZ, maxX, maxY, maxZ}}（相对坐标），如果没有被占用位置返回null
+     */
+    int[] bounds() {
+        if (count == 0) {
+            return null;
+        }
+
+        int[] bounds = {width, height, depth, -1, -1, -1};
+        int index = 0;
+        for (int dx = 0; dx < width; dx++) {
+            for (int dy = 0; dy < height; dy++) {
+                for (int dz = 0; dz < depth; dz++, index++) {
+                    if (get(index)) {
+                        bounds[0] = Math.min(bounds[0], dx);
+                        bounds[1] = Math.min(bounds[1], dy);
+                        bounds[2] = Math.min(bounds[2], dz);
+                        bounds[3] = Math.max(bounds[3], dx);
+                        bounds[4] = Math.max(bounds[4], dy);
+                        bounds[5] = Math.max(bounds[5], dz);
+                    }
+                }
+            }
+        }
+        return bounds;
+    }
+
+    /**
+     * 计算未被占用位置的包围盒。
+     *
+     * @return {@code {minX, minY, minZ, maxX, maxY, maxZ}}（相对坐标），如果所有位置都被占用返回null
+     */
+    int[] emptyBounds() {
+        if (isFull()) {
+            return null;
+        }
+
+        int[] bounds = {width, height, depth, -1, -1, -1};
+        for (int index = 0; index < volume(); index++) {
+            if (!get(index)) {
+                int dx = getRelativeX(index);
+                int dy = getRelativeY(index);
+                int dz = getRelativeZ(index);
+                bounds[0] = Math.min(bounds[0], dx);
+                bounds[1] = Math.min(bounds[1], dy);
+                bounds[2] = Math.min(bounds[2], dz);
+                bounds[3] = Math.max(bounds[3], dx);
+                bounds[4] = Math.max(bounds[4], dy);
+                bounds[5] = Math.max(bounds[5], dz);
+            }
+        }
+        return bounds;
+    }
+
+    /**
+     * 复制以{@code (x, y, z)}为最小角的子长方体内的占用情况。
+     */
+    MultiBlockOccupancy copyBox(int x, int y, int z, int w, int h, int d) {
+        MultiBlockOccupancy box = new MultiBlockOccupancy(w, h, d);
+        int target = 0;
+        for (int dx = 0; dx < w; dx++) {
+            for (int dy = 0; dy < h; dy++) {
+                int row = index(x + dx, y + dy, z);
+                for (int dz = 0; dz < d; dz++, target++) {
+                    if (get(row + dz)) {
+                        box.set(target, true);
+                    }
+                }
+            }
+        }
+        return box;
+    }
+
+    /**
+     * 获取{@link #decomposeIntoCubes()}结果项的最小角位索引。
+     */
+    static int cubeIndex(int cube) {
+        return cube >>> 4;
+    }
+
+    /**
+     * 获取{@link #decomposeIntoCubes()}结果项的边长。
+     */
+    static int cubeSize(int cube) {
+        return cube & 0xF;
+    }
+
+    int getRelativeX(int index) {
+        return index / (height * depth);
+    }
+
+    int getRelativeY(int index) {
+        return (index / depth) % height;
+    }
+
+    int getRelativeZ(int index) {
+        return index % depth;
+    }
+
+    private int visit(int index, long[] visited, int[] queue, int tail) {
+        if (get(index) && !isSet(visited, index)) {
+            setBit(visited, index);
+            queue[tail++] = index;
+        }
+        return tail;
+    }
+
+    private boolean isFree(long[] covered, int index) {
+        return get(index) && !isSet(covered, index);
+    }
+
+    private boolean isBoxFree(long[] covered, int corner, int w, int h, int d) {
+        int strideX = height * depth;
+        for (int dx = 0; dx < w; dx++) {
+            for (int dy = 0; dy < h; dy++) {
+                int row = corner + dx * strideX + dy * depth;
+                for (int dz = 0; dz < d; dz++) {
+                    if (!isFree(covered, row + dz)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private void markBox(long[] covered, int corner, int w, int h, int d) {
+        int strideX = height * depth;
+        for (int dx = 0; dx < w; dx++) {
+            for (int dy = 0; dy < h; dy++) {
+                int row = corner + dx * strideX + dy * depth;
+                for (int dz = 0; dz < d; dz++) {
+                    setBit(covered, row + dz);
+                }
+            }
+        }
+    }
+
+    private boolean isCubeFree(long[] covered, int corner, int size) {
+        int strideX = height * depth;
+        for (int dx = 0; dx < size; dx++) {
+            for (int dy = 0; dy < size; dy++) {
+                int row = corner + dx * strideX + dy * depth;
+                for (int dz = 0; dz < size; dz++) {
+                    if (isSet(covered, row + dz)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private void markCube(long[] covered, int corner, int size) {
+        int strideX = height * depth;
+        for (int dx = 0; dx < size; dx++) {
+            for (int dy = 0; dy < size; dy++) {
+                int row = corner + dx * strideX + dy * depth;
+                for (int dz = 0; dz < size; dz++) {
+                    setBit(covered, row + dz);
+                }
+            }
+        }
+    }
+
+    private static boolean isSet(long[] words, int index) {
+        return (words[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private static void setBit(long[] words, int index) {
+        words[index >>> 6] |= 1L << index;
+    }
+}
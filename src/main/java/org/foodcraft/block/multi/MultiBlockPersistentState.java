@@ -1,41 +1,69 @@
 package org.foodcraft.block.multi;
 
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.nbt.NbtElement;
 import net.minecraft.nbt.NbtHelper;
+import net.minecraft.nbt.NbtIo;
 import net.minecraft.nbt.NbtList;
-import net.minecraft.server.MinecraftServer;
+import net.minecraft.nbt.NbtString;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.WorldSavePath;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.PersistentState;
 import net.minecraft.world.PersistentStateManager;
 import net.minecraft.world.World;
+import net.minecraft.world.dimension.DimensionType;
 import org.foodcraft.FoodCraft;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 
-import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 多方块数据的持久化存储
+ *
+ * <p>数据按区域（32×32区块）分片，每个区域是一个独立的{@link PersistentState}，保存为
+ * {@code data/multiblocks_r.<x>.<z>.dat}。方块堆归属于其主方块所在的区块，
+ * 增删只会标记所在区域为脏，存档时只重写发生变化的区域。</p>
+ *
+ * <p>区块加载时由{@link MultiBlockManager#onChunkLoad}读取该区块的数据重建方块堆，
+ * 另有一个{@link RegionIndex}记录所有包含数据的区域，用于备份（见{@link #snapshot(ServerWorld)}）。</p>
+ *
+ * <p>区域文件使用紧凑的列式格式，见{@link #writeCompact}；旧的逐条复合标签格式仍可读取。
+ * 旧版本将整个维度的数据保存在单个{@code multiblocks.dat}中，世界加载时会由
+ * {@link #migrateLegacy(ServerWorld)}拆分到各个区域。</p>
  */
 public class MultiBlockPersistentState extends PersistentState {
     private static final Logger LOGGER = FoodCraft.LOGGER;
     private static final String PERSISTENT_ID = "multiblocks";
+    private static final String REGION_ID_PREFIX = "multiblocks_r.";
+    private static final String FORMAT_VERSION_KEY = "version";
+    /** 紧凑格式的版本号，见{@link #writeCompact} */
+    private static final int FORMAT_VERSION = 1;
+
+    /** 区域坐标，即区块坐标右移5位 */
+    private final int regionX;
+    private final int regionZ;
 
     /**
-     * 临时存储的方块堆数据
+     * 区域内的方块堆数据，按主方块所在区块（{@link ChunkPos#toLong()}）分组
      * @see MultiBlockManager#multiBlockRegistry
      */
-    private final Map<Identifier, Map<BlockPos, MultiBlockData>> worldData = new ConcurrentHashMap<>();
+    private final Map<Long, Map<BlockPos, MultiBlockData>> chunkData = new ConcurrentHashMap<>();
 
-    public MultiBlockPersistentState() {
+    public MultiBlockPersistentState(int regionX, int regionZ) {
         super();
+        this.regionX = regionX;
+        this.regionZ = regionZ;
     }
 
     /**
@@ -69,21 +97,11 @@ public class MultiBlockPersistentState extends PersistentState {
      * 添加多方块数据
      */
     public void addMultiBlock(@NotNull World world, @NotNull MultiBlock multiBlock) {
-        Identifier worldId = world.getRegistryKey().getValue();
-        Map<BlockPos, MultiBlockData> worldMap = worldData.computeIfAbsent(worldId, k -> new ConcurrentHashMap<>());
-
-        MultiBlockData data = new MultiBlockData(
-                multiBlock.getMasterPos(),
-                multiBlock.getBaseBlock().getRegistryEntry().registryKey().getValue().toString(),
-                multiBlock.getRange().getStart(),
-                multiBlock.getRange().getWidth(),
-                multiBlock.getRange().getHeight(),
-                multiBlock.getRange().getDepth()
-        );
-
-        worldMap.put(multiBlock.getMasterPos(), data);
-        markDirty();
+        putData(toData(multiBlock));
 
+        if (world instanceof ServerWorld serverWorld) {
+            RegionIndex.getOrCreate(serverWorld).add(regionX, regionZ);
+        }
         LOGGER.debug("Added MultiBlock data to persistent storage: {}", multiBlock.getMasterPos());
     }
 
@@ -91,114 +109,402 @@ public class MultiBlockPersistentState extends PersistentState {
      * 移除多方块数据
      */
     public void removeMultiBlock(@NotNull World world, BlockPos masterPos) {
-        Identifier worldId = world.getRegistryKey().getValue();
-        Map<BlockPos, MultiBlockData> worldMap = worldData.get(worldId);
-        if (worldMap != null) {
-            worldMap.remove(masterPos);
+        if (removeData(masterPos)) {
             markDirty();
             LOGGER.debug("Removed MultiBlock data from persistent storage: {}", masterPos);
         }
     }
 
     /**
-     * 获取世界中所有的多方块数据
+     * 在同一批修改中移除和添加该区域中的多方块数据，区域只标记一次修改
+     *
+     * @param removedMasters 被移除的方块堆的主方块坐标，都位于该区域中
+     * @param added          新增的方块堆，主方块都位于该区域中
+     * @see MultiBlockManager#replaceMultiBlocks
      */
-    public Collection<MultiBlockData> getMultiBlocksForWorld(@NotNull World world) {
-        Identifier worldId = world.getRegistryKey().getValue();
-        Map<BlockPos, MultiBlockData> worldMap = worldData.get(worldId);
-        return worldMap != null ? worldMap.values() : Collections.emptyList();
+    public void replaceMultiBlocks(@NotNull ServerWorld world, Collection<BlockPos> removedMasters, Collection<MultiBlock> added) {
+        boolean changed = false;
+        for (BlockPos masterPos : removedMasters) {
+            changed |= removeData(masterPos);
+        }
+        for (MultiBlock multiBlock : added) {
+            MultiBlockData data = toData(multiBlock);
+            chunkData.computeIfAbsent(ChunkPos.toLong(data.masterPos().getX() >> 4, data.masterPos().getZ() >> 4),
+                    k -> new ConcurrentHashMap<>()).put(data.masterPos(), data);
+            changed = true;
+        }
+
+        if (!added.isEmpty()) {
+            RegionIndex.getOrCreate(world).add(regionX, regionZ);
+        }
+        if (changed) {
+            markDirty();
+        }
+        LOGGER.debug("Replaced {} MultiBlocks with {} MultiBlocks in region {}, {}",
+                removedMasters.size(), added.size(), regionX, regionZ);
+    }
+
+    private static MultiBlockData toData(MultiBlock multiBlock) {
+        return new MultiBlockData(
+                multiBlock.getMasterPos(),
+                multiBlock.getBaseBlock().getRegistryEntry().registryKey().getValue().toString(),
+                multiBlock.getRange().getStart(),
+                multiBlock.getRange().getWidth(),
+                multiBlock.getRange().getHeight(),
+                multiBlock.getRange().getDepth()
+        );
+    }
+
+    private boolean removeData(BlockPos masterPos) {
+        long chunkKey = ChunkPos.toLong(masterPos.getX() >> 4, masterPos.getZ() >> 4);
+        Map<BlockPos, MultiBlockData> chunkMap = chunkData.get(chunkKey);
+        if (chunkMap != null && chunkMap.remove(masterPos) != null) {
+            if (chunkMap.isEmpty()) {
+                chunkData.remove(chunkKey);
+            }
+            return true;
+        }
+        return false;
     }
 
     /**
-     * 清除世界中的所有多方块数据
+     * 获取主方块位于指定区块中的所有多方块数据
      */
-    public void clearWorldData(@NotNull World world) {
-        Identifier worldId = world.getRegistryKey().getValue();
-        worldData.remove(worldId);
+    public Collection<MultiBlockData> getMultiBlocksInChunk(@NotNull ChunkPos chunkPos) {
+        Map<BlockPos, MultiBlockData> chunkMap = chunkData.get(chunkPos.toLong());
+        return chunkMap != null ? chunkMap.values() : Collections.emptyList();
+    }
+
+    /**
+     * 获取该区域中所有的多方块数据
+     */
+    public Collection<MultiBlockData> getMultiBlocks() {
+        List<MultiBlockData> result = new ArrayList<>();
+        for (Map<BlockPos, MultiBlockData> chunkMap : chunkData.values()) {
+            result.addAll(chunkMap.values());
+        }
+        return result;
+    }
+
+    public boolean isEmpty() {
+        return chunkData.isEmpty();
+    }
+
+    private void putData(MultiBlockData data) {
+        BlockPos masterPos = data.masterPos();
+        long chunkKey = ChunkPos.toLong(masterPos.getX() >> 4, masterPos.getZ() >> 4);
+        chunkData.computeIfAbsent(chunkKey, k -> new ConcurrentHashMap<>()).put(masterPos, data);
         markDirty();
-        LOGGER.info("Cleared all MultiBlock data for world: {}", worldId);
     }
 
     @Override
     public NbtCompound writeNbt(NbtCompound nbt) {
-        NbtList worldsList = new NbtList();
+        Collection<MultiBlockData> dataList = getMultiBlocks();
+        writeCompact(dataList, nbt);
+        LOGGER.debug("Saved {} MultiBlocks in region {}, {}", dataList.size(), regionX, regionZ);
 
-        for (Map.Entry<Identifier, Map<BlockPos, MultiBlockData>> worldEntry : worldData.entrySet()) {
-            NbtCompound worldNbt = new NbtCompound();
-            worldNbt.putString("worldId", worldEntry.getKey().toString());
+        return nbt;
+    }
 
-            NbtList multiBlocksList = new NbtList();
-            for (MultiBlockData data : worldEntry.getValue().values()) {
-                multiBlocksList.add(data.toNbt());
-            }
+    /**
+     * 从NBT读取数据，兼容旧的逐条复合标签格式
+     *
+     * <p>以旧格式读取的区域会被标记为脏，在下一次存档时以紧凑格式重写。</p>
+     */
+    public static @NotNull MultiBlockPersistentState fromNbt(NbtCompound nbt, int regionX, int regionZ) {
+        MultiBlockPersistentState state = new MultiBlockPersistentState(regionX, regionZ);
 
-            worldNbt.put("multiBlocks", multiBlocksList);
-            worldsList.add(worldNbt);
+        boolean compact = nbt.contains(FORMAT_VERSION_KEY, NbtElement.INT_TYPE);
+        List<MultiBlockData> dataList = readData(nbt);
+        for (MultiBlockData data : dataList) {
+            BlockPos masterPos = data.masterPos();
+            state.chunkData.computeIfAbsent(ChunkPos.toLong(masterPos.getX() >> 4, masterPos.getZ() >> 4),
+                    k -> new ConcurrentHashMap<>()).put(masterPos, data);
+        }
+        if (!compact && !dataList.isEmpty()) {
+            state.markDirty();
         }
 
-        nbt.put("worlds", worldsList);
-        LOGGER.info("Saved {} worlds with MultiBlock data to persistent storage", worldData.size());
+        LOGGER.debug("Loaded {} MultiBlocks in region {}, {}", dataList.size(), regionX, regionZ);
+        return state;
+    }
 
-        return nbt;
+    /**
+     * 读取区域数据，兼容旧的逐条复合标签格式
+     */
+    private static List<MultiBlockData> readData(NbtCompound nbt) {
+        return nbt.contains(FORMAT_VERSION_KEY, NbtElement.INT_TYPE) ? readCompact(nbt) : readLegacyList(nbt);
     }
 
     /**
-     * 从NBT读取数据
+     * 以紧凑的列式格式写入多方块数据
+     *
+     * <p>格式（版本{@value #FORMAT_VERSION}）：</p>
+     * <ul>
+     *   <li>{@code palette} - 基础方块ID的字符串列表，每个文件独立</li>
+     *   <li>{@code masters}、{@code starts} - 主方块和起始坐标，{@link BlockPos#asLong()}</li>
+     *   <li>{@code sizes} - 宽、高、深各占8位打包成的int</li>
+     *   <li>{@code blocks} - 基础方块在调色板中的索引</li>
+     * </ul>
      */
-    public static @NotNull MultiBlockPersistentState fromNbt(NbtCompound nbt) {
-        MultiBlockPersistentState state = new MultiBlockPersistentState();
+    static void writeCompact(Collection<MultiBlockData> dataList, NbtCompound nbt) {
+        int size = dataList.size();
+        long[] masters = new long[size];
+        long[] starts = new long[size];
+        int[] sizes = new int[size];
+        int[] blocks = new int[size];
+        Object2IntOpenHashMap<String> paletteIndex = new Object2IntOpenHashMap<>();
+        paletteIndex.defaultReturnValue(-1);
+        NbtList palette = new NbtList();
 
-        NbtList worldsList = nbt.getList("worlds", NbtElement.COMPOUND_TYPE);
-        for (NbtElement worldElement : worldsList) {
-            NbtCompound worldNbt = (NbtCompound) worldElement;
-            Identifier worldId = new Identifier(worldNbt.getString("worldId"));
+        int i = 0;
+        for (MultiBlockData data : dataList) {
+            masters[i] = data.masterPos().asLong();
+            starts[i] = data.start().asLong();
+            sizes[i] = (data.width() << 16) | (data.height() << 8) | data.depth();
+            int blockIndex = paletteIndex.getInt(data.baseBlockId());
+            if (blockIndex < 0) {
+                blockIndex = palette.size();
+                paletteIndex.put(data.baseBlockId(), blockIndex);
+                palette.add(NbtString.of(data.baseBlockId()));
+            }
+            blocks[i] = blockIndex;
+            i++;
+        }
 
-            Map<BlockPos, MultiBlockData> worldMap = new ConcurrentHashMap<>();
-            NbtList multiBlocksList = worldNbt.getList("multiBlocks", NbtElement.COMPOUND_TYPE);
+        nbt.putInt(FORMAT_VERSION_KEY, FORMAT_VERSION);
+        nbt.put("palette", palette);
+        nbt.putLongArray("masters", masters);
+        nbt.putLongArray("starts", starts);
+        nbt.putIntArray("sizes", sizes);
+        nbt.putIntArray("blocks", blocks);
+    }
 
-            for (NbtElement blockElement : multiBlocksList) {
-                NbtCompound blockNbt = (NbtCompound) blockElement;
-                try {
-                    MultiBlockData data = MultiBlockData.fromNbt(blockNbt);
-                    worldMap.put(data.masterPos, data);
-                } catch (Exception e) {
-                    LOGGER.error("Failed to load MultiBlock data from NBT: {}", e.getMessage());
-                }
+    /**
+     * 读取{@link #writeCompact}写入的数据。
+     */
+    static List<MultiBlockData> readCompact(NbtCompound nbt) {
+        int version = nbt.getInt(FORMAT_VERSION_KEY);
+        if (version > FORMAT_VERSION) {
+            LOGGER.error("Unsupported MultiBlock data format version {}", version);
+            return Collections.emptyList();
+        }
+
+        NbtList palette = nbt.getList("palette", NbtElement.STRING_TYPE);
+        long[] masters = nbt.getLongArray("masters");
+        long[] starts = nbt.getLongArray("starts");
+        int[] sizes = nbt.getIntArray("sizes");
+        int[] blocks = nbt.getIntArray("blocks");
+        if (starts.length != masters.length || sizes.length != masters.length || blocks.length != masters.length) {
+            LOGGER.error("Corrupted MultiBlock data: column lengths {}, {}, {}, {} do not match",
+                    masters.length, starts.length, sizes.length, blocks.length);
+            return Collections.emptyList();
+        }
+
+        List<MultiBlockData> dataList = new ArrayList<>(masters.length);
+        for (int i = 0; i < masters.length; i++) {
+            if (blocks[i] < 0 || blocks[i] >= palette.size()) {
+                LOGGER.error("Invalid palette index {} for MultiBlock at {}", blocks[i], BlockPos.fromLong(masters[i]));
+                continue;
             }
+            int packedSize = sizes[i];
+            dataList.add(new MultiBlockData(
+                    BlockPos.fromLong(masters[i]),
+                    palette.getString(blocks[i]),
+                    BlockPos.fromLong(starts[i]),
+                    (packedSize >>> 16) & 0xFF,
+                    (packedSize >>> 8) & 0xFF,
+                    packedSize & 0xFF));
+        }
+        return dataList;
+    }
 
-            state.worldData.put(worldId, worldMap);
+    /**
+     * 读取旧的逐条复合标签格式。
+     */
+    private static List<MultiBlockData> readLegacyList(NbtCompound nbt) {
+        NbtList multiBlocksList = nbt.getList("multiBlocks", NbtElement.COMPOUND_TYPE);
+        List<MultiBlockData> dataList = new ArrayList<>(multiBlocksList.size());
+        for (NbtElement blockElement : multiBlocksList) {
+            try {
+                dataList.add(MultiBlockData.fromNbt((NbtCompound) blockElement));
+            } catch (Exception e) {
+                LOGGER.error("Failed to load MultiBlock data from NBT: {}", e.getMessage());
+            }
         }
+        return dataList;
+    }
 
-        LOGGER.info("Loaded {} worlds with MultiBlock data from persistent storage", state.worldData.size());
-        return state;
+    /**
+     * 获取或创建指定坐标所在区域的持久化状态
+     */
+    public static MultiBlockPersistentState getOrCreate(ServerWorld world, BlockPos pos) {
+        return getOrCreate(world, pos.getX() >> 9, pos.getZ() >> 9);
     }
 
     /**
-     * 获取或创建持久化状态
+     * 获取或创建指定区块所在区域的持久化状态
      */
-    public static MultiBlockPersistentState getOrCreate(ServerWorld world) {
+    public static MultiBlockPersistentState getOrCreate(ServerWorld world, ChunkPos chunkPos) {
+        return getOrCreate(world, chunkPos.x >> 5, chunkPos.z >> 5);
+    }
+
+    private static MultiBlockPersistentState getOrCreate(ServerWorld world, int regionX, int regionZ) {
         PersistentStateManager persistentStateManager = world.getPersistentStateManager();
-        return persistentStateManager.getOrCreate(
-                MultiBlockPersistentState::fromNbt,
-                MultiBlockPersistentState::new,
-                PERSISTENT_ID
+        MultiBlockPersistentState region = persistentStateManager.getOrCreate(
+                nbt -> fromNbt(nbt, regionX, regionZ),
+                () -> new MultiBlockPersistentState(regionX, regionZ),
+                REGION_ID_PREFIX + regionX + "." + regionZ
         );
+        RegionIndex.getOrCreate(world).loadedRegions.putIfAbsent(ChunkPos.toLong(regionX, regionZ), region);
+        return region;
     }
 
     /**
-     * 保存到文件（手动备份）
+     * 将旧版本的单文件数据拆分到各个区域
+     *
+     * <p>旧文件在迁移后被重写为空，之后的加载不会重复迁移。</p>
      */
-    public void saveToFile(MinecraftServer server) {
-        try {
-            File worldDir = server.getSavePath(WorldSavePath.ROOT).toFile();
-            File backupFile = new File(worldDir, "multiblocks_backup.dat");
+    public static void migrateLegacy(ServerWorld world) {
+        PersistentStateManager persistentStateManager = world.getPersistentStateManager();
+        LegacyState legacy = persistentStateManager.get(LegacyState::fromNbt, PERSISTENT_ID);
+        if (legacy == null || legacy.data.isEmpty()) {
+            return;
+        }
+
+        Identifier worldId = world.getRegistryKey().getValue();
+        List<MultiBlockData> dataList = legacy.data.getOrDefault(worldId, Collections.emptyList());
+        RegionIndex regionIndex = RegionIndex.getOrCreate(world);
+        for (MultiBlockData data : dataList) {
+            MultiBlockPersistentState region = getOrCreate(world, data.masterPos());
+            region.putData(data);
+            regionIndex.add(region.regionX, region.regionZ);
+        }
 
-            NbtCompound nbt = this.writeNbt(new NbtCompound());
-            net.minecraft.nbt.NbtIo.write(nbt, backupFile);
+        legacy.data.clear();
+        legacy.markDirty();
+        LOGGER.info("Migrated {} MultiBlocks for world {} to region storage", dataList.size(), worldId);
+    }
+
+    /**
+     * 在服务器线程上获取维度中所有区域数据的快照，用于备份。
+     *
+     * <p>只复制已加载区域的数据，不会在服务器线程上加载其他区域；未加载的区域只记录其文件，
+     * 由{@link Snapshot#read()}在备份线程上读取。</p>
+     *
+     * @see MultiBlockBackup
+     */
+    public static Snapshot snapshot(ServerWorld world) {
+        List<MultiBlockData> loadedData = new ArrayList<>();
+        List<Path> regionFiles = new ArrayList<>();
+        Path dataDirectory = DimensionType.getSaveDirectory(world.getRegistryKey(),
+                world.getServer().getSavePath(WorldSavePath.ROOT)).resolve("data");
 
-            LOGGER.info("MultiBlock data backed up to: {}", backupFile.getAbsolutePath());
-        } catch (IOException e) {
-            LOGGER.error("Failed to backup MultiBlock data: {}", e.getMessage());
+        RegionIndex regionIndex = RegionIndex.getOrCreate(world);
+        long[] regionKeys;
+        synchronized (regionIndex.regions) {
+            regionKeys = regionIndex.regions.toLongArray();
+        }
+        for (long regionKey : regionKeys) {
+            MultiBlockPersistentState region = regionIndex.loadedRegions.get(regionKey);
+            if (region != null) {
+                loadedData.addAll(region.getMultiBlocks());
+            } else {
+                regionFiles.add(dataDirectory.resolve(REGION_ID_PREFIX + ChunkPos.getPackedX(regionKey) + "."
+                        + ChunkPos.getPackedZ(regionKey) + ".dat"));
+            }
+        }
+        return new Snapshot(List.copyOf(loadedData), List.copyOf(regionFiles));
+    }
+
+    /**
+     * 备份用的快照
+     *
+     * @param loadedData  已加载区域中的数据，在服务器线程上复制
+     * @param regionFiles 未加载区域的文件，在备份线程上读取
+     */
+    public record Snapshot(List<MultiBlockData> loadedData, List<Path> regionFiles) {
+        /**
+         * 读取未加载区域的文件，返回维度中所有的多方块数据。在备份线程上调用，每读取一个区域前检查是否被取消
+         *
+         * @throws InterruptedException 备份被取消
+         * @throws IOException          区域文件无法读取，例如正好被重新写入
+         */
+        public List<MultiBlockData> read() throws IOException, InterruptedException {
+            List<MultiBlockData> dataList = new ArrayList<>(loadedData);
+            for (Path regionFile : regionFiles) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedException();
+                }
+                if (Files.exists(regionFile)) {
+                    dataList.addAll(readData(NbtIo.readCompressed(regionFile.toFile()).getCompound("data")));
+                }
+            }
+            return dataList;
+        }
+    }
+
+    /**
+     * 记录维度中所有包含数据的区域，只在出现新区域时变脏。
+     */
+    public static class RegionIndex extends PersistentState {
+        private static final String INDEX_ID = "multiblocks_regions";
+
+        private final LongSet regions = new LongOpenHashSet();
+        /** 本次运行中已加载的区域，{@link PersistentStateManager}在维度卸载前不会释放它们 */
+        private final Map<Long, MultiBlockPersistentState> loadedRegions = new ConcurrentHashMap<>();
+
+        void add(int regionX, int regionZ) {
+            synchronized (regions) {
+                if (regions.add(ChunkPos.toLong(regionX, regionZ))) {
+                    markDirty();
+                }
+            }
+        }
+
+        @Override
+        public NbtCompound writeNbt(NbtCompound nbt) {
+            synchronized (regions) {
+                nbt.putLongArray("regions", regions.toLongArray());
+            }
+            return nbt;
+        }
+
+        public static @NotNull RegionIndex fromNbt(NbtCompound nbt) {
+            RegionIndex index = new RegionIndex();
+            for (long region : nbt.getLongArray("regions")) {
+                index.regions.add(region);
+            }
+            return index;
+        }
+
+        public static RegionIndex getOrCreate(ServerWorld world) {
+            return world.getPersistentStateManager().getOrCreate(RegionIndex::fromNbt, RegionIndex::new, INDEX_ID);
+        }
+    }
+
+    /**
+     * 旧版本的单文件格式，只用于迁移。
+     */
+    private static class LegacyState extends PersistentState {
+        private final Map<Identifier, List<MultiBlockData>> data = new HashMap<>();
+
+        @Override
+        public NbtCompound writeNbt(NbtCompound nbt) {
+            nbt.put("worlds", new NbtList());
+            return nbt;
+        }
+
+        static LegacyState fromNbt(NbtCompound nbt) {
+            LegacyState state = new LegacyState();
+            NbtList worldsList = nbt.getList("worlds", NbtElement.COMPOUND_TYPE);
+            for (NbtElement worldElement : worldsList) {
+                NbtCompound worldNbt = (NbtCompound) worldElement;
+                Identifier worldId = new Identifier(worldNbt.getString("worldId"));
+
+                state.data.put(worldId, readLegacyList(worldNbt));
+            }
+            return state;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,157 @@
+package org.foodcraft.block.multi;
+
+import net.minecraft.block.Block;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import org.foodcraft.FoodCraft;
+import org.slf4j.Logger;
+
+import java.util.*;
+
+/**
+ * 多方块变化队列 - 将方块放置、破坏和邻居更新事件合并到刻末统一处理
+ *
+ * <p>{@link MultiBlockHelper}的事件方法会为每个方块事件立即执行一轮拆分、合并和持久化，
+ * 一次{@code /fill}或活塞推动大量方块时开销很大。该类按世界记录发生变化的位置，
+ * 在{@code ServerTickEvents.END_WORLD_TICK}时一次性完成：</p>
+ * <ol>
+ *   <li>按所属方块堆归组变化位置，每个方块堆只增量更新一次占用掩码</li>
+ *   <li>根据不完整结构的占用掩码和不属于任何方块堆的新放置方块，一次性规划拆分与合并后的最终划分，
+ *   见{@link MultiBlockMergePlanner#plan}</li>
+ *   <li>通过{@link MultiBlockManager#replaceMultiBlocks}在一次注册事务中提交，每个受影响的持久化区域只写入一次，
+ *   并只为最终存在的结构更新一次方块实体引用</li>
+ * </ol>
+ *
+ * <h2>使用示例</h2>
+ * <pre>{@code
+ * @Override
+ * public void onBlockAdded(BlockState state, World world, BlockPos pos, BlockState oldState, boolean notify) {
+ *     super.onBlockAdded(state, world, pos, oldState, notify);
+ *     if (!world.isClient) {
+ *         MultiBlockUpdateQueue.enqueuePlaced(world, pos, this);
+ *     }
+ * }
+ * }</pre>
+ *
+ * <p>所有方法都只应在服务器线程上调用。</p>
+ *
+ * @see MultiBlockHelper
+ */
+public class MultiBlockUpdateQueue {
+    private static final Logger LOGGER = FoodCraft.LOGGER;
+
+    /**
+     * 每个世界中等待处理的变化位置，保持插入顺序以保证处理结果确定。
+     */
+    private static final Map<World, Map<BlockPos, PendingChange>> pendingChanges = new HashMap<>();
+
+    /**
+     * 等待处理的变化。
+     *
+     * @param coreBlock 核心方块类型
+     * @param placement 是否为放置事件，只有放置事件会为孤立方块创建新的方块堆
+     */
+    private record PendingChange(Block coreBlock, boolean placement) {
+    }
+
+    /**
+     * 记录方块放置事件。
+     *
+     * @see MultiBlockHelper#onBlockPlaced(World, BlockPos, Block)
+     */
+    public static void enqueuePlaced(World world, BlockPos pos, Block coreBlock) {
+        enqueue(world, pos, coreBlock, true);
+    }
+
+    /**
+     * 记录方块破坏事件。
+     *
+     * @see MultiBlockHelper#onBlockBroken(World, BlockPos, Block)
+     */
+    public static void enqueueBroken(World world, BlockPos pos, Block coreBlock) {
+        enqueue(world, pos, coreBlock, false);
+    }
+
+    /**
+     * 记录相邻方块更新事件，只有发生变化的相邻位置需要检查。
+     *
+     * @see MultiBlockHelper#onNeighborUpdate(World, BlockPos, Block)
+     */
+    public static void enqueueNeighborUpdate(World world, BlockPos pos, BlockPos fromPos, Block coreBlock) {
+        enqueue(world, fromPos, coreBlock, false);
+    }
+
+    private static void enqueue(World world, BlockPos pos, Block coreBlock, boolean placement) {
+        Objects.requireNonNull(world, "World cannot be null");
+        Objects.requireNonNull(pos, "Position cannot be null");
+        Objects.requireNonNull(coreBlock, "Core block cannot be null");
+
+        if (world.isClient) {
+            return;
+        }
+
+        Map<BlockPos, PendingChange> worldChanges = pendingChanges.computeIfAbsent(world, k -> new LinkedHashMap<>());
+        PendingChange existing = worldChanges.get(pos);
+        if (existing == null || (placement && !existing.placement())) {
+            worldChanges.put(pos.toImmutable(), new PendingChange(coreBlock, placement));
+        }
+    }
+
+    /**
+     * 处理世界中所有等待的变化，在{@code ServerTickEvents.END_WORLD_TICK}时调用。
+     */
+    public static void flush(ServerWorld world) {
+        Map<BlockPos, PendingChange> worldChanges = pendingChanges.remove(world);
+        if (worldChanges == null || worldChanges.isEmpty()) {
+            return;
+        }
+
+        // 按所属方块堆归组
+        Map<MultiBlock, List<BlockPos>> changesByMultiBlock = new LinkedHashMap<>();
+        Map<Block, List<BlockPos>> orphansByBlock = new LinkedHashMap<>();
+        for (Map.Entry<BlockPos, PendingChange> entry : worldChanges.entrySet()) {
+            BlockPos pos = entry.getKey();
+            Block coreBlock = entry.getValue().coreBlock();
+            MultiBlock multiBlock = MultiBlockManager.findMultiBlock(world, pos);
+            if (multiBlock != null) {
+                changesByMultiBlock.computeIfAbsent(multiBlock, k -> new ArrayList<>()).add(pos);
+            } else if (entry.getValue().placement() && world.getBlockState(pos).isOf(coreBlock)) {
+                orphansByBlock.computeIfAbsent(coreBlock, k -> new ArrayList<>()).add(pos);
+            }
+        }
+
+        // 只更新占用掩码，不注册任何中间结构
+        Map<Block, List<MultiBlock>> brokenByBlock = new LinkedHashMap<>();
+        for (Map.Entry<MultiBlock, List<BlockPos>> entry : changesByMultiBlock.entrySet()) {
+            MultiBlock multiBlock = entry.getKey();
+            if (!multiBlock.updateOccupancy(entry.getValue())) {
+                brokenByBlock.computeIfAbsent(multiBlock.baseBlock, k -> new ArrayList<>()).add(multiBlock);
+            }
+        }
+
+        // 每种方块规划一次最终划分，并在一次事务中提交
+        Set<Block> blocks = new LinkedHashSet<>(brokenByBlock.keySet());
+        blocks.addAll(orphansByBlock.keySet());
+        List<MultiBlock> created = new ArrayList<>();
+        for (Block block : blocks) {
+            MultiBlockMergePlanner.Plan plan = MultiBlockMergePlanner.plan(world, block,
+                    brokenByBlock.getOrDefault(block, Collections.emptyList()),
+                    orphansByBlock.getOrDefault(block, Collections.emptyList()));
+            created.addAll(MultiBlockManager.replaceMultiBlocks(world, block, plan.removed(), plan.ranges()));
+        }
+
+        // 只为最终存在的结构更新一次引用
+        MultiBlockHelper.updateBlockEntityReferences(world, created);
+
+        LOGGER.debug("Reconciled {} MultiBlock changes in world {} into {} new MultiBlocks",
+                worldChanges.size(), world.getRegistryKey().getValue(), created.size());
+    }
+
+    /**
+     * 丢弃世界中所有等待的变化，在世界卸载时调用。
+     */
+    public static void clear(World world) {
+        pendingChanges.remove(world);
+    }
+}
@@ -17,6 +17,9 @@ import java.util.Objects;
 
 /**
  * 服务端多方块引用实现
+ *
+ * <p>引用直接持有结构实例。结构在销毁、拆分、合并或区块卸载时被标记为已销毁，之后由新的实例取代，
+ * 因此{@link #isValid()}和{@link #isDisposed()}只需检查实例的销毁标记，不会查询注册表或读取方块状态。</p>
  */
 public class ServerMultiBlockReference implements MultiBlockReference {
     private static final Logger LOGGER = FoodCraft.LOGGER;
@@ -127,10 +130,20 @@ public class ServerMultiBlockReference implements MultiBlockReference {
             String blockId = nbt.getString(BASE_BLOCK_KEY);
             Block baseBlock = net.minecraft.registry.Registries.BLOCK.get(Identifier.tryParse(blockId));
 
-            // 查找对应的MultiBlock（服务端引用）
+            // 查找对应的MultiBlock（服务端引用），主方块必须完全一致
             MultiBlock multiBlock = MultiBlockManager.findMultiBlock(world, masterPos);
-            if (multiBlock == null || multiBlock.isDisposed()) {
-                LOGGER.warn("MultiBlock at {} not found or disposed during deserialization", masterPos);
+            if (multiBlock == null || multiBlock.isDisposed() || !multiBlock.getMasterPos().equals(masterPos)) {
+                // 区块加载时方块实体先于方块堆读取，之后会重新解析
+                LOGGER.debug("MultiBlock at {} not found or disposed during deserialization", masterPos);
+                return null;
+            }
+
+            // 尺寸不一致说明保存后结构已经被拆分或合并
+            MultiBlock.PatternRange range = multiBlock.getRange();
+            if (nbt.contains(STRUCTURE_WIDTH_KEY) && (range.getWidth() != nbt.getInt(STRUCTURE_WIDTH_KEY)
+                    || range.getHeight() != nbt.getInt(STRUCTURE_HEIGHT_KEY)
+                    || range.getDepth() != nbt.getInt(STRUCTURE_DEPTH_KEY))) {
+                LOGGER.debug("MultiBlock at {} changed size since the reference was saved", masterPos);
                 return null;
             }
 
@@ -182,7 +195,7 @@ public class ServerMultiBlockReference implements MultiBlockReference {
 
     @Override
     public boolean matchesBlock(Block block) {
-        if (multiBlock.isDisposed()) {
+        if (isDisposed()) {
             LOGGER.warn("Attempted to check block match with disposed MultiBlock");
             return false;
         }
@@ -212,7 +225,7 @@ public class ServerMultiBlockReference implements MultiBlockReference {
 
     @Override
     public @NotNull BlockPos getMasterWorldPos() {
-        if (multiBlock.isDisposed()) {
+        if (isDisposed()) {
             throw new IllegalStateException("MultiBlock has been disposed");
         }
         return multiBlock.getMasterPos();
@@ -230,7 +243,7 @@ public class ServerMultiBlockReference implements MultiBlockReference {
 
     @Override
     public @NotNull Block getBaseBlock() {
-        if (multiBlock.isDisposed()) {
+        if (isDisposed()) {
             throw new IllegalStateException("MultiBlock has been disposed");
         }
         return multiBlock.getBaseBlock();
@@ -238,17 +251,17 @@ public class ServerMultiBlockReference implements MultiBlockReference {
 
     @Override
     public int getVolume() {
-        return multiBlock.isDisposed() ? 0 : multiBlock.getVolume();
+        return isDisposed() ? 0 : multiBlock.getVolume();
     }
 
     @Override
     public boolean containsWorldPos(@NotNull BlockPos worldPos) {
-        return !multiBlock.isDisposed() && multiBlock.getRange().contains(worldPos);
+        return !isDisposed() && multiBlock.getRange().contains(worldPos);
     }
 
     @Override
     public boolean checkIntegrity() {
-        if (multiBlock.isDisposed()) {
+        if (isDisposed()) {
             LOGGER.warn("Attempted to check integrity of disposed MultiBlock");
             return false;
         }
@@ -260,9 +273,15 @@ public class ServerMultiBlockReference implements MultiBlockReference {
         return multiBlock.isDisposed();
     }
 
+    /**
+     * 检查引用是否仍指向当前的结构，O(1)。
+     *
+     * <p>结构的完整性变化会在当刻结束时由{@link MultiBlockUpdateQueue}拆分为新结构并销毁旧结构，
+     * 因此结构未销毁即可认为引用有效；需要立即确认方块状态时请使用{@link #checkIntegrity()}。</p>
+     */
     @Override
     public boolean isValid() {
-        return !multiBlock.isDisposed() && multiBlock.checkIntegrity();
+        return !multiBlock.isDisposed();
     }
 
     @Override
@@ -288,21 +307,21 @@ public class ServerMultiBlockReference implements MultiBlockReference {
 
     @Override
     public int getStructureWidth() {
-        return multiBlock.isDisposed() ? 0 : multiBlock.getRange().getWidth();
+        return isDisposed() ? 0 : multiBlock.getRange().getWidth();
     }
 
     @Override
     public int getStructureHeight() {
-        return multiBlock.isDisposed() ? 0 : multiBlock.getRange().getHeight();
+        return isDisposed() ? 0 : multiBlock.getRange().getHeight();
     }
 
     @Override
     public int getStructureDepth() {
-        return multiBlock.isDisposed() ? 0 : multiBlock.getRange().getDepth();
+        return isDisposed() ? 0 : multiBlock.getRange().getDepth();
     }
 
     /**
-     * 获取多方块堆实例（仅服务端可用）
+     * 获取多方块堆实例（仅服务端可用），引用过期时返回的实例已被销毁。
      */
     public MultiBlock getMultiBlock() {
         return multiBlock;
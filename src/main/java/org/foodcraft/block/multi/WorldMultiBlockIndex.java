@@ -0,0 +1,206 @@
+package org.foodcraft.block.multi;
+
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 单个世界内的方块堆索引
+ *
+ * <p>除了以主方块坐标为键的映射外，还维护一个以区块段（16×16×16）为键的空间索引，
+ * 每个区块段记录与其相交的所有方块堆。由于方块堆尺寸不超过{@value MultiBlock#MAX_SIZE}，
+ * 一个方块堆最多登记在8个区块段中，按坐标查找只需检查所在区块段的少量候选，与世界中方块堆的总数无关。</p>
+ *
+ * <h2>并发</h2>
+ * <p>读操作不加锁：两个映射都是{@link ConcurrentHashMap}，区块段的候选列表是写时复制的不可变数组。
+ * 写操作必须持有该实例的监视器锁（{@code synchronized (index)}），由{@link MultiBlockManager}负责。
+ * 主方块映射的写入是每次写操作的线性化点：注册时先登记空间索引再写入主方块映射，注销时顺序相反，
+ * 并且{@link #findContaining(BlockPos)}只返回仍在主方块映射中的方块堆，因此读者不会看到写了一半的状态。</p>
+ *
+ * @see MultiBlockManager
+ */
+final class WorldMultiBlockIndex {
+    private static final MultiBlock[] EMPTY = new MultiBlock[0];
+
+    /** 主方块坐标到方块堆的映射 */
+    private final Map<BlockPos, MultiBlock> byMaster = new ConcurrentHashMap<>();
+    /** 区块段坐标（{@link ChunkSectionPos#asLong(int, int, int)}）到相交方块堆的映射 */
+    private final Map<Long, MultiBlock[]> bySection = new ConcurrentHashMap<>();
+
+    /**
+     * 获取以指定坐标为主方块的方块堆。
+     */
+    @Nullable
+    MultiBlock getByMaster(BlockPos masterPos) {
+        return byMaster.get(masterPos);
+    }
+
+    /**
+     * 添加方块堆并登记到空间索引中，会替换同一主方块坐标上已有的方块堆。
+     * <p>调用者必须持有该实例的锁。</p>
+     */
+    void put(MultiBlock multiBlock) {
+        MultiBlock previous = byMaster.get(multiBlock.getMasterPos());
+        if (previous == multiBlock) {
+            return;
+        }
+
+        index(multiBlock);
+        byMaster.put(multiBlock.getMasterPos(), multiBlock);
+        if (previous != null) {
+            unindex(previous);
+        }
+    }
+
+    /**
+     * 移除方块堆，仅当该坐标上登记的正是此实例时才会移除。
+     * <p>调用者必须持有该实例的锁。</p>
+     *
+     * @return 如果成功移除返回true，否则返回false
+     */
+    boolean remove(MultiBlock multiBlock) {
+        if (!byMaster.remove(multiBlock.getMasterPos(), multiBlock)) {
+            return false;
+        }
+        unindex(multiBlock);
+        return true;
+    }
+
+    /**
+     * 查找范围包含指定坐标的未销毁方块堆。
+     */
+    @Nullable
+    MultiBlock findContaining(BlockPos pos) {
+        MultiBlock[] candidates = bySection.get(ChunkSectionPos.asLong(
+                ChunkSectionPos.getSectionCoord(pos.getX()),
+                ChunkSectionPos.getSectionCoord(pos.getY()),
+                ChunkSectionPos.getSectionCoord(pos.getZ())));
+        if (candidates == null) {
+            return null;
+        }
+
+        for (MultiBlock multiBlock : candidates) {
+            if (!multiBlock.isDisposed() && multiBlock.range.contains(pos)
+                    && byMaster.get(multiBlock.getMasterPos()) == multiBlock) {
+                return multiBlock;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 收集与指定区块列相交的所有方块堆。
+     *
+     * @param minSectionY 最低区块段Y坐标（包含）
+     * @param maxSectionY 最高区块段Y坐标（不包含）
+     */
+    void collectInChunk(int chunkX, int chunkZ, int minSectionY, int maxSectionY, Set<MultiBlock> out) {
+        for (int sy = minSectionY; sy < maxSectionY; sy++) {
+            MultiBlock[] candidates = bySection.get(ChunkSectionPos.asLong(chunkX, sy, chunkZ));
+            if (candidates != null) {
+                Collections.addAll(out, candidates);
+            }
+        }
+    }
+
+    /**
+     * 收集与指定长方体相交的所有方块堆。
+     *
+     * @param min 长方体最小角（包含）
+     * @param max 长方体最大角（包含）
+     */
+    void collectInBox(BlockPos min, BlockPos max, Set<MultiBlock> out) {
+        for (int sx = ChunkSectionPos.getSectionCoord(min.getX()); sx <= ChunkSectionPos.getSectionCoord(max.getX()); sx++) {
+            for (int sy = ChunkSectionPos.getSectionCoord(min.getY()); sy <= ChunkSectionPos.getSectionCoord(max.getY()); sy++) {
+                for (int sz = ChunkSectionPos.getSectionCoord(min.getZ()); sz <= ChunkSectionPos.getSectionCoord(max.getZ()); sz++) {
+                    MultiBlock[] candidates = bySection.get(ChunkSectionPos.asLong(sx, sy, sz));
+                    if (candidates != null) {
+                        Collections.addAll(out, candidates);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 获取所有方块堆的弱一致性视图。
+     */
+    Collection<MultiBlock> values() {
+        return byMaster.values();
+    }
+
+    /**
+     * 获取区块段索引的只读视图，用于测试和调试时核对与主方块映射的一致性。
+     */
+    Map<Long, MultiBlock[]> sectionView() {
+        return Collections.unmodifiableMap(bySection);
+    }
+
+    int size() {
+        return byMaster.size();
+    }
+
+    boolean isEmpty() {
+        return byMaster.isEmpty();
+    }
+
+    private void index(MultiBlock multiBlock) {
+        MultiBlock.PatternRange range = multiBlock.range;
+        BlockPos start = range.getStart();
+        BlockPos end = range.getEnd();
+
+        for (int sx = ChunkSectionPos.getSectionCoord(start.getX()); sx <= ChunkSectionPos.getSectionCoord(end.getX()); sx++) {
+            for (int sy = ChunkSectionPos.getSectionCoord(start.getY()); sy <= ChunkSectionPos.getSectionCoord(end.getY()); sy++) {
+                for (int sz = ChunkSectionPos.getSectionCoord(start.getZ()); sz <= ChunkSectionPos.getSectionCoord(end.getZ()); sz++) {
+                    long key = ChunkSectionPos.asLong(sx, sy, sz);
+                    MultiBlock[] candidates = bySection.getOrDefault(key, EMPTY);
+                    MultiBlock[] updated = Arrays.copyOf(candidates, candidates.length + 1);
+                    updated[candidates.length] = multiBlock;
+                    bySection.put(key, updated);
+                }
+            }
+        }
+    }
+
+    private void unindex(MultiBlock multiBlock) {
+        // 直接读取字段，已销毁的方块堆也需要能从索引中移除
+        MultiBlock.PatternRange range = multiBlock.range;
+        BlockPos start = range.getStart();
+        BlockPos end = range.getEnd();
+
+        for (int sx = ChunkSectionPos.getSectionCoord(start.getX()); sx <= ChunkSectionPos.getSectionCoord(end.getX()); sx++) {
+            for (int sy = ChunkSectionPos.getSectionCoord(start.getY()); sy <= ChunkSectionPos.getSectionCoord(end.getY()); sy++) {
+                for (int sz = ChunkSectionPos.getSectionCoord(start.getZ()); sz <= ChunkSectionPos.getSectionCoord(end.getZ()); sz++) {
+                    long key = ChunkSectionPos.asLong(sx, sy, sz);
+                    MultiBlock[] candidates = bySection.get(key);
+                    if (candidates == null) {
+                        continue;
+                    }
+
+                    int index = -1;
+                    for (int i = 0; i < candidates.length; i++) {
+                        if (candidates[i] == multiBlock) {
+                            index = i;
+                            break;
+                        }
+                    }
+                    if (index < 0) {
+                        continue;
+                    }
+
+                    if (candidates.length == 1) {
+                        bySection.remove(key);
+                    } else {
+                        MultiBlock[] updated = new MultiBlock[candidates.length - 1];
+                        System.arraycopy(candidates, 0, updated, 0, index);
+                        System.arraycopy(candidates, index + 1, updated, index, candidates.length - index - 1);
+                        bySection.put(key, updated);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -12,7 +12,6 @@ import net.minecraft.sound.SoundEvent;
 import net.minecraft.sound.SoundEvents;
 import net.minecraft.util.ActionResult;
 import net.minecraft.util.Identifier;
-import net.minecraft.util.collection.DefaultedList;
 import net.minecraft.world.World;
 import org.foodcraft.FoodCraft;
 import org.foodcraft.block.entity.UpPlaceBlockEntity;
@@ -21,6 +20,7 @@ import org.foodcraft.block.process.step.StepBuilders;
 import org.foodcraft.block.process.step.StepExecutionContext;
 import org.foodcraft.block.process.step.StepResult;
 import org.foodcraft.recipe.CutRecipe;
+import org.foodcraft.recipe.RecipeIndex;
 import org.foodcraft.registry.ModItems;
 import org.foodcraft.registry.ModRecipeTypes;
 import org.foodcraft.registry.ModSounds;
@@ -29,6 +29,7 @@ import org.foodcraft.tag.ItemTags;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 切菜流程处理器，支持特定物品在特定切割次数的特殊交互。
@@ -77,6 +78,13 @@ public class CuttingProcess<T extends UpPlaceBlockEntity> extends AbstractProces
     private String savedRecipeId;
     /** 输入物品堆栈 */
     private ItemStack inputStack;
+    /**
+     * 输入物品按切割次数展开的特殊步骤表，下标为切割次数，为null时在下次查询时根据{@link #SPECIAL_STEP_TRIGGERS}重新展开。
+     * 输入物品改变时置为null，触发条件的版本改变时也会重新展开
+     */
+    private String[] specialStepTable;
+    /** 展开{@link #specialStepTable}时{@link #SPECIAL_STEP_TRIGGERS_VERSION}的值 */
+    private int specialStepTableVersion;
 
     /**
      * 特殊步骤触发条件映射：物品 -> (切割次数 -> 步骤ID)
@@ -84,6 +92,8 @@ public class CuttingProcess<T extends UpPlaceBlockEntity> extends AbstractProces
      * 用于定义特定物品在特定切割次数触发的特殊步骤。
      */
     private static final Map<Item, Map<Integer, String>> SPECIAL_STEP_TRIGGERS = new HashMap<>();
+    /** {@link #SPECIAL_STEP_TRIGGERS}的版本，任何实例注册触发条件时递增，使所有实例的特殊步骤表过期 */
+    private static final AtomicInteger SPECIAL_STEP_TRIGGERS_VERSION = new AtomicInteger();
 
     static {
         // 配置胡萝卜的特殊切割步骤
@@ -328,6 +338,7 @@ public class CuttingProcess<T extends UpPlaceBlockEntity> extends AbstractProces
         SPECIAL_STEP_TRIGGERS
                 .computeIfAbsent(item, k -> new HashMap<>())
                 .put(cutNumber, stepId);
+        SPECIAL_STEP_TRIGGERS_VERSION.incrementAndGet();
     }
 
     // ============ 辅助方法 ============
@@ -387,11 +398,10 @@ public class CuttingProcess<T extends UpPlaceBlockEntity> extends AbstractProces
     private void updateInventory(Inventory inventory, int cutIndex) {
         if (currentRecipe == null || inventory == null) return;
 
-        DefaultedList<ItemStack> state = currentRecipe.getCutState(cutIndex);
-        int slots = Math.min(state.size(), 5);
+        ItemStack[] state = currentRecipe.getCutStateSlots(cutIndex);
 
-        for (int i = 0; i < slots; i++) {
-            ItemStack stack = state.get(i);
+        for (int i = 0; i < state.length; i++) {
+            ItemStack stack = state[i];
             inventory.setStack(i, !stack.isEmpty() ? stack.copy() : ItemStack.EMPTY);
         }
     }
@@ -424,15 +434,32 @@ public class CuttingProcess<T extends UpPlaceBlockEntity> extends AbstractProces
      * @return 特殊步骤ID，如果没有则返回null
      */
     private String checkSpecialStep() {
-        Map<Integer, String> triggers = SPECIAL_STEP_TRIGGERS.get(inputStack.getItem());
-        if (triggers != null) {
-            String stepId = triggers.get(currentCut);
-            if (stepId != null && steps.containsKey(stepId)) {
-                return stepId;
+        String[] table = getSpecialStepTable();
+        return currentCut >= 0 && currentCut < table.length ? table[currentCut] : null;
+    }
+
+    /**
+     * 获取输入物品的特殊步骤表，只包含已注册的步骤。
+     */
+    private String[] getSpecialStepTable() {
+        int version = SPECIAL_STEP_TRIGGERS_VERSION.get();
+        if (specialStepTable == null || specialStepTableVersion != version) {
+            specialStepTableVersion = version;
+            Map<Integer, String> triggers = SPECIAL_STEP_TRIGGERS.get(inputStack.getItem());
+            if (triggers == null || triggers.isEmpty()) {
+                specialStepTable = new String[0];
+            } else {
+                int maxCut = triggers.keySet().stream().mapToInt(Integer::intValue).max().orElse(-1);
+                String[] table = new String[Math.max(maxCut + 1, 0)];
+                triggers.forEach((cut, stepId) -> {
+                    if (cut >= 0 && steps.containsKey(stepId)) {
+                        table[cut] = stepId;
+                    }
+                });
+                specialStepTable = table;
             }
         }
-
-        return null;
+        return specialStepTable;
     }
 
     // ============ AbstractProcess方法实现 ============
@@ -446,8 +473,9 @@ public class CuttingProcess<T extends UpPlaceBlockEntity> extends AbstractProces
     protected void onStart(World world, T blockEntity) {
         currentCut = 0;
         inputStack = blockEntity.getStack(0);
+        specialStepTable = null;
 
-        Optional<CutRecipe> recipe = world.getRecipeManager()
+        Optional<CutRecipe> recipe = RecipeIndex.get(world)
                 .getFirstMatch(ModRecipeTypes.CUT, blockEntity, world);
 
         if (recipe.isPresent()) {
@@ -465,6 +493,7 @@ public class CuttingProcess<T extends UpPlaceBlockEntity> extends AbstractProces
         totalCuts = 0;
         savedRecipeId = "";
         inputStack = ItemStack.EMPTY;
+        specialStepTable = null;
     }
 
     @Override
@@ -512,6 +541,7 @@ public class CuttingProcess<T extends UpPlaceBlockEntity> extends AbstractProces
 
         if (nbt.contains("InputItem")) {
             inputStack = ItemStack.fromNbt(nbt.getCompound("InputItem"));
+            specialStepTable = null;
         }
 
         if (nbt.contains("RecipeId")) {
@@ -18,6 +18,7 @@ import java.util.Map;
  *   <li>提供统一的注册接口</li>
  *   <li>快速查询当前切割是否需要特殊步骤</li>
  * </ul>
+ * <p>目前{@link CuttingProcess}并不使用该管理器，实际生效的特殊步骤由{@link CuttingProcess#registerQuickSpecialStep}注册。</p>
  */
 public class CuttingSpecialStepManager {
     // 特殊步骤标识
@@ -24,6 +24,7 @@ import org.foodcraft.contentsystem.content.ContentCategories;
 import org.foodcraft.contentsystem.registry.ContentRegistry;
 import org.foodcraft.item.FlourItem;
 import org.foodcraft.recipe.DoughRecipe;
+import org.foodcraft.recipe.RecipeIndex;
 import org.foodcraft.registry.ModItems;
 import org.foodcraft.registry.ModRecipeTypes;
 
@@ -325,7 +326,7 @@ public class KneadingProcess<T extends BlockEntity & Inventory> extends Abstract
 
     private ItemStack craftDough(World world) {
         // 查找匹配的配方
-        Optional<DoughRecipe> recipe = world.getRecipeManager()
+        Optional<DoughRecipe> recipe = RecipeIndex.get(world)
                 .getFirstMatch(ModRecipeTypes.DOUGH_MAKING, this, world);
 
         if (recipe.isPresent()) {
@@ -383,12 +384,34 @@ public class KneadingProcess<T extends BlockEntity & Inventory> extends Abstract
         return (int) extraInventory.stream().filter(stack -> !stack.isEmpty()).count();
     }
 
+    /**
+     * 获取指定面粉类型的数量，不复制计数表
+     */
+    public int getFlourCount(FlourItem.FlourType type) {
+        return flourCounts.getOrDefault(type, 0);
+    }
+
+    /**
+     * 获取指定液体类型的数量，不复制计数表
+     */
+    public int getLiquidCount(AbstractContent content) {
+        return liquidCounts.getOrDefault(content, 0);
+    }
+
     public int getTotalFlourCount() {
-        return flourCounts.values().stream().mapToInt(Integer::intValue).sum();
+        int total = 0;
+        for (int count : flourCounts.values()) {
+            total += count;
+        }
+        return total;
     }
 
     public int getTotalLiquidCount() {
-        return liquidCounts.values().stream().mapToInt(Integer::intValue).sum();
+        int total = 0;
+        for (int count : liquidCounts.values()) {
+            total += count;
+        }
+        return total;
     }
 
     public static boolean isCanAddFlour(ItemStack stack) {
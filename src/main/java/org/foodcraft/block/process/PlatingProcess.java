@@ -1,9 +1,7 @@
 package org.foodcraft.block.process;
 
 import net.minecraft.block.entity.BlockEntity;
-import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
-import net.minecraft.recipe.RecipeManager;
 import net.minecraft.util.ActionResult;
 import net.minecraft.world.World;
 import org.foodcraft.FoodCraft;
@@ -17,12 +15,12 @@ import org.foodcraft.block.process.step.StepResult;
 import org.foodcraft.contentsystem.api.ContainerUtil;
 import org.foodcraft.contentsystem.content.AbstractContent;
 import org.foodcraft.recipe.PlatingRecipe;
-import org.foodcraft.registry.ModRecipeTypes;
+import org.foodcraft.recipe.PlatingRecipeTrie;
+import org.foodcraft.recipe.RecipeIndex;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * 摆盘流程类，管理摆盘的多步骤交互流程。
@@ -30,7 +28,7 @@ import java.util.stream.Collectors;
  * <p><strong>设计特点：</strong></p>
  * <ul>
  *   <li>通用候选配方初始化：支持从任意状态恢复流程</li>
- *   <li>简化的状态管理：方块实体只存储操作，流程只管理候选列表</li>
+ *   <li>简化的状态管理：方块实体只存储操作，流程只持有配方前缀树中的游标</li>
  *   <li>无需NBT恢复：退出重进后自动重新初始化候选列表</li>
  *   <li>支持撤销操作：完成物品放置后仍可撤回继续</li>
  * </ul>
@@ -41,8 +39,15 @@ public class PlatingProcess<T extends BlockEntity & PlatableBlockEntity> extends
     /** 完成流程步骤的ID */
     public static final String STEP_COMPLETE = "complete";
 
-    /** 当前步骤的候选配方列表 */
-    private final List<PlatingRecipe> candidateRecipes = new ArrayList<>();
+    /** 已执行操作在配方前缀树中对应的节点，候选配方即这些节点的子树 */
+    private List<PlatingRecipeTrie.Node> cursor = List.of();
+
+    /** 游标所属的前缀树，配方重载后需要重新查找游标 */
+    @Nullable
+    private PlatingRecipeTrie cursorTrie = null;
+
+    /** 游标对应的已执行操作数量 */
+    private int cursorDepth = 0;
 
     /** 当前完全匹配的配方（如果存在） */
     @Nullable
@@ -124,19 +129,25 @@ public class PlatingProcess<T extends BlockEntity & PlatableBlockEntity> extends
                     return StepResult.continueSameStep(ActionResult.PASS);
                 }
 
-                // 使用预期操作过滤候选列表
-                List<PlatingRecipe> matchingRecipes = filterCandidatesByNextAction(
-                        expectedAction, performedActions
-                );
+                // 游标与已执行操作不一致（配方重载或操作被撤回）时重新查找
+                PlatingRecipeTrie trie = RecipeIndex.get(context.world()).getPlatingTrie();
+                if (trie != cursorTrie || cursorDepth != performedActions.size()) {
+                    cursor = trie.walk(plate.getContainerType(), performedActions);
+                    cursorTrie = trie;
+                    cursorDepth = performedActions.size();
+                }
+
+                // 沿预期操作前进一步
+                List<PlatingRecipeTrie.Node> next = PlatingRecipeTrie.advance(cursor, expectedAction);
 
-                // 过滤到的列表为空时，步骤失败
-                if (matchingRecipes.isEmpty()) {
+                // 没有候选配方时，步骤失败
+                if (next.isEmpty()) {
                     return StepResult.fail(STEP_PERFORM_ACTION, ActionResult.FAIL);
                 }
 
-                // 更新候选列表
-                candidateRecipes.clear();
-                candidateRecipes.addAll(matchingRecipes);
+                // 更新游标
+                cursor = next;
+                cursorDepth++;
             }
 
             return executeAction(context, plate, expectedAction, currentStep);
@@ -152,7 +163,7 @@ public class PlatingProcess<T extends BlockEntity & PlatableBlockEntity> extends
             }
 
             if (!heldItem.isEmpty()) {
-                return new AddItemPlayerAction(heldItem.getItem(), 1);
+                return AddItemPlayerAction.of(heldItem.getItem(), 1);
             }
 
             return null;
@@ -237,15 +248,7 @@ public class PlatingProcess<T extends BlockEntity & PlatableBlockEntity> extends
     public boolean initializeCandidates(World world, PlatableBlockEntity plate, @Nullable PlayerAction expectedAction) {
         isMatchingRecipes = true;
         try {
-            RecipeManager recipeManager = world.getRecipeManager();
-            List<PlatingRecipe> allRecipes = recipeManager.listAllOfType(ModRecipeTypes.PLATING);
-
-            if (allRecipes.isEmpty()) {
-                return false;
-            }
-
             List<PlayerAction> performedActions = plate.getPerformedActions();
-            Item containerType = plate.getContainerType();
 
             // 构建临时匹配列表：已执行操作 + 预期操作（如果不为null）
             List<PlayerAction> tempMatchingList = new ArrayList<>(performedActions);
@@ -259,17 +262,16 @@ public class PlatingProcess<T extends BlockEntity & PlatableBlockEntity> extends
                 return false;
             }
 
-            List<PlatingRecipe> candidates = allRecipes.stream()
-                    .filter(recipe -> recipe.getContainer() == containerType)
-                    .filter(recipe -> recipe.matchesPrefix(tempMatchingList))
-                    .toList();
+            PlatingRecipeTrie trie = RecipeIndex.get(world).getPlatingTrie();
+            List<PlatingRecipeTrie.Node> candidates = trie.walk(plate.getContainerType(), tempMatchingList);
 
             if (candidates.isEmpty()) {
                 return false;
             }
 
-            candidateRecipes.clear();
-            candidateRecipes.addAll(candidates);
+            cursor = candidates;
+            cursorTrie = trie;
+            cursorDepth = tempMatchingList.size();
             hasInitializedCandidates = true;
 
             // 检查完全匹配
@@ -285,47 +287,27 @@ public class PlatingProcess<T extends BlockEntity & PlatableBlockEntity> extends
     }
 
     /**
-     * 根据下一步操作过滤候选配方。
-     *
-     * @param nextAction 下一步要执行的操作
-     * @param performedActions 已执行的操作列表
-     * @return 过滤后的候选配方列表，只包含下一步匹配的配方
-     */
-    private List<PlatingRecipe> filterCandidatesByNextAction(PlayerAction nextAction, List<PlayerAction> performedActions) {
-        return candidateRecipes.stream()
-                .filter(recipe -> {
-                    // 如果已执行操作数量 >= 配方操作数量，不是有效候选
-                    if (performedActions.size() >= recipe.getActionCount()) {
-                        return false;
-                    }
-
-                    // 检查已执行操作是否是配方的有效前缀
-                    if (!recipe.matchesPrefix(performedActions)) {
-                        return false;
-                    }
-
-                    // 检查下一步是否匹配
-                    PlayerAction nextRecipeAction = recipe.getNextAction(performedActions.size());
-                    return nextRecipeAction != null && nextAction.matches(nextRecipeAction);
-                })
-                .collect(Collectors.toList());
-    }
-
-    /**
-     * 检查当前摆盘状态是否有完全匹配的配方。
+     * 检查当前摆盘状态是否有完全匹配的配方，只有操作序列恰好在游标节点结束的配方可能完全匹配。
      */
     public void checkForExactMatch(PlatableBlockEntity plate, World world) {
-        matchedRecipe = candidateRecipes.stream()
-                .filter(recipe -> recipe.matches(plate, world))
-                .findFirst()
-                .orElse(null);
+        matchedRecipe = null;
+        for (PlatingRecipeTrie.Node node : cursor) {
+            for (PlatingRecipe recipe : node.getRecipes()) {
+                if (recipe.matches(plate, world)) {
+                    matchedRecipe = recipe;
+                    return;
+                }
+            }
+        }
     }
 
     /**
      * 重置候选配方状态。
      */
     private void resetCandidateState() {
-        candidateRecipes.clear();
+        cursor = List.of();
+        cursorTrie = null;
+        cursorDepth = 0;
         matchedRecipe = null;
         hasInitializedCandidates = false;
         isMatchingRecipes = false;
@@ -377,7 +359,11 @@ public class PlatingProcess<T extends BlockEntity & PlatableBlockEntity> extends
      * 获取当前候选配方数量。
      */
     public int getCandidateRecipeCount() {
-        return candidateRecipes.size();
+        int count = 0;
+        for (PlatingRecipeTrie.Node node : cursor) {
+            count += node.getSubtreeSize();
+        }
+        return count;
     }
 
     /**
@@ -406,7 +392,8 @@ public class PlatingProcess<T extends BlockEntity & PlatableBlockEntity> extends
         StringBuilder info = new StringBuilder();
 
         // 候选配方信息
-        info.append("候选配方数量: ").append(candidateRecipes.size()).append("\n");
+        int candidateCount = getCandidateRecipeCount();
+        info.append("候选配方数量: ").append(candidateCount).append("\n");
 
         // 匹配的配方信息
         if (matchedRecipe != null) {
@@ -424,17 +411,21 @@ public class PlatingProcess<T extends BlockEntity & PlatableBlockEntity> extends
         info.append("正在匹配配方: ").append(isMatchingRecipes).append("\n");
 
         // 候选配方详情（仅显示前3个，避免输出过长）
-        if (!candidateRecipes.isEmpty()) {
+        if (candidateCount > 0) {
             info.append("候选配方列表:\n");
-            int limit = Math.min(candidateRecipes.size(), 3);
+            int limit = Math.min(candidateCount, 3);
+            List<PlatingRecipe> candidateRecipes = new ArrayList<>(limit);
+            for (PlatingRecipeTrie.Node node : cursor) {
+                node.collectRecipes(candidateRecipes, limit);
+            }
             for (int i = 0; i < limit; i++) {
                 PlatingRecipe recipe = candidateRecipes.get(i);
                 info.append("  ").append(i + 1).append(". ")
                         .append(recipe.getId().getPath())
                         .append(" (操作: ").append(recipe.getActionCount()).append(")\n");
             }
-            if (candidateRecipes.size() > limit) {
-                info.append("  ... 还有").append(candidateRecipes.size() - limit).append("个配方未显示\n");
+            if (candidateCount > limit) {
+                info.append("  ... 还有").append(candidateCount - limit).append("个配方未显示\n");
             }
         }
         return info.toString();
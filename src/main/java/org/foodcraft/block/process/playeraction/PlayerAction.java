@@ -20,6 +20,10 @@ import java.util.Optional;
  *   <li>执行操作特定的消耗逻辑</li>
  * </ul>
  *
+ * <p><strong>规范化实例：</strong>相同类型和参数的操作共享同一个实例（享元），
+ * 子类应当通过静态工厂方法从实例池中获取实例，而不是直接创建。因此相等即同一性，
+ * 哈希值在创建时预先计算，不需要再构建字符串。</p>
+ *
  * <p><strong>字符串格式：</strong></p>
  * <pre>
  * 操作类型|参数1|参数2|...
@@ -33,28 +37,14 @@ public abstract class PlayerAction {
     /**
      * 从字符串创建操作实例。
      *
-     * <p>用于从配方JSON或NBT数据中恢复操作。</p>
+     * <p>用于从配方JSON或NBT数据中恢复操作。解析过的字符串会被缓存，再次解析时直接返回同一个实例。</p>
      *
      * @param str 格式为"类型|参数1|参数2"的字符串
      * @return 对应的操作实例
      * @throws IllegalArgumentException 如果字符串格式无效或类型未注册
      */
     public static PlayerAction fromString(String str) {
-        if (str == null || str.trim().isEmpty()) {
-            throw new IllegalArgumentException("The operation string cannot be empty");
-        }
-
-        // 解析格式：类型|参数1|参数2...
-        String[] parts = str.split("\\|");
-        if (parts.length == 0) {
-            throw new IllegalArgumentException("Invalid operation string formatting: " + str);
-        }
-
-        String type = parts[0].trim();
-        String[] params = new String[parts.length - 1];
-        System.arraycopy(parts, 1, params, 0, params.length);
-
-        return PlayerActionFactory.create(type, params);
+        return PlayerActionFactory.parse(str);
     }
 
     /**
@@ -113,6 +103,19 @@ public abstract class PlayerAction {
      */
     public abstract boolean matches(PlayerAction other);
 
+    /**
+     * 获取操作的匹配键，用于在配方索引中按键分组查找候选操作。
+     *
+     * <p>能够互相{@linkplain #matches 匹配}的操作必须返回相等的键，
+     * 键只用于缩小范围，分组内仍然通过{@link #matches}确认。默认以操作类型为键，
+     * 子类可以返回更精确的键（如物品类型）以减少分组内的比较。</p>
+     *
+     * @return 操作的匹配键
+     */
+    public Object getMatchKey() {
+        return getType();
+    }
+
     /**
      * 获取操作的简短编码表示。
      * <ul>
@@ -151,16 +154,19 @@ public abstract class PlayerAction {
 
     // ==================== 对象方法重写 ====================
 
+    /**
+     * 操作实例是规范化的，相同类型和参数的操作是同一个实例，因此只比较同一性。
+     *
+     * <p>判断玩家执行的操作是否满足配方要求请使用{@link #matches}。</p>
+     */
     @Override
-    public boolean equals(Object obj) {
-        if (this == obj) return true;
-        if (obj == null || getClass() != obj.getClass()) return false;
-        PlayerAction other = (PlayerAction) obj;
-        return this.matches(other);
+    public final boolean equals(Object obj) {
+        return this == obj;
     }
 
+    /**
+     * 子类应在创建时根据类型和参数预先计算哈希值，保证相同参数的哈希值在客户端和服务端之间一致。
+     */
     @Override
-    public int hashCode() {
-        return toString().hashCode();
-    }
+    public abstract int hashCode();
 }
\ No newline at end of file
@@ -5,16 +5,22 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 玩家操作工厂，用于创建和管理不同类型的操作。
  *
  * <p>工厂模式允许动态注册新的操作类型，使系统易于扩展。</p>
+ *
+ * <p>解析器应返回规范化的共享实例（见{@link PlayerAction}），工厂还会按完整字符串缓存解析结果，
+ * 预热后从NBT或配方中恢复操作不再分配任何对象。</p>
  */
 public final class PlayerActionFactory {
 
     private static final Map<String, PlayerActionParser> PARSERS = new HashMap<>();
     private static final Map<String, PlayerActionCreator> CREATORS = new HashMap<>();
+    /** 操作字符串 -> 解析结果，配方和NBT可能在不同线程中解析 */
+    private static final Map<String, PlayerAction> PARSED = new ConcurrentHashMap<>();
 
     private PlayerActionFactory() {
         // 防止实例化
@@ -49,6 +55,40 @@ public final class PlayerActionFactory {
 
     // ==================== 创建方法 ====================
 
+    /**
+     * 从完整的操作字符串创建操作，相同的字符串只解析一次。
+     *
+     * @param str 格式为"类型|参数1|参数2"的字符串
+     * @return 对应的操作实例
+     * @throws IllegalArgumentException 如果字符串格式无效或类型未注册
+     */
+    public static PlayerAction parse(String str) {
+        if (str == null || str.trim().isEmpty()) {
+            throw new IllegalArgumentException("The operation string cannot be empty");
+        }
+
+        PlayerAction action = PARSED.get(str);
+        if (action == null) {
+            // 解析失败时抛出异常，不会缓存
+            action = PARSED.computeIfAbsent(str, PlayerActionFactory::parseUncached);
+        }
+        return action;
+    }
+
+    private static PlayerAction parseUncached(String str) {
+        // 解析格式：类型|参数1|参数2...
+        String[] parts = str.split("\\|");
+        if (parts.length == 0) {
+            throw new IllegalArgumentException("Invalid operation string formatting: " + str);
+        }
+
+        String type = parts[0].trim();
+        String[] params = new String[parts.length - 1];
+        System.arraycopy(parts, 1, params, 0, params.length);
+
+        return create(type, params);
+    }
+
     /**
      * 从字符串创建操作。
      *
@@ -0,0 +1,66 @@
+package org.foodcraft.block.process.playeraction;
+
+import net.minecraft.item.Item;
+import net.minecraft.registry.Registries;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 操作序列缓存键：容器和按顺序执行的操作。
+ *
+ * <p>操作是规范化实例，相同的操作序列总是由相同的实例组成，因此逐项比较同一性即可。</p>
+ */
+public final class PlayerActionSequenceKey {
+    private final Item container;
+    private final List<PlayerAction> actions;
+    private final int hashCode;
+
+    public PlayerActionSequenceKey(Item container, List<PlayerAction> actions) {
+        this.container = container;
+        this.actions = new ArrayList<>(actions); // 防御性复制
+        this.hashCode = Objects.hash(container, actions);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+
+        PlayerActionSequenceKey other = (PlayerActionSequenceKey) obj;
+
+        // 快速比较：先比较哈希值
+        if (this.hashCode != other.hashCode) {
+            return false;
+        }
+
+        // 详细比较
+        if (!Objects.equals(container, other.container)) {
+            return false;
+        }
+
+        if (actions.size() != other.actions.size()) {
+            return false;
+        }
+
+        for (int i = 0; i < actions.size(); i++) {
+            if (!actions.get(i).equals(other.actions.get(i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PlayerActionSequenceKey{container=%s, actions=%d}",
+                Registries.ITEM.getId(container), actions.size());
+    }
+}
@@ -1,5 +1,6 @@
 package org.foodcraft.block.process.playeraction.impl;
 
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import net.minecraft.item.ItemStack;
 import net.minecraft.text.Text;
 import net.minecraft.util.Identifier;
@@ -10,6 +11,8 @@ import org.foodcraft.contentsystem.api.ContainerUtil;
 import org.foodcraft.contentsystem.content.AbstractContent;
 import org.foodcraft.contentsystem.registry.ContentRegistry;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -18,8 +21,12 @@ import java.util.Optional;
 public class AddContentPlayerAction extends PlayerAction {
     public static final String TYPE = "add_content";
 
+    /** 规范化实例池：内容物 -> 数量 -> 实例 */
+    private static final Map<AbstractContent, Int2ObjectOpenHashMap<AddContentPlayerAction>> POOL = new HashMap<>();
+
     private final AbstractContent content;
     private final int count;
+    private final int hash;
 
     /**
      * 从字符串参数创建添加内容物操作。
@@ -54,7 +61,7 @@ public class AddContentPlayerAction extends PlayerAction {
             }
         }
 
-        return new AddContentPlayerAction(content, count);
+        return of(content, count);
     }
 
     /**
@@ -68,22 +75,41 @@ public class AddContentPlayerAction extends PlayerAction {
         Optional<ContainerContentBinding> binding = ContainerUtil.analyze(heldItem);
 
         if (binding.isPresent() && binding.get().content() != null) {
-            return Optional.of(new AddContentPlayerAction(binding.get().content(), binding.get().container().getBaseCapacity()));
+            return Optional.of(of(binding.get().content(), binding.get().container().getBaseCapacity()));
         }
         return Optional.empty();
     }
 
-    public AddContentPlayerAction(AbstractContent content, int count) {
+    /**
+     * 获取添加内容物操作的共享实例。
+     *
+     * @param content 要添加的内容物
+     * @param count 内容物数量（默认为1）
+     */
+    public static AddContentPlayerAction of(AbstractContent content, int count) {
         if (count <= 0) {
             throw new IllegalArgumentException("The quantity must be greater than 0");
         }
 
-        this.content = content;
-        this.count = count;
+        synchronized (POOL) {
+            Int2ObjectOpenHashMap<AddContentPlayerAction> byCount = POOL.computeIfAbsent(content, k -> new Int2ObjectOpenHashMap<>());
+            AddContentPlayerAction action = byCount.get(count);
+            if (action == null) {
+                action = new AddContentPlayerAction(content, count);
+                byCount.put(count, action);
+            }
+            return action;
+        }
+    }
+
+    public static AddContentPlayerAction of(AbstractContent content) {
+        return of(content, 1);
     }
 
-    public AddContentPlayerAction(AbstractContent content) {
-        this(content, 1);
+    private AddContentPlayerAction(AbstractContent content, int count) {
+        this.content = content;
+        this.count = count;
+        this.hash = 31 * content.hashCode() + count;
     }
 
     @Override
@@ -136,6 +162,16 @@ public class AddContentPlayerAction extends PlayerAction {
         return this.content == otherAction.content && this.count <= otherAction.count;
     }
 
+    @Override
+    public Object getMatchKey() {
+        return content;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
     @Override
     public String getCode() {
         Identifier itemId = content.getId();
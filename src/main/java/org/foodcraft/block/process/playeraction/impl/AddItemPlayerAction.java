@@ -1,5 +1,7 @@
 package org.foodcraft.block.process.playeraction.impl;
 
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.Items;
@@ -8,7 +10,6 @@ import net.minecraft.text.Text;
 import net.minecraft.util.Identifier;
 import org.foodcraft.block.process.playeraction.PlayerAction;
 import org.foodcraft.block.process.step.StepExecutionContext;
-import org.foodcraft.registry.ModItems;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -24,8 +25,15 @@ public class AddItemPlayerAction extends PlayerAction {
     /** 物品路径编码重映射，用于解决编码冲突 */
     public static final Map<Item, String> REMAPPING = new HashMap<>();
 
+    /**
+     * 规范化实例池：物品 -> 数量 -> 实例。
+     * 按物品引用而不是原始ID索引，原始ID会在进入服务器或加载不同模组组合的世界时被重映射。
+     */
+    private static final Reference2ObjectOpenHashMap<Item, Int2ObjectOpenHashMap<AddItemPlayerAction>> POOL = new Reference2ObjectOpenHashMap<>();
+
     private final Item item;
     private final int count;
+    private final int hash;
 
     /**
      * 从字符串参数创建添加物品操作。
@@ -60,7 +68,7 @@ public class AddItemPlayerAction extends PlayerAction {
             }
         }
 
-        return new AddItemPlayerAction(item, count);
+        return of(item, count);
     }
 
     /**
@@ -72,18 +80,18 @@ public class AddItemPlayerAction extends PlayerAction {
     public static Optional<PlayerAction> fromContext(StepExecutionContext<?> context) {
         ItemStack heldItem = context.getHeldItemStack();
         if (!heldItem.isEmpty()) {
-            return Optional.of(new AddItemPlayerAction(heldItem.getItem(), 1));
+            return Optional.of(of(heldItem.getItem(), 1));
         }
         return Optional.empty();
     }
 
     /**
-     * 创建添加物品操作。
+     * 获取添加物品操作的共享实例。
      *
      * @param item 要添加的物品
      * @param count 物品数量（默认为1）
      */
-    public AddItemPlayerAction(Item item, int count) {
+    public static AddItemPlayerAction of(Item item, int count) {
         if (item == null) {
             throw new IllegalArgumentException("Items cannot be null");
         }
@@ -91,12 +99,25 @@ public class AddItemPlayerAction extends PlayerAction {
             throw new IllegalArgumentException("The quantity must be greater than 0");
         }
 
-        this.item = item;
-        this.count = count;
+        synchronized (POOL) {
+            Int2ObjectOpenHashMap<AddItemPlayerAction> byCount = POOL.computeIfAbsent(item, k -> new Int2ObjectOpenHashMap<>());
+            AddItemPlayerAction action = byCount.get(count);
+            if (action == null) {
+                action = new AddItemPlayerAction(item, count);
+                byCount.put(count, action);
+            }
+            return action;
+        }
     }
 
-    public AddItemPlayerAction(Item item) {
-        this(item, 1);
+    public static AddItemPlayerAction of(Item item) {
+        return of(item, 1);
+    }
+
+    private AddItemPlayerAction(Item item, int count) {
+        this.item = item;
+        this.count = count;
+        this.hash = 31 * Registries.ITEM.getId(item).hashCode() + count;
     }
 
     @Override
@@ -134,6 +155,16 @@ public class AddItemPlayerAction extends PlayerAction {
         return this.item == otherAction.item && count == otherAction.count;
     }
 
+    @Override
+    public Object getMatchKey() {
+        return item;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
     /**
      * 编码格式: i[命名空间前2位]_[物品路径前3位][数量，如果为1则省略]。
      * @return 简短编码
@@ -190,8 +221,4 @@ public class AddItemPlayerAction extends PlayerAction {
     public int getCount() {
         return count;
     }
-
-    static {
-        REMAPPING.put(ModItems.SALMON_CUBES, "msa");
-    }
 }
\ No newline at end of file
@@ -19,11 +19,17 @@ import java.util.Map;
  * 支持多步骤切割的切菜配方
  */
 public class CutRecipe implements Recipe<Inventory> {
+    /** 库存状态的槽位数量 */
+    public static final int SLOT_COUNT = 5;
+
     private final Identifier id;
     private final Ingredient input;
     private final int totalCuts; // 总共需要切的次数
     private final Map<Integer, DefaultedList<ItemStack>> cutStateMap; // 第几刀对应的库存状态
     private final DefaultedList<ItemStack> defaultState; // 默认库存状态（5个槽位）
+    /** 按切割次数（0到总次数）展开的库存状态表，切割时直接按下标取得，不需要查找映射 */
+    private final ItemStack[][] stateTable;
+    private final ItemStack[] defaultSlots;
 
     public CutRecipe(Identifier id, Ingredient input, int totalCuts,
                      Map<Integer, DefaultedList<ItemStack>> cutStateMap,
@@ -33,6 +39,21 @@ public class CutRecipe implements Recipe<Inventory> {
         this.totalCuts = totalCuts;
         this.cutStateMap = cutStateMap;
         this.defaultState = defaultState;
+
+        this.defaultSlots = toSlots(defaultState);
+        this.stateTable = new ItemStack[Math.max(totalCuts, 0) + 1][];
+        for (int cutIndex = 0; cutIndex < stateTable.length; cutIndex++) {
+            DefaultedList<ItemStack> state = cutStateMap.get(cutIndex);
+            stateTable[cutIndex] = state != null ? toSlots(state) : defaultSlots;
+        }
+    }
+
+    private static ItemStack[] toSlots(DefaultedList<ItemStack> state) {
+        ItemStack[] slots = new ItemStack[Math.min(state.size(), SLOT_COUNT)];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = state.get(i);
+        }
+        return slots;
     }
 
     @Override
@@ -102,6 +123,15 @@ public class CutRecipe implements Recipe<Inventory> {
         return cutStateMap.getOrDefault(cutIndex, defaultState);
     }
 
+    /**
+     * 获取预先展开的库存状态，最多{@value #SLOT_COUNT}个槽位。返回的数组和物品堆栈都是共享的，不能修改
+     *
+     * @param cutIndex 切割次数，超出范围时为默认状态
+     */
+    public ItemStack[] getCutStateSlots(int cutIndex) {
+        return cutIndex >= 0 && cutIndex < stateTable.length ? stateTable[cutIndex] : defaultSlots;
+    }
+
     public DefaultedList<ItemStack> getDefaultState() {
         return defaultState;
     }
@@ -1,6 +1,9 @@
 package org.foodcraft.recipe;
 
 import com.google.gson.*;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.recipe.Ingredient;
 import net.minecraft.recipe.Recipe;
@@ -14,6 +17,7 @@ import org.foodcraft.contentsystem.content.AbstractContent;
 import org.foodcraft.item.FlourItem;
 import org.foodcraft.registry.ModRecipeSerializers;
 import org.foodcraft.registry.ModRecipeTypes;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 
@@ -33,6 +37,22 @@ public class DoughRecipe implements Recipe<KneadingProcess<?>> {
     // 额外物品要求：物品 -> 数量
     private final Map<Ingredient, Integer> extraRequirements;
 
+    /**
+     * 预编译的匹配数据，在配方加载时由要求的Map展开为数组，匹配时不需要再遍历Map或用流求和
+     */
+    private final FlourItem.FlourType[] flourTypes;
+    private final int[] flourAmounts;
+    private final int flourTotal;
+    private final AbstractContent[] liquidTypes;
+    private final int[] liquidAmounts;
+    private final int liquidTotal;
+    private final Ingredient[] extraIngredients;
+    private final int[] extraAmounts;
+
+    /** 额外物品的匹配器，首次匹配时展开配料（此时物品标签已经绑定） */
+    @Nullable
+    private ExtraItemMatcher extraItemMatcher;
+
     public DoughRecipe(Identifier id, ItemStack output,
                        Map<FlourItem.FlourType, Integer> flourRequirements,
                        Map<AbstractContent, Integer> liquidRequirements,
@@ -42,94 +62,109 @@ public class DoughRecipe implements Recipe<KneadingProcess<?>> {
         this.flourRequirements = flourRequirements;
         this.liquidRequirements = liquidRequirements;
         this.extraRequirements = extraRequirements;
+
+        this.flourTypes = flourRequirements.keySet().toArray(new FlourItem.FlourType[0]);
+        this.flourAmounts = new int[flourTypes.length];
+        int flourTotal = 0;
+        for (int i = 0; i < flourTypes.length; i++) {
+            flourAmounts[i] = flourRequirements.get(flourTypes[i]);
+            flourTotal += flourAmounts[i];
+        }
+        this.flourTotal = flourTotal;
+
+        this.liquidTypes = liquidRequirements.keySet().toArray(new AbstractContent[0]);
+        this.liquidAmounts = new int[liquidTypes.length];
+        int liquidTotal = 0;
+        for (int i = 0; i < liquidTypes.length; i++) {
+            liquidAmounts[i] = liquidRequirements.get(liquidTypes[i]);
+            liquidTotal += liquidAmounts[i];
+        }
+        this.liquidTotal = liquidTotal;
+
+        this.extraIngredients = extraRequirements.keySet().toArray(new Ingredient[0]);
+        this.extraAmounts = new int[extraIngredients.length];
+        for (int i = 0; i < extraIngredients.length; i++) {
+            extraAmounts[i] = extraRequirements.get(extraIngredients[i]);
+        }
     }
 
     @Override
     public boolean matches(KneadingProcess<?> process, World world) {
-        // 检查面粉
-        if (!matchesFlours(process.getFlourCounts())) {
+        // 检查揉面次数
+        if (process.getKneadingCount() < 2) {
             return false;
         }
 
-        // 检查液体
-        if (!matchesLiquids(process.getLiquidCounts())) {
+        // 检查面粉
+        if (!matchesFlours(process)) {
             return false;
         }
 
-        // 检查额外物品
-        if (!matchesExtraItems(process.getExtraItemStacks())) {
+        // 检查液体
+        if (!matchesLiquids(process)) {
             return false;
         }
 
-        // 检查揉面次数
-        return process.getKneadingCount() >= 2;
+        // 检查额外物品
+        return matchesExtraItems(process);
     }
 
-    private boolean matchesFlours(Map<FlourItem.FlourType, Integer> processFlours) {
-        for (Map.Entry<FlourItem.FlourType, Integer> requirement : flourRequirements.entrySet()) {
-            int processCount = processFlours.getOrDefault(requirement.getKey(), 0);
-            if (processCount < requirement.getValue()) {
+    private boolean matchesFlours(KneadingProcess<?> process) {
+        // 总面粉数量必须与配方要求的总数相同
+        if (process.getTotalFlourCount() != flourTotal) {
+            return false;
+        }
+        for (int i = 0; i < flourTypes.length; i++) {
+            if (process.getFlourCount(flourTypes[i]) < flourAmounts[i]) {
                 return false;
             }
         }
-
-        // 检查总面粉数量（配方要求的总数）
-        int requiredTotal = flourRequirements.values().stream().mapToInt(Integer::intValue).sum();
-        int processTotal = processFlours.values().stream().mapToInt(Integer::intValue).sum();
-
-        return processTotal == requiredTotal;
+        return true;
     }
 
-    private boolean matchesLiquids(Map<AbstractContent, Integer> processLiquids) {
-        for (Map.Entry<AbstractContent, Integer> requirement : liquidRequirements.entrySet()) {
-            int processCount = processLiquids.getOrDefault(requirement.getKey(), 0);
-            if (processCount < requirement.getValue()) {
+    private boolean matchesLiquids(KneadingProcess<?> process) {
+        // 总液体数量必须与配方要求的总数相同
+        if (process.getTotalLiquidCount() != liquidTotal) {
+            return false;
+        }
+        for (int i = 0; i < liquidTypes.length; i++) {
+            if (process.getLiquidCount(liquidTypes[i]) < liquidAmounts[i]) {
                 return false;
             }
         }
-
-        // 检查总液体数量
-        int requiredTotal = liquidRequirements.values().stream().mapToInt(Integer::intValue).sum();
-        int processTotal = processLiquids.values().stream().mapToInt(Integer::intValue).sum();
-
-        return processTotal == requiredTotal;
+        return true;
     }
 
-    private boolean matchesExtraItems(List<ItemStack> processExtras) {
-        // 如果没有额外物品要求，那么流程中的额外物品应该为空
-        if (extraRequirements.isEmpty()) {
-            return processExtras.isEmpty();
+    /**
+     * 检查额外物品。每个非空槽位算一个额外物品，见{@link ExtraItemMatcher}。
+     */
+    private boolean matchesExtraItems(KneadingProcess<?> process) {
+        int[] units = ExtraItemMatcher.unitBuffer(process.size());
+        int unitCount = 0;
+        for (int slot = 0; slot < process.size(); slot++) {
+            ItemStack stack = process.getStack(slot);
+            if (!stack.isEmpty()) {
+                units[unitCount++] = Item.getRawId(stack.getItem());
+            }
         }
+        return getExtraItemMatcher().matches(units, unitCount);
+    }
 
-        // 创建可修改的额外物品列表副本
-        List<ItemStack> remainingExtras = new ArrayList<>(processExtras);
-
-        // 检查每个要求
-        for (Map.Entry<Ingredient, Integer> requirement : extraRequirements.entrySet()) {
-            Ingredient ingredient = requirement.getKey();
-            int requiredCount = requirement.getValue();
-            int foundCount = 0;
-
-            // 统计匹配的额外物品
-            Iterator<ItemStack> iterator = remainingExtras.iterator();
-            while (iterator.hasNext()) {
-                ItemStack stack = iterator.next();
-                if (ingredient.test(stack)) {
-                    foundCount++;
-                    iterator.remove(); // 移除已匹配的
-                    if (foundCount >= requiredCount) {
-                        break;
-                    }
+    private ExtraItemMatcher getExtraItemMatcher() {
+        ExtraItemMatcher matcher = this.extraItemMatcher;
+        if (matcher == null) {
+            IntSet[] itemIds = new IntSet[extraIngredients.length];
+            for (int i = 0; i < extraIngredients.length; i++) {
+                IntSet ids = new IntOpenHashSet();
+                for (ItemStack stack : extraIngredients[i].getMatchingStacks()) {
+                    ids.add(Item.getRawId(stack.getItem()));
                 }
+                itemIds[i] = ids;
             }
-
-            if (foundCount < requiredCount) {
-                return false;
-            }
+            matcher = new ExtraItemMatcher(itemIds, extraAmounts);
+            this.extraItemMatcher = matcher;
         }
-
-        // 检查是否有未匹配的额外物品（不应该有）
-        return remainingExtras.isEmpty();
+        return matcher;
     }
 
     @Override
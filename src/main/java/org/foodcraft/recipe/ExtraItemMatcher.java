@@ -0,0 +1,136 @@
+package org.foodcraft.recipe;
+
+import it.unimi.dsi.fastutil.ints.IntSet;
+
+import java.util.Arrays;
+
+/**
+ * 面团配方额外物品的匹配器
+ *
+ * <p>每个额外物品必须分配给一个包含它的配料要求，且每个要求恰好分配到要求的数量，不能有剩余的额外物品。
+ * 配料之间可能有重叠的物品，按顺序贪心分配可能错过可行的分配方式，
+ * 因此使用带容量的二分图匹配，依次为每个额外物品寻找增广路径。</p>
+ *
+ * <p>匹配器只依赖物品的原始ID，匹配时复用每个线程一份的临时数组。</p>
+ *
+ * @see DoughRecipe
+ */
+final class ExtraItemMatcher {
+    /** 匹配时复用的临时数组，每个线程一份 */
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    /** 每个要求接受的物品原始ID */
+    private final IntSet[] itemIds;
+    /** 每个要求的数量 */
+    private final int[] amounts;
+    private final int total;
+
+    ExtraItemMatcher(IntSet[] itemIds, int[] amounts) {
+        if (itemIds.length != amounts.length) {
+            throw new IllegalArgumentException("Expected " + itemIds.length + " amounts, got " + amounts.length);
+        }
+        this.itemIds = itemIds;
+        this.amounts = amounts;
+        int total = 0;
+        for (int amount : amounts) {
+            total += amount;
+        }
+        this.total = total;
+    }
+
+    /**
+     * 获取当前线程用于收集额外物品原始ID的数组，在调用{@link #matches(int[], int)}之前填充
+     *
+     * @param capacity 需要的最小长度
+     */
+    static int[] unitBuffer(int capacity) {
+        Scratch scratch = SCRATCH.get();
+        if (scratch.units.length < capacity) {
+            scratch.units = new int[capacity];
+        }
+        return scratch.units;
+    }
+
+    /**
+     * 检查额外物品能否恰好分配给所有要求
+     *
+     * @param units     每个额外物品的原始ID，每项代表一个物品
+     * @param unitCount 额外物品的数量
+     */
+    boolean matches(int[] units, int unitCount) {
+        if (unitCount != total) {
+            return false;
+        }
+
+        Scratch scratch = SCRATCH.get();
+        scratch.prepare(unitCount, itemIds.length);
+        for (int unit = 0; unit < unitCount; unit++) {
+            Arrays.fill(scratch.visited, 0, itemIds.length, false);
+            if (!assign(unit, units, unitCount, scratch)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 为额外物品寻找增广路径：直接分配给有剩余容量的要求，或者将该要求已分配的某个物品改分配给其他要求
+     */
+    private boolean assign(int unit, int[] units, int unitCount, Scratch scratch) {
+        int item = units[unit];
+        for (int i = 0; i < itemIds.length; i++) {
+            if (scratch.visited[i] || !itemIds[i].contains(item)) {
+                continue;
+            }
+            scratch.visited[i] = true;
+
+            if (scratch.loads[i] < amounts[i]) {
+                scratch.owners[unit] = i;
+                scratch.loads[i]++;
+                return true;
+            }
+
+            for (int other = 0; other < unitCount; other++) {
+                if (scratch.owners[other] != i) {
+                    continue;
+                }
+                scratch.owners[other] = -1;
+                scratch.loads[i]--;
+                if (assign(other, units, unitCount, scratch)) {
+                    scratch.owners[unit] = i;
+                    scratch.loads[i]++;
+                    return true;
+                }
+                scratch.owners[other] = i;
+                scratch.loads[i]++;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 匹配的临时数组
+     */
+    private static final class Scratch {
+        /** 每个额外物品的原始ID，见{@link #unitBuffer(int)} */
+        private int[] units = new int[0];
+        /** 每个额外物品分配到的要求，-1表示未分配 */
+        private int[] owners = new int[0];
+        /** 每个要求已分配的数量 */
+        private int[] loads = new int[0];
+        /** 本次增广中已访问的要求 */
+        private boolean[] visited = new boolean[0];
+
+        private void prepare(int unitCount, int requirementCount) {
+            if (owners.length < unitCount) {
+                owners = new int[unitCount];
+            }
+            if (loads.length < requirementCount) {
+                loads = new int[requirementCount];
+                visited = new boolean[requirementCount];
+            }
+            Arrays.fill(owners, 0, unitCount, -1);
+            Arrays.fill(loads, 0, requirementCount, 0);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package org.foodcraft.recipe;
+
+import net.minecraft.item.Item;
+import org.foodcraft.block.process.playeraction.PlayerAction;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * 摆盘配方的前缀树索引，按容器分别建立，以配方的操作序列为路径。
+ *
+ * <p>每个节点代表一个操作前缀，节点子树中的配方就是该前缀的所有候选配方。
+ * 摆盘流程只需持有当前前缀对应的节点（游标），每添加一个操作只查找一次子节点，
+ * 不需要再逐个比较所有候选配方的操作序列。</p>
+ *
+ * <p>子节点按操作的{@linkplain PlayerAction#getMatchKey() 匹配键}分组，分组内再通过
+ * {@link PlayerAction#matches}确认。由于匹配不一定是相等关系（例如内容物数量只要求不少于配方），
+ * 同一个前缀可能对应多个节点，因此游标是节点列表，通常只有一个节点。</p>
+ *
+ * <p>前缀树由{@link RecipeIndex}随配方索引一起建立，配方重载后随之重建。</p>
+ *
+ * <h2>使用示例</h2>
+ * <pre>{@code
+ * PlatingRecipeTrie trie = RecipeIndex.get(world).getPlatingTrie();
+ * List<PlatingRecipeTrie.Node> cursor = trie.walk(containerType, performedActions);
+ * cursor = PlatingRecipeTrie.advance(cursor, nextAction);
+ * }</pre>
+ */
+public class PlatingRecipeTrie {
+    /** 容器 -> 根节点 */
+    private final Map<Item, Node> roots = new HashMap<>();
+
+    /**
+     * 前缀树节点
+     */
+    public static final class Node {
+        /** 到达此节点所需的配方操作，根节点为null */
+        @Nullable
+        private final PlayerAction action;
+        /** 匹配键 -> 子节点，同一个键下通常只有一个子节点 */
+        private final Map<Object, List<Node>> children = new HashMap<>();
+        /** 操作序列恰好在此节点结束的配方 */
+        private final List<PlatingRecipe> recipes = new ArrayList<>(1);
+        /** 子树中的配方数量 */
+        private int subtreeSize;
+
+        private Node(@Nullable PlayerAction action) {
+            this.action = action;
+        }
+
+        /**
+         * 操作序列恰好在此节点结束的配方，即与当前前缀完全匹配的配方
+         */
+        public List<PlatingRecipe> getRecipes() {
+            return Collections.unmodifiableList(recipes);
+        }
+
+        /**
+         * 子树中的配方数量，即当前前缀的候选配方数量
+         */
+        public int getSubtreeSize() {
+            return subtreeSize;
+        }
+
+        /**
+         * 按深度优先顺序收集子树中的配方
+         *
+         * @param limit 最多收集的数量
+         */
+        public void collectRecipes(List<PlatingRecipe> output, int limit) {
+            for (PlatingRecipe recipe : recipes) {
+                if (output.size() >= limit) {
+                    return;
+                }
+                output.add(recipe);
+            }
+            for (List<Node> group : children.values()) {
+                for (Node child : group) {
+                    if (output.size() >= limit) {
+                        return;
+                    }
+                    child.collectRecipes(output, limit);
+                }
+            }
+        }
+
+        private Node getOrCreateChild(PlayerAction action) {
+            List<Node> group = children.computeIfAbsent(action.getMatchKey(), k -> new ArrayList<>(1));
+            // 操作实例是规范化的，按同一性区分；匹配关系不一定对称，不能用于合并不同的配方操作
+            for (Node child : group) {
+                if (child.action == action) {
+                    return child;
+                }
+            }
+            Node child = new Node(action);
+            group.add(child);
+            return child;
+        }
+    }
+
+    PlatingRecipeTrie(Collection<PlatingRecipe> recipes) {
+        for (PlatingRecipe recipe : recipes) {
+            Node node = roots.computeIfAbsent(recipe.getContainer(), k -> new Node(null));
+            node.subtreeSize++;
+            for (PlayerAction action : recipe.getActions()) {
+                node = node.getOrCreateChild(action);
+                node.subtreeSize++;
+            }
+            node.recipes.add(recipe);
+        }
+    }
+
+    /**
+     * 从容器的根节点沿已执行的操作查找前缀对应的节点
+     *
+     * @return 前缀对应的节点，没有配方以此为前缀时为空列表
+     */
+    public List<Node> walk(Item container, List<PlayerAction> performedActions) {
+        Node root = roots.get(container);
+        if (root == null) {
+            return List.of();
+        }
+
+        List<Node> cursor = List.of(root);
+        for (PlayerAction action : performedActions) {
+            cursor = advance(cursor, action);
+            if (cursor.isEmpty()) {
+                break;
+            }
+        }
+        return cursor;
+    }
+
+    /**
+     * 从游标沿下一个已执行的操作前进一步
+     *
+     * @return 新前缀对应的节点，没有配方以此为前缀时为空列表
+     */
+    public static List<Node> advance(List<Node> cursor, PlayerAction performedAction) {
+        Object key = performedAction.getMatchKey();
+        List<Node> next = null;
+        for (Node node : cursor) {
+            List<Node> group = node.children.get(key);
+            if (group == null) {
+                continue;
+            }
+            for (Node child : group) {
+                if (child.action.matches(performedAction)) {
+                    if (next == null) {
+                        next = new ArrayList<>(1);
+                    }
+                    next.add(child);
+                }
+            }
+        }
+        return next != null ? next : List.of();
+    }
+}
@@ -0,0 +1,224 @@
+package org.foodcraft.recipe;
+
+import net.fabricmc.fabric.api.resource.ResourceReloadListenerKeys;
+import net.fabricmc.fabric.api.resource.SimpleSynchronousResourceReloadListener;
+import net.minecraft.inventory.Inventory;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.recipe.Ingredient;
+import net.minecraft.recipe.Recipe;
+import net.minecraft.recipe.RecipeManager;
+import net.minecraft.recipe.RecipeType;
+import net.minecraft.registry.DynamicRegistryManager;
+import net.minecraft.resource.ResourceManager;
+import net.minecraft.util.Identifier;
+import net.minecraft.world.World;
+import org.foodcraft.FoodCraft;
+import org.foodcraft.registry.ModRecipeTypes;
+import org.foodcraft.util.OccupyUtil;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Food-Craft配方索引，按配方的主键（输入物品或容器）对所有本模组的配方类型分桶。
+ *
+ * <p>原版的{@code getFirstMatch}、{@code getAllMatches}会对该类型的所有配方逐个调用{@code matches()}，
+ * 索引只需按输入物品取出对应的桶，再对桶中少量的配方调用{@code matches()}。
+ * 无法确定主键的配方（例如以内容物作为输入的烤炉配方）会放入每个桶，桶中配方的顺序与配方管理器中一致，
+ * 因此查询结果与原版查询相同。所有查询结果都是不可变列表。</p>
+ *
+ * <p>索引在首次查询时根据当前的配方管理器建立（此时物品标签已经绑定，配料可以正确展开），
+ * 数据包重载时由资源重载监听器失效，客户端收到配方同步后也会失效。</p>
+ *
+ * <h2>使用示例</h2>
+ * <pre>{@code
+ * Optional<GrindingRecipe> recipe = RecipeIndex.get(world)
+ *         .getFirstMatch(ModRecipeTypes.GRINDING, inventory, world);
+ * }</pre>
+ */
+public class RecipeIndex {
+    private static final Map<RecipeManager, RecipeIndex> INDICES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final Map<RecipeType<?>, Bucket<?>> buckets = new HashMap<>();
+    private final PlatingRecipeTrie platingTrie;
+
+    /**
+     * 单个配方类型的索引
+     */
+    private static final class Bucket<R extends Recipe<?>> {
+        /** 该类型的所有配方 */
+        private final List<R> all;
+        /** 主键 -> 可能匹配的配方 */
+        private final Map<Item, List<R>> byKey;
+        /** 主键不在索引中时可能匹配的配方，即无法确定主键的配方 */
+        private final List<R> unkeyed;
+
+        private Bucket(List<R> recipes, Function<R, Collection<Item>> keyGetter) {
+            this.all = List.copyOf(recipes);
+
+            // 先确定每个配方的主键，空集合表示无法确定主键
+            Map<R, Collection<Item>> recipeKeys = new IdentityHashMap<>();
+            Set<Item> keys = new LinkedHashSet<>();
+            for (R recipe : recipes) {
+                Collection<Item> recipeKey = keyGetter.apply(recipe);
+                recipeKeys.put(recipe, recipeKey);
+                keys.addAll(recipeKey);
+            }
+
+            // 再按原顺序填充每个桶，保证与原版查询的先后顺序一致
+            Map<Item, List<R>> byKey = new HashMap<>();
+            for (Item key : keys) {
+                List<R> candidates = new ArrayList<>();
+                for (R recipe : recipes) {
+                    Collection<Item> recipeKey = recipeKeys.get(recipe);
+                    if (recipeKey.isEmpty() || recipeKey.contains(key)) {
+                        candidates.add(recipe);
+                    }
+                }
+                byKey.put(key, List.copyOf(candidates));
+            }
+            this.byKey = byKey;
+            this.unkeyed = recipes.stream().filter(recipe -> recipeKeys.get(recipe).isEmpty()).toList();
+        }
+
+        private List<R> getCandidates(Item key) {
+            return byKey.getOrDefault(key, unkeyed);
+        }
+    }
+
+    private RecipeIndex(RecipeManager recipeManager) {
+        index(recipeManager, ModRecipeTypes.GRINDING, recipe -> getItems(recipe.getInput()));
+        index(recipeManager, ModRecipeTypes.POTTERY, recipe -> getItems(recipe.getInput()));
+        index(recipeManager, ModRecipeTypes.MOLD, recipe -> getItems(recipe.getInput()));
+        index(recipeManager, ModRecipeTypes.CUT, recipe -> getItems(recipe.getInput()));
+        index(recipeManager, ModRecipeTypes.STOVE, recipe -> OccupyUtil.isOccupy(recipe.getInput())
+                ? List.of() : List.of(recipe.getInput().getItem()));
+        index(recipeManager, ModRecipeTypes.PLATING, recipe -> List.of(recipe.getContainer()));
+        // 面团配方由多种材料共同决定，没有单一的主键
+        index(recipeManager, ModRecipeTypes.DOUGH_MAKING, recipe -> List.of());
+
+        this.platingTrie = new PlatingRecipeTrie(getAll(ModRecipeTypes.PLATING));
+    }
+
+    private <C extends Inventory, R extends Recipe<C>> void index(RecipeManager recipeManager, RecipeType<R> type,
+                                                                 Function<R, Collection<Item>> keyGetter) {
+        buckets.put(type, new Bucket<>(recipeManager.listAllOfType(type), keyGetter));
+    }
+
+    private static Collection<Item> getItems(Ingredient ingredient) {
+        Set<Item> items = new LinkedHashSet<>();
+        for (ItemStack stack : ingredient.getMatchingStacks()) {
+            items.add(stack.getItem());
+        }
+        return items;
+    }
+
+    /**
+     * 获取世界当前使用的配方索引
+     */
+    public static RecipeIndex get(World world) {
+        return get(world.getRecipeManager());
+    }
+
+    /**
+     * 获取配方管理器对应的索引，首次获取或失效后重新建立
+     */
+    public static RecipeIndex get(RecipeManager recipeManager) {
+        return INDICES.computeIfAbsent(recipeManager, RecipeIndex::new);
+    }
+
+    /**
+     * 使所有索引失效，下次查询时重新建立。在数据包重载和客户端收到配方同步时调用。
+     */
+    public static void invalidate() {
+        INDICES.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R extends Recipe<?>> Bucket<R> getBucket(RecipeType<R> type) {
+        Bucket<R> bucket = (Bucket<R>) buckets.get(type);
+        if (bucket == null) {
+            throw new IllegalArgumentException("Recipe type " + type + " is not indexed");
+        }
+        return bucket;
+    }
+
+    /**
+     * 获取该类型的所有配方
+     */
+    public <R extends Recipe<?>> List<R> getAll(RecipeType<R> type) {
+        return getBucket(type).all;
+    }
+
+    /**
+     * 获取以指定物品为主键时可能匹配的配方，仍需调用{@code matches()}确认
+     *
+     * @param key 输入物品，摆盘配方为容器物品
+     */
+    public <R extends Recipe<?>> List<R> getCandidates(RecipeType<R> type, Item key) {
+        return getBucket(type).getCandidates(key);
+    }
+
+    /**
+     * 以物品栏第一个槽位的物品为主键，获取第一个匹配的配方
+     */
+    public <C extends Inventory, R extends Recipe<C>> Optional<R> getFirstMatch(RecipeType<R> type, C inventory, World world) {
+        for (R recipe : getCandidates(type, inventory.getStack(0).getItem())) {
+            if (recipe.matches(inventory, world)) {
+                return Optional.of(recipe);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * 以物品栏第一个槽位的物品为主键，获取所有匹配的配方，与原版一样按产物的翻译键排序
+     */
+    public <C extends Inventory, R extends Recipe<C>> List<R> getAllMatches(RecipeType<R> type, C inventory, World world) {
+        List<R> matches = null;
+        for (R recipe : getCandidates(type, inventory.getStack(0).getItem())) {
+            if (recipe.matches(inventory, world)) {
+                if (matches == null) {
+                    matches = new ArrayList<>();
+                }
+                matches.add(recipe);
+            }
+        }
+        if (matches == null) {
+            return List.of();
+        }
+        DynamicRegistryManager registryManager = world.getRegistryManager();
+        matches.sort(Comparator.comparing(recipe -> recipe.getOutput(registryManager).getTranslationKey()));
+        return Collections.unmodifiableList(matches);
+    }
+
+    /**
+     * 获取摆盘配方的前缀树
+     */
+    public PlatingRecipeTrie getPlatingTrie() {
+        return platingTrie;
+    }
+
+    /**
+     * 数据包重载时使索引失效
+     */
+    public static final class ReloadListener implements SimpleSynchronousResourceReloadListener {
+        private static final Identifier ID = new Identifier(FoodCraft.MOD_ID, "recipe_index");
+
+        @Override
+        public Identifier getFabricId() {
+            return ID;
+        }
+
+        @Override
+        public Collection<Identifier> getFabricDependencies() {
+            return List.of(ResourceReloadListenerKeys.RECIPES, ResourceReloadListenerKeys.TAGS);
+        }
+
+        @Override
+        public void reload(ResourceManager manager) {
+            invalidate();
+        }
+    }
+}
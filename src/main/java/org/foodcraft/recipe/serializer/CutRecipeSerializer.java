@@ -9,7 +9,9 @@ import net.minecraft.recipe.RecipeSerializer;
 import net.minecraft.util.Identifier;
 import net.minecraft.util.JsonHelper;
 import net.minecraft.util.collection.DefaultedList;
+import org.foodcraft.FoodCraft;
 import org.foodcraft.recipe.CutRecipe;
+import org.slf4j.Logger;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -52,13 +54,14 @@ import java.util.Map;
  *   <tr><td>input</td><td>object</td><td>是</td><td>输入物品，使用Minecraft标准Ingredient格式</td></tr>
  *   <tr><td>totalCuts</td><td>integer</td><td>否</td><td>总切割次数，默认1</td></tr>
  *   <tr><td>defaultState</td><td>object</td><td>否</td><td>默认库存状态（5个槽位）</td></tr>
- *   <tr><td>cutStates</td><td>object</td><td>否</td><td>特定切割次数的库存状态映射</td></tr>
+ *   <tr><td>cutStates</td><td>object</td><td>否</td><td>特定切割次数的库存状态映射，超出0到totalCuts的键会被忽略</td></tr>
  * </table>
  *
  * @see CutRecipe
  * @see RecipeSerializer
  */
 public class CutRecipeSerializer implements RecipeSerializer<CutRecipe> {
+    private static final Logger LOGGER = FoodCraft.LOGGER;
 
     @Override
     public CutRecipe read(Identifier id, JsonObject json) {
@@ -80,6 +83,11 @@ public class CutRecipeSerializer implements RecipeSerializer<CutRecipe> {
             for (Map.Entry<String, JsonElement> entry : cutStates.entrySet()) {
                 try {
                     int cutIndex = Integer.parseInt(entry.getKey());
+                    if (cutIndex < 0 || cutIndex > totalCuts) {
+                        // 超出范围的状态永远不会被使用，忽略而不是让整个配方加载失败
+                        LOGGER.warn("Ignoring cut state {} of recipe {}, out of range 0-{}", cutIndex, id, totalCuts);
+                        continue;
+                    }
                     JsonObject stateObject = entry.getValue().getAsJsonObject();
                     cutStateMap.put(cutIndex, readInventoryState(stateObject));
                 } catch (NumberFormatException e) {
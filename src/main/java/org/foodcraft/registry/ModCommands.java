@@ -0,0 +1,30 @@
+package org.foodcraft.registry;
+
+import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.text.Text;
+import org.foodcraft.util.SimulationLod;
+
+public class ModCommands {
+    public static void registerCommands() {
+        CommandRegistrationCallback.EVENT.register((dispatcher, registryAccess, environment) -> dispatcher.register(
+                CommandManager.literal("foodcraft")
+                        .requires(source -> source.hasPermissionLevel(2))
+                        // 查看各模拟细节等级的统计
+                        .then(CommandManager.literal("lod")
+                                .executes(context -> {
+                                    for (SimulationLod.Level level : SimulationLod.Level.values()) {
+                                        context.getSource().sendFeedback(() -> Text.literal(String.format(
+                                                "%s: %d updates, %d simulated ticks",
+                                                level, SimulationLod.getUpdates(level), SimulationLod.getSimulatedTicks(level))), false);
+                                    }
+                                    return 1;
+                                })
+                                .then(CommandManager.literal("reset")
+                                        .executes(context -> {
+                                            SimulationLod.resetCounters();
+                                            context.getSource().sendFeedback(() -> Text.literal("Simulation LOD counters reset"), false);
+                                            return 1;
+                                        })))));
+    }
+}
@@ -0,0 +1,16 @@
+package org.foodcraft.registry;
+
+import net.fabricmc.fabric.api.gamerule.v1.GameRuleFactory;
+import net.fabricmc.fabric.api.gamerule.v1.GameRuleRegistry;
+import net.minecraft.world.GameRules;
+
+public class ModGameRules {
+    /** 距离所有玩家超过该距离（格）的方块实体降低模拟频率 */
+    public static final GameRules.Key<GameRules.IntRule> SIMULATION_LOD_DISTANCE = GameRuleRegistry.register(
+            "foodcraftSimulationLodDistance", GameRules.Category.UPDATES, GameRuleFactory.createIntRule(64, 16));
+    /** 降低模拟频率后每隔多少tick运行一次，1表示不降低 */
+    public static final GameRules.Key<GameRules.IntRule> SIMULATION_LOD_INTERVAL = GameRuleRegistry.register(
+            "foodcraftSimulationLodInterval", GameRules.Category.UPDATES, GameRuleFactory.createIntRule(4, 1, 20));
+
+    public static void registerGameRules() {}
+}
@@ -9,6 +9,7 @@ import net.minecraft.registry.Registry;
 import net.minecraft.util.Identifier;
 import org.dfood.item.HaveBlock;
 import org.foodcraft.FoodCraft;
+import org.foodcraft.block.process.playeraction.impl.AddItemPlayerAction;
 import org.foodcraft.food.ModFoodComponents;
 import org.foodcraft.item.*;
 
@@ -121,5 +122,8 @@ public class ModItems {
         return registerItem(Registries.BLOCK.getId(block).getPath(), blockItemCreator.apply(block, settings));
     }
 
-    public static void registerModItems() {}
+    public static void registerModItems() {
+        // 物品路径编码冲突的重映射
+        AddItemPlayerAction.REMAPPING.put(SALMON_CUBES, "msa");
+    }
 }
@@ -1,9 +1,21 @@
 package org.foodcraft.registry;
 
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerBlockEntityEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerWorldEvents;
+import net.fabricmc.fabric.api.resource.ResourceManagerHelper;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.resource.ResourceType;
 import org.dfood.shape.Shapes;
+import org.foodcraft.block.entity.CombustionFirewoodBlockEntity;
+import org.foodcraft.block.entity.HeatResistantSlateBlockEntity;
 import org.foodcraft.block.multi.MultiBlockManager;
+import org.foodcraft.block.multi.MultiBlockUpdateQueue;
+import org.foodcraft.recipe.RecipeIndex;
+import org.foodcraft.util.BlockChangeTracker;
+import org.foodcraft.util.HeatNetwork;
 
 public class RegistryInit {
     public static void init() {
@@ -20,22 +32,55 @@ public class RegistryInit {
         ModBlockEntityTypes.registerBlockEntityTypes();
         ModEntityTypes.registerModEntityTypes();
         ModRecipeTypes.initialize();
+        // 数据包重载时使配方索引失效
+        ResourceManagerHelper.get(ResourceType.SERVER_DATA).registerReloadListener(new RecipeIndex.ReloadListener());
         ModItemGroups.RegistryModItemGroups();
         ModSounds.initialize();
         ModScreenHandlerTypes.registerScreenHandlerTypes();
         ModOreGeneration.registerOres();
+        ModGameRules.registerGameRules();
+        ModCommands.registerCommands();
     }
 
     /**
      * 多方块初始化
      */
     private static void multiBlockInit(){
-        // 世界加载时恢复多方块数据
+        // 世界加载时准备索引并迁移旧数据
         ServerWorldEvents.LOAD.register((server, world) -> {
             if (!world.isClient()) {
                 MultiBlockManager.loadWorldMultiBlocks(world);
             }
         });
+        // 区块加载时重建其中的方块堆，并使相交方块堆的占用缓存失效
+        ServerChunkEvents.CHUNK_LOAD.register(MultiBlockManager::onChunkLoad);
+        // 区块卸载时从内存中移除其中的方块堆
+        ServerChunkEvents.CHUNK_UNLOAD.register(MultiBlockManager::onChunkUnload);
+        // 世界卸载时移除内存中的索引
+        ServerWorldEvents.UNLOAD.register((server, world) -> {
+            MultiBlockUpdateQueue.clear(world);
+            BlockChangeTracker.clear(world);
+            HeatNetwork.clear(world);
+            MultiBlockManager.unloadWorldMultiBlocks(world);
+        });
+        // 方块实体卸载时取消方块变化监听
+        ServerBlockEntityEvents.BLOCK_ENTITY_UNLOAD.register((blockEntity, world) -> {
+            if (blockEntity instanceof HeatResistantSlateBlockEntity slateBlockEntity) {
+                slateBlockEntity.onUnloaded();
+            } else if (blockEntity instanceof CombustionFirewoodBlockEntity firewoodBlockEntity) {
+                firewoodBlockEntity.onUnloaded();
+            }
+        });
+        // 区块加载后结算柴火堆的燃烧状态
+        ServerChunkEvents.CHUNK_LOAD.register((world, chunk) -> {
+            for (BlockEntity blockEntity : chunk.getBlockEntities().values()) {
+                if (blockEntity instanceof CombustionFirewoodBlockEntity firewoodBlockEntity) {
+                    firewoodBlockEntity.onLoaded();
+                }
+            }
+        });
+        // 每刻结束时统一处理本刻的方块变化
+        ServerTickEvents.END_WORLD_TICK.register(MultiBlockUpdateQueue::flush);
         // 服务器停止时清理
         ServerLifecycleEvents.SERVER_STOPPING.register(MultiBlockManager::onServerStopping);
     }
@@ -14,6 +14,7 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 import org.foodcraft.block.entity.PotteryTableBlockEntity;
 import org.foodcraft.recipe.PotteryRecipe;
+import org.foodcraft.recipe.RecipeIndex;
 import org.foodcraft.registry.ModRecipeTypes;
 import org.foodcraft.registry.ModScreenHandlerTypes;
 import org.jetbrains.annotations.Nullable;
@@ -321,10 +322,11 @@ public class PotteryTableScreenHandler extends ScreenHandler {
      * 更新输入物品并重新计算可用配方。
      */
     private void updateRecipeList() {
-        this.availableRecipes.clear();
+        // 配方索引返回不可变列表，直接替换而不是清空
+        this.availableRecipes = List.of();
         this.selectedRecipe.set(-1);
         if (!this.inputSlot.getStack().isEmpty()) {
-            this.availableRecipes = this.world.getRecipeManager()
+            this.availableRecipes = RecipeIndex.get(this.world)
                     .getAllMatches(ModRecipeTypes.POTTERY, this.inventory, this.world);
         }
     }
@@ -404,7 +406,7 @@ public class PotteryTableScreenHandler extends ScreenHandler {
                     return ItemStack.EMPTY;
                 }
                 wasInputSlotChanged = true;
-            } else if (this.world.getRecipeManager()
+            } else if (RecipeIndex.get(this.world)
                     .getFirstMatch(ModRecipeTypes.POTTERY, new SimpleInventory(itemStack2), this.world)
                     .isPresent()) {
                 if (!this.insertItem(itemStack2, INPUT_SLOT_INDEX, INPUT_SLOT_INDEX + 1, false)) {
@@ -0,0 +1,107 @@
+package org.foodcraft.util;
+
+import net.minecraft.nbt.NbtCompound;
+
+/**
+ * 动画的同步状态
+ *
+ * <p>服务端只维护动画是否运行、开始运行的世界时间和播放速度，这些状态改变时才需要同步到客户端。
+ * 动画的播放时间完全由客户端根据世界时间推算，并由客户端独有的{@link ModAnimationState}播放，
+ * 服务端不跟踪任何动画时间，也不需要为动画进度发送更新。</p>
+ *
+ * <h2>使用示例</h2>
+ * <pre>{@code
+ * // 服务端
+ * if (animation.update(shouldPlay, world.getTime())) {
+ *     sync();
+ * }
+ *
+ * // 客户端渲染
+ * float progress = animation.getElapsedTicks(world.getTime(), tickDelta);
+ * }</pre>
+ */
+public class AnimationSyncState {
+    private static final String NBT_KEY_IS_RUNNING = "IsRunning";
+    private static final String NBT_KEY_START_TICK = "StartTick";
+    private static final String NBT_KEY_SPEED = "Speed";
+
+    /** 动画是否正在运行 */
+    private boolean running;
+    /** 开始运行时的世界时间 */
+    private long startTick;
+    /** 播放速度乘数 */
+    private float speed = 1.0F;
+
+    /**
+     * 以当前速度更新运行状态
+     *
+     * @see #update(boolean, long, float)
+     */
+    public boolean update(boolean running, long time) {
+        return update(running, time, this.speed);
+    }
+
+    /**
+     * 更新运行状态，开始运行时记录开始时间
+     *
+     * @param running 是否应该运行
+     * @param time    当前世界时间
+     * @param speed   播放速度乘数
+     * @return 状态是否改变，改变时需要同步到客户端
+     */
+    public boolean update(boolean running, long time, float speed) {
+        if (running == this.running && (!running || speed == this.speed)) {
+            return false;
+        }
+        if (running && !this.running) {
+            this.startTick = time;
+        }
+        this.running = running;
+        this.speed = speed;
+        return true;
+    }
+
+    public boolean isRunning() {
+        return this.running;
+    }
+
+    public long getStartTick() {
+        return this.startTick;
+    }
+
+    public float getSpeed() {
+        return this.speed;
+    }
+
+    /**
+     * 获取开始运行后经过的tick数，未运行时为0
+     *
+     * @param time      当前世界时间
+     * @param tickDelta 部分时间（0.0-1.0）
+     */
+    public float getElapsedTicks(long time, float tickDelta) {
+        if (!this.running) {
+            return 0.0F;
+        }
+        return Math.max(0, time - this.startTick) + tickDelta;
+    }
+
+    public NbtCompound toNbt() {
+        NbtCompound nbt = new NbtCompound();
+        nbt.putBoolean(NBT_KEY_IS_RUNNING, this.running);
+        nbt.putLong(NBT_KEY_START_TICK, this.startTick);
+        nbt.putFloat(NBT_KEY_SPEED, this.speed);
+        return nbt;
+    }
+
+    public void readFromNbt(NbtCompound nbt) {
+        this.running = nbt.getBoolean(NBT_KEY_IS_RUNNING);
+        this.startTick = nbt.getLong(NBT_KEY_START_TICK);
+        this.speed = nbt.contains(NBT_KEY_SPEED) ? nbt.getFloat(NBT_KEY_SPEED) : 1.0F;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AnimationSyncState{running=%s, startTick=%d, speed=%.2f}", running, startTick, speed);
+    }
+}
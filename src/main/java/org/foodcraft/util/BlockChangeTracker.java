@@ -0,0 +1,135 @@
+package org.foodcraft.util;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockBox;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.LongConsumer;
+
+/**
+ * 方块变化监听 - 在指定区域内的方块状态发生变化时通知监听者
+ *
+ * <p>用于把轮询式的结构检查改为事件驱动：方块实体只在其关心的区域发生变化时才重新读取方块状态，
+ * 空闲时不产生任何开销。方块变化由{@code ServerWorldMixin}在{@code ServerWorld#onBlockChanged}中转发。</p>
+ *
+ * <p>监听区域按区块段（16×16×16）登记，查找只检查变化位置所在区块段的少量候选。
+ * 所有方法都只应在服务器线程上调用。</p>
+ *
+ * <h2>使用示例</h2>
+ * <pre>{@code
+ * // 区域内任意方块变化时标记需要重新检查
+ * watch = BlockChangeTracker.watch(serverWorld, box, (world, pos) -> this.dirty = true);
+ *
+ * // 方块实体移除或卸载时
+ * BlockChangeTracker.unwatch(watch);
+ * }</pre>
+ */
+public class BlockChangeTracker {
+    private static final Map<ServerWorld, Long2ObjectOpenHashMap<List<Watch>>> watches = new HashMap<>();
+
+    /**
+     * 方块变化监听者
+     */
+    @FunctionalInterface
+    public interface Listener {
+        /**
+         * 监听区域内的方块状态发生变化时调用，不应在回调中读取或修改方块。
+         */
+        void onBlockChanged(ServerWorld world, BlockPos pos);
+    }
+
+    /**
+     * 一次登记的监听，用于取消监听
+     */
+    public static final class Watch {
+        private final ServerWorld world;
+        private final BlockBox box;
+        private final Listener listener;
+
+        private Watch(ServerWorld world, BlockBox box, Listener listener) {
+            this.world = world;
+            this.box = box;
+            this.listener = listener;
+        }
+
+        public BlockBox getBox() {
+            return box;
+        }
+    }
+
+    /**
+     * 监听指定区域内的方块变化。
+     */
+    public static Watch watch(ServerWorld world, BlockBox box, Listener listener) {
+        Watch watch = new Watch(world, box, listener);
+        Long2ObjectOpenHashMap<List<Watch>> sections = watches.computeIfAbsent(world, k -> new Long2ObjectOpenHashMap<>());
+        forEachSection(box, key -> sections.computeIfAbsent(key, k -> new ArrayList<>(2)).add(watch));
+        return watch;
+    }
+
+    /**
+     * 取消监听，重复取消不会产生影响。
+     */
+    public static void unwatch(@Nullable Watch watch) {
+        if (watch == null) {
+            return;
+        }
+
+        Long2ObjectOpenHashMap<List<Watch>> sections = watches.get(watch.world);
+        if (sections == null) {
+            return;
+        }
+        forEachSection(watch.box, key -> {
+            List<Watch> list = sections.get(key);
+            if (list != null && list.remove(watch) && list.isEmpty()) {
+                sections.remove(key);
+            }
+        });
+    }
+
+    /**
+     * 分发方块变化事件。
+     */
+    public static void onBlockChanged(ServerWorld world, BlockPos pos) {
+        Long2ObjectOpenHashMap<List<Watch>> sections = watches.get(world);
+        if (sections == null) {
+            return;
+        }
+
+        List<Watch> list = sections.get(ChunkSectionPos.asLong(
+                ChunkSectionPos.getSectionCoord(pos.getX()),
+                ChunkSectionPos.getSectionCoord(pos.getY()),
+                ChunkSectionPos.getSectionCoord(pos.getZ())));
+        if (list == null) {
+            return;
+        }
+
+        // 回调中可能取消或登记监听，先复制一份
+        for (Watch watch : list.toArray(new Watch[0])) {
+            if (watch.box.contains(pos)) {
+                watch.listener.onBlockChanged(world, pos);
+            }
+        }
+    }
+
+    /**
+     * 移除世界中所有监听，在世界卸载时调用。
+     */
+    public static void clear(ServerWorld world) {
+        watches.remove(world);
+    }
+
+    private static void forEachSection(BlockBox box, LongConsumer action) {
+        for (int sx = ChunkSectionPos.getSectionCoord(box.getMinX()); sx <= ChunkSectionPos.getSectionCoord(box.getMaxX()); sx++) {
+            for (int sy = ChunkSectionPos.getSectionCoord(box.getMinY()); sy <= ChunkSectionPos.getSectionCoord(box.getMaxY()); sy++) {
+                for (int sz = ChunkSectionPos.getSectionCoord(box.getMinZ()); sz <= ChunkSectionPos.getSectionCoord(box.getMaxZ()); sz++) {
+                    action.accept(ChunkSectionPos.asLong(sx, sy, sz));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package org.foodcraft.util;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * 热量网络 - 维护热源（燃烧的柴火堆）与受热方（炉子）之间的连接
+ *
+ * <p>受热方在结构确定后订阅一组热源位置，热源只在热量等级改变、放置或移除时发布，
+ * 网络随即重新计算所有订阅了该位置的受热方的聚合热量。受热方每tick只读取缓存的结果，
+ * 不需要遍历柴火堆方块实体，开销与热源数量无关。</p>
+ *
+ * <p>订阅的位置上暂时没有热源时视为无热量，之后在该位置放置并点燃柴火堆会自动连接。
+ * 所有方法都只应在服务器线程上调用。</p>
+ *
+ * <h2>使用示例</h2>
+ * <pre>{@code
+ * // 柴火堆热量等级改变时
+ * HeatNetwork.publish(serverWorld, pos, heatLevel);
+ *
+ * // 炉子绑定柴火堆位置
+ * consumer = HeatNetwork.subscribe(serverWorld, firewoodPositions, null);
+ * int speed = consumer.getBakingSpeed();
+ *
+ * // 结构失效或方块实体卸载时
+ * HeatNetwork.unsubscribe(consumer);
+ * }</pre>
+ */
+public class HeatNetwork {
+    private static final Map<ServerWorld, Long2ObjectOpenHashMap<Node>> networks = new HashMap<>();
+
+    /**
+     * 单个热源位置，记录当前热量等级和订阅了该位置的受热方
+     */
+    private static final class Node {
+        private int heatLevel;
+        private final List<Consumer> consumers = new ArrayList<>(1);
+    }
+
+    /**
+     * 受热方，缓存所有订阅热源的聚合结果
+     */
+    public static final class Consumer {
+        private final ServerWorld world;
+        private final long[] sources;
+        @Nullable
+        private final Runnable beforeChange;
+        private int activeSourceCount;
+        private int maxHeatLevel;
+        private int bakingSpeed;
+        private boolean subscribed = true;
+
+        private Consumer(ServerWorld world, long[] sources, @Nullable Runnable beforeChange) {
+            this.world = world;
+            this.sources = sources;
+            this.beforeChange = beforeChange;
+        }
+
+        /**
+         * 是否有任何订阅的热源正在燃烧
+         */
+        public boolean hasHeat() {
+            return activeSourceCount > 0;
+        }
+
+        /**
+         * 正在燃烧的热源数量
+         */
+        public int getActiveSourceCount() {
+            return activeSourceCount;
+        }
+
+        /**
+         * 订阅热源中最高的热量等级
+         */
+        public int getMaxHeatLevel() {
+            return maxHeatLevel;
+        }
+
+        /**
+         * 所有热源共同提供的烘烤速度，没有热量时为0
+         */
+        public int getBakingSpeed() {
+            return bakingSpeed;
+        }
+
+        /**
+         * 根据订阅热源的热量等级重新计算聚合结果
+         */
+        private void recompute(Long2ObjectOpenHashMap<Node> nodes) {
+            int[] heatLevels = new int[sources.length];
+            int activeCount = 0;
+            int maxHeat = 0;
+
+            for (int i = 0; i < sources.length; i++) {
+                Node node = nodes.get(sources[i]);
+                if (node == null || node.heatLevel <= 0) {
+                    continue;
+                }
+                heatLevels[i] = node.heatLevel;
+                activeCount++;
+                maxHeat = Math.max(maxHeat, node.heatLevel);
+            }
+
+            this.activeSourceCount = activeCount;
+            this.maxHeatLevel = maxHeat;
+            this.bakingSpeed = getBakingSpeed(heatLevels);
+        }
+    }
+
+    /**
+     * 根据一组热源的热量等级计算烘烤速度，0表示无热量
+     */
+    public static int getBakingSpeed(int[] heatLevels) {
+        int activeCount = 0;
+        double totalEffectiveSpeed = 0;
+
+        for (int heatLevel : heatLevels) {
+            if (heatLevel <= 0) {
+                continue;
+            }
+            activeCount++;
+
+            // 单个柴火堆的基础速度 + 热量加成，应用收益递减
+            double individualSpeed = 10 + (heatLevel - 1);
+            totalEffectiveSpeed += individualSpeed / Math.pow(activeCount, 0.7);
+        }
+
+        // 最终结果取整，并确保至少为10
+        return activeCount == 0 ? 0 : Math.max(10, (int) Math.round(totalEffectiveSpeed));
+    }
+
+    /**
+     * 发布热源的热量等级，只在热量等级改变、热源放置或加载时调用。
+     */
+    public static void publish(ServerWorld world, BlockPos pos, int heatLevel) {
+        Long2ObjectOpenHashMap<Node> nodes = networks.computeIfAbsent(world, k -> new Long2ObjectOpenHashMap<>());
+        long key = pos.asLong();
+        Node node = nodes.get(key);
+        if (node == null) {
+            if (heatLevel <= 0) {
+                return;
+            }
+            node = new Node();
+            nodes.put(key, node);
+        } else if (node.heatLevel == heatLevel) {
+            return;
+        }
+
+        // 先让受热方按旧的热量结算，再更新热量
+        for (Consumer consumer : node.consumers) {
+            if (consumer.beforeChange != null) {
+                consumer.beforeChange.run();
+            }
+        }
+        node.heatLevel = heatLevel;
+        for (Consumer consumer : node.consumers) {
+            consumer.recompute(nodes);
+        }
+        if (heatLevel <= 0 && node.consumers.isEmpty()) {
+            nodes.remove(key);
+        }
+    }
+
+    /**
+     * 移除热源，在热源方块实体被移除或卸载时调用。
+     */
+    public static void remove(ServerWorld world, BlockPos pos) {
+        publish(world, pos, 0);
+    }
+
+    /**
+     * 订阅一组热源位置。
+     *
+     * @param beforeChange 订阅的热源热量改变前调用，可用于按旧的热量结算尚未模拟的tick
+     * @return 受热方，聚合结果已经根据当前热源计算
+     */
+    public static Consumer subscribe(ServerWorld world, Collection<BlockPos> sourcePositions, @Nullable Runnable beforeChange) {
+        Long2ObjectOpenHashMap<Node> nodes = networks.computeIfAbsent(world, k -> new Long2ObjectOpenHashMap<>());
+        long[] sources = sourcePositions.stream().mapToLong(BlockPos::asLong).distinct().toArray();
+        Consumer consumer = new Consumer(world, sources, beforeChange);
+
+        for (long source : sources) {
+            nodes.computeIfAbsent(source, k -> new Node()).consumers.add(consumer);
+        }
+        consumer.recompute(nodes);
+        return consumer;
+    }
+
+    /**
+     * 取消订阅，重复取消不会产生影响。
+     */
+    public static void unsubscribe(@Nullable Consumer consumer) {
+        if (consumer == null || !consumer.subscribed) {
+            return;
+        }
+        consumer.subscribed = false;
+
+        Long2ObjectOpenHashMap<Node> nodes = networks.get(consumer.world);
+        if (nodes == null) {
+            return;
+        }
+        for (long source : consumer.sources) {
+            Node node = nodes.get(source);
+            if (node != null && node.consumers.remove(consumer) && node.consumers.isEmpty() && node.heatLevel <= 0) {
+                nodes.remove(source);
+            }
+        }
+    }
+
+    /**
+     * 移除世界中的整个网络，在世界卸载时调用。
+     */
+    public static void clear(ServerWorld world) {
+        networks.remove(world);
+    }
+}
@@ -1,6 +1,5 @@
 package org.foodcraft.util;
 
-import net.minecraft.nbt.NbtCompound;
 import net.minecraft.util.math.MathHelper;
 
 import java.util.function.Consumer;
@@ -9,22 +8,16 @@ import java.util.function.Consumer;
  * 自定义动画状态管理类
  * <p>
  * 用于跟踪和控制动画的播放状态、时间进度和循环行为。
- * 支持 NBT 序列化，可在服务端和客户端之间同步状态。
  * </p>
  *
- * <p><b>重要提示：</b>此类设计为可在服务端和客户端同时使用，通过 NBT 序列化确保数据同步。</p>
- * <p>如果动画状态未正确同步，可能导致不同客户端观察到不一致的动画表现。</p>
+ * <p><b>重要提示：</b>此类只在客户端渲染时使用，服务端不跟踪动画时间。
+ * 服务端通过{@link AnimationSyncState}同步动画是否运行，客户端用{@link #follow}跟随启动或停止。</p>
  */
 public class ModAnimationState {
     /** 停止状态的特殊标记值 */
     private static final long STOPPED = Long.MAX_VALUE;
 
-
-    private static final String NBT_KEY_IS_RUNNING = "IsRunning";
-
     // 状态字段
-    /** 动画是否正在运行 。一般由服务端保存 ，因为服务端无法直接操作{@linkplain #updatedAt}。*/
-    public boolean isRunning;
 
     /** 上次更新时间（毫秒） */
     public long updatedAt = STOPPED;
@@ -51,44 +44,6 @@ public class ModAnimationState {
         // 默认构造函数
     }
 
-    // NBT 序列化方法
-
-    /**
-     * 将动画状态写入 NBT 数据
-     *
-     * @param nbt 要写入的 NBT 数据对象
-     * @return NBT 数据
-     */
-    public NbtCompound writeToNbt(NbtCompound nbt) {
-        nbt.putBoolean(NBT_KEY_IS_RUNNING, this.isRunning);
-
-        return nbt;
-    }
-
-    /**
-     * 从 NBT 数据读取动画状态
-     *
-     * @param nbt NBT 数据
-     */
-    public void readFromNbt(NbtCompound nbt) {
-        if (nbt == null) {
-            return;
-        }
-
-        if (nbt.contains(NBT_KEY_IS_RUNNING)) {
-            this.isRunning = nbt.getBoolean(NBT_KEY_IS_RUNNING);
-        }
-    }
-
-    /**
-     * 创建包含当前动画状态的 NBT 数据
-     *
-     * @return 包含动画状态的 NBT 数据
-     */
-    public NbtCompound toNbt() {
-        return writeToNbt(new NbtCompound());
-    }
-
     /**
      * 复制另一个动画状态实例的状态
      *
@@ -106,7 +61,7 @@ public class ModAnimationState {
     // 动画控制方法
 
     /**
-     * 检查动画是否应该运行（用于服务端逻辑判断）
+     * 根据业务逻辑启动或停止动画
      *
      * @param shouldRun 根据业务逻辑判断是否应该运行
      * @param age 实体年龄（tick数）
@@ -134,10 +89,17 @@ public class ModAnimationState {
     }
 
     /**
-     * 检查动画是否处于有效运行状态（同时检查标记和更新时间）
+     * 跟随服务端同步的状态启动或停止动画
+     *
+     * @param syncState    服务端同步的动画状态
+     * @param elapsedTicks 同步状态开始运行后经过的tick数，与之后传给{@link #update}的动画进度一致
      */
-    public boolean isEffectivelyRunning() {
-        return this.isRunning && this.isRunning();
+    public void follow(AnimationSyncState syncState, float elapsedTicks) {
+        if (syncState.isRunning()) {
+            this.startIfNotRunning(MathHelper.floor(elapsedTicks));
+        } else if (this.isRunning()) {
+            this.stop();
+        }
     }
 
     /**
@@ -0,0 +1,139 @@
+package org.foodcraft.util;
+
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import org.foodcraft.registry.ModGameRules;
+
+/**
+ * 模拟细节等级 - 降低远离玩家的方块实体的tick频率
+ *
+ * <p>距离所有玩家超过{@link ModGameRules#SIMULATION_LOD_DISTANCE}格的方块实体每
+ * {@link ModGameRules#SIMULATION_LOD_INTERVAL}个tick才运行一次，并一次性模拟期间累计的所有tick。
+ * 方块实体需要保证一次模拟多个tick与逐tick模拟的结果相同；任何外部修改（物品栏变化、热量变化等）
+ * 发生前都应通过{@link Clock#drain()}先补上累计的tick。</p>
+ *
+ * <p>各等级的运行次数和模拟的tick数会被统计，可通过{@code /foodcraft lod}查看。</p>
+ *
+ * <h2>使用示例</h2>
+ * <pre>{@code
+ * int ticks = blockEntity.lodClock.advance(world, pos);
+ * if (ticks > 0) {
+ *     blockEntity.simulate(world, ticks);
+ * }
+ * }</pre>
+ */
+public class SimulationLod {
+    /** 重新计算细节等级的间隔 */
+    private static final int LEVEL_CHECK_INTERVAL = 20;
+
+    private static final long[] updates = new long[Level.values().length];
+    private static final long[] simulatedTicks = new long[Level.values().length];
+
+    public enum Level {
+        /** 附近有玩家，每tick运行 */
+        FULL,
+        /** 附近没有玩家，降低频率运行 */
+        REDUCED
+    }
+
+    /**
+     * 单个方块实体的模拟时钟，记录尚未模拟的tick数
+     */
+    public static final class Clock {
+        private int pendingTicks;
+        private Level level = Level.FULL;
+        private long nextLevelCheck = Long.MIN_VALUE;
+
+        /**
+         * 推进一个tick。
+         *
+         * @return 本次需要模拟的tick数，0表示本tick跳过
+         */
+        public int advance(World world, BlockPos pos) {
+            pendingTicks++;
+
+            long time = world.getTime();
+            if (time >= nextLevelCheck) {
+                level = computeLevel(world, pos);
+                nextLevelCheck = time + LEVEL_CHECK_INTERVAL;
+            }
+
+            if (level == Level.REDUCED) {
+                // 按位置错开运行的tick，避免同时加载的方块实体集中在同一tick运行
+                int interval = world.getGameRules().getInt(ModGameRules.SIMULATION_LOD_INTERVAL);
+                if (interval > 1 && Math.floorMod(time + pos.hashCode(), interval) != 0) {
+                    return 0;
+                }
+            }
+
+            int ticks = pendingTicks;
+            pendingTicks = 0;
+            updates[level.ordinal()]++;
+            simulatedTicks[level.ordinal()] += ticks;
+            return ticks;
+        }
+
+        /**
+         * 取出所有尚未模拟的tick，用于在外部修改前补上累计的tick。
+         *
+         * @return 尚未模拟的tick数
+         */
+        public int drain() {
+            int ticks = pendingTicks;
+            pendingTicks = 0;
+            if (ticks > 0) {
+                updates[level.ordinal()]++;
+                simulatedTicks[level.ordinal()] += ticks;
+            }
+            return ticks;
+        }
+
+        public Level getLevel() {
+            return level;
+        }
+
+        /**
+         * 保存尚未模拟的tick，卸载后重新加载时继续模拟，不会丢失进度
+         */
+        public void writeNbt(NbtCompound nbt) {
+            if (pendingTicks > 0) {
+                nbt.putInt("LodPendingTicks", pendingTicks);
+            }
+        }
+
+        public void readNbt(NbtCompound nbt) {
+            pendingTicks = nbt.getInt("LodPendingTicks");
+        }
+    }
+
+    private static Level computeLevel(World world, BlockPos pos) {
+        int distance = world.getGameRules().getInt(ModGameRules.SIMULATION_LOD_DISTANCE);
+        boolean playerNearby = world.isPlayerInRange(pos.getX() + 0.5, pos.getY() + 0.5, pos.getZ() + 0.5, distance);
+        return playerNearby ? Level.FULL : Level.REDUCED;
+    }
+
+    /**
+     * 获取指定等级的运行次数
+     */
+    public static long getUpdates(Level level) {
+        return updates[level.ordinal()];
+    }
+
+    /**
+     * 获取指定等级模拟的tick总数
+     */
+    public static long getSimulatedTicks(Level level) {
+        return simulatedTicks[level.ordinal()];
+    }
+
+    /**
+     * 重置所有统计
+     */
+    public static void resetCounters() {
+        for (Level level : Level.values()) {
+            updates[level.ordinal()] = 0;
+            simulatedTicks[level.ordinal()] = 0;
+        }
+    }
+}
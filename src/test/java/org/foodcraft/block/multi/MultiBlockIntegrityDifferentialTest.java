@@ -0,0 +1,336 @@
+package org.foodcraft.block.multi;
+
+import net.minecraft.block.Blocks;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.WorldView;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 完整性检查的差分测试
+ *
+ * <p>在随机生成的结构上，对两个内容完全相同的世界分别使用增量检查（只更新缓存的占用掩码）
+ * 和完整重新扫描，每一步之后两个世界中注册的方块堆必须完全一致。
+ * 另外将占用掩码上的立方体分解、连通组件和长方体打包与直接按定义实现的参考算法逐项比较。</p>
+ */
+class MultiBlockIntegrityDifferentialTest {
+    private static final int TRIALS = 300;
+    private static final int STEPS_PER_TRIAL = 12;
+
+    @BeforeAll
+    static void bootstrap() {
+        TestWorldView.bootstrap();
+    }
+
+    @Test
+    void incrementalSplitMatchesFullRescan() {
+        Random random = new Random(3);
+
+        for (int trial = 0; trial < TRIALS; trial++) {
+            // 两个世界共享同一组方块，只有注册表是独立的
+            Set<BlockPos> stones = ConcurrentHashMap.newKeySet();
+            WorldView incrementalWorld = TestWorldView.create(stones);
+            WorldView rescanWorld = TestWorldView.create(stones);
+
+            MultiBlock.PatternRange range = new MultiBlock.PatternRange(
+                    new BlockPos(random.nextInt(32) - 16, random.nextInt(32) + 48, random.nextInt(32) - 16),
+                    1 + random.nextInt(MultiBlock.MAX_SIZE),
+                    1 + random.nextInt(MultiBlock.MAX_SIZE),
+                    1 + random.nextInt(MultiBlock.MAX_SIZE));
+            forEachPos(range, stones::add);
+
+            try {
+                MultiBlock incremental = new MultiBlock(incrementalWorld, Blocks.STONE, range, true);
+                new MultiBlock(rescanWorld, Blocks.STONE, range, true);
+                // 首次检查扫描世界并缓存占用掩码，之后的增量检查不再扫描
+                assertTrue(incremental.checkIntegrity());
+
+                for (int step = 0; step < STEPS_PER_TRIAL; step++) {
+                    List<MultiBlock> structures = sortedByMaster(MultiBlockManager.getMultiBlocksInWorld(incrementalWorld));
+                    if (structures.isEmpty()) {
+                        break;
+                    }
+                    MultiBlock target = structures.get(random.nextInt(structures.size()));
+                    MultiBlock counterpart = MultiBlockManager.findMultiBlock(rescanWorld, target.getMasterPos());
+                    assertNotNull(counterpart);
+                    assertEquals(describe(List.of(target)), describe(List.of(counterpart)));
+
+                    // 随机破坏结构中的1~3个方块，偶尔只是通知一个未变化的位置
+                    List<BlockPos> changed = new ArrayList<>();
+                    int changes = 1 + random.nextInt(3);
+                    for (int i = 0; i < changes; i++) {
+                        BlockPos pos = target.getRange().getStart().add(
+                                random.nextInt(target.getRange().getWidth()),
+                                random.nextInt(target.getRange().getHeight()),
+                                random.nextInt(target.getRange().getDepth()));
+                        if (random.nextInt(6) != 0) {
+                            stones.remove(pos);
+                        }
+                        changed.add(pos);
+                    }
+
+                    List<MultiBlock> incrementalResult = changed.size() == 1
+                            ? target.checkAndSplitIntegrity(changed.get(0))
+                            : target.checkAndSplitIntegrity(changed);
+                    List<MultiBlock> rescanResult = counterpart.checkAndSplitIntegrity();
+
+                    String context = "trial " + trial + ", step " + step + ", range " + describe(List.of(counterpart))
+                            + ", changed " + changed;
+                    assertEquals(describe(rescanResult), describe(incrementalResult), context);
+                    assertEquals(describe(MultiBlockManager.getMultiBlocksInWorld(rescanWorld)),
+                            describe(MultiBlockManager.getMultiBlocksInWorld(incrementalWorld)), context);
+                }
+
+                // 最终每个剩余的结构都必须是实心的，且所有剩余的方块都属于某个结构
+                Set<BlockPos> covered = new HashSet<>();
+                for (MultiBlock multiBlock : MultiBlockManager.getMultiBlocksInWorld(incrementalWorld)) {
+                    forEachPos(multiBlock.getRange(), pos -> {
+                        assertTrue(stones.contains(pos), "hole at " + pos);
+                        assertTrue(covered.add(pos), "overlap at " + pos);
+                    });
+                }
+                assertEquals(stones, covered);
+            } finally {
+                MultiBlockManager.clearWorld(incrementalWorld);
+                MultiBlockManager.clearWorld(rescanWorld);
+            }
+        }
+    }
+
+    @Test
+    void occupancyAlgorithmsMatchReferenceImplementations() {
+        Random random = new Random(4);
+
+        for (int trial = 0; trial < 2000; trial++) {
+            int width = 1 + random.nextInt(MultiBlock.MAX_SIZE);
+            int height = 1 + random.nextInt(MultiBlock.MAX_SIZE);
+            int depth = 1 + random.nextInt(MultiBlock.MAX_SIZE);
+            boolean[] cells = randomCells(width, height, depth, trial % 5, random);
+
+            MultiBlockOccupancy occupancy = MultiBlockOccupancy.empty(width, height, depth);
+            // 以随机顺序逐个置位并偶尔反复翻转，验证计数的增量维护
+            List<Integer> order = new ArrayList<>();
+            for (int i = 0; i < cells.length; i++) {
+                order.add(i);
+            }
+            Collections.shuffle(order, random);
+            for (int index : order) {
+                if (random.nextInt(4) == 0) {
+                    occupancy.set(index, !cells[index]);
+                }
+                occupancy.set(index, cells[index]);
+            }
+
+            int expectedCount = 0;
+            for (int i = 0; i < cells.length; i++) {
+                assertEquals(cells[i], occupancy.get(i));
+                if (cells[i]) {
+                    expectedCount++;
+                }
+            }
+            String context = "trial " + trial + ", size " + width + "x" + height + "x" + depth;
+            assertEquals(expectedCount, occupancy.count(), context);
+            assertEquals(expectedCount == cells.length, occupancy.isFull(), context);
+
+            assertArrayEquals(referenceCubes(cells, width, height, depth), occupancy.decomposeIntoCubes(), context);
+            assertEquals(referenceComponents(cells, width, height, depth), components(occupancy), context);
+            assertArrayEquals(referenceBounds(cells, width, height, depth), occupancy.bounds(), context);
+            int maxSize = 1 + random.nextInt(MultiBlock.MAX_SIZE);
+            assertBoxesPartition(cells, width, height, depth, maxSize, occupancy.decomposeIntoBoxes(maxSize), context);
+        }
+    }
+
+    /**
+     * 生成随机占用：0~2为不同密度的随机分布，3为空心，4为棋盘格
+     */
+    private static boolean[] randomCells(int width, int height, int depth, int pattern, Random random) {
+        boolean[] cells = new boolean[width * height * depth];
+        double density = switch (pattern) {
+            case 0 -> 0.3;
+            case 1 -> 0.7;
+            default -> 0.95;
+        };
+        int index = 0;
+        for (int dx = 0; dx < width; dx++) {
+            for (int dy = 0; dy < height; dy++) {
+                for (int dz = 0; dz < depth; dz++, index++) {
+                    cells[index] = switch (pattern) {
+                        case 3 -> dx == 0 || dy == 0 || dz == 0 || dx == width - 1 || dy == height - 1 || dz == depth - 1;
+                        case 4 -> ((dx + dy + dz) & 1) == 0;
+                        default -> random.nextDouble() < density;
+                    };
+                }
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * 按定义实现的贪心立方体分解：边长从大到小，同一边长按扫描顺序，选择完全被占用且未被覆盖的立方体
+     */
+    private static int[] referenceCubes(boolean[] cells, int width, int height, int depth) {
+        boolean[] covered = new boolean[cells.length];
+        List<Integer> cubes = new ArrayList<>();
+        for (int size = Math.min(width, Math.min(height, depth)); size >= 1; size--) {
+            for (int x = 0; x + size <= width; x++) {
+                for (int y = 0; y + size <= height; y++) {
+                    for (int z = 0; z + size <= depth; z++) {
+                        boolean available = true;
+                        for (int dx = 0; dx < size && available; dx++) {
+                            for (int dy = 0; dy < size && available; dy++) {
+                                for (int dz = 0; dz < size && available; dz++) {
+                                    int index = ((x + dx) * height + y + dy) * depth + z + dz;
+                                    available = cells[index] && !covered[index];
+                                }
+                            }
+                        }
+                        if (!available) {
+                            continue;
+                        }
+                        for (int dx = 0; dx < size; dx++) {
+                            for (int dy = 0; dy < size; dy++) {
+                                for (int dz = 0; dz < size; dz++) {
+                                    covered[((x + dx) * height + y + dy) * depth + z + dz] = true;
+                                }
+                            }
+                        }
+                        cubes.add(((x * height + y) * depth + z) << 4 | size);
+                    }
+                }
+            }
+        }
+        return cubes.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * 按定义实现的六向连通组件，按组件中最小的位索引排序
+     */
+    private static List<Set<Integer>> referenceComponents(boolean[] cells, int width, int height, int depth) {
+        boolean[] visited = new boolean[cells.length];
+        List<Set<Integer>> components = new ArrayList<>();
+        for (int start = 0; start < cells.length; start++) {
+            if (!cells[start] || visited[start]) {
+                continue;
+            }
+            Set<Integer> component = new HashSet<>();
+            Deque<int[]> stack = new ArrayDeque<>();
+            stack.push(new int[]{start / (height * depth), start / depth % height, start % depth});
+            visited[start] = true;
+            while (!stack.isEmpty()) {
+                int[] cell = stack.pop();
+                component.add((cell[0] * height + cell[1]) * depth + cell[2]);
+                int[][] neighbours = {
+                        {cell[0] + 1, cell[1], cell[2]}, {cell[0] - 1, cell[1], cell[2]},
+                        {cell[0], cell[1] + 1, cell[2]}, {cell[0], cell[1] - 1, cell[2]},
+                        {cell[0], cell[1], cell[2] + 1}, {cell[0], cell[1], cell[2] - 1}};
+                for (int[] n : neighbours) {
+                    if (n[0] < 0 || n[1] < 0 || n[2] < 0 || n[0] >= width || n[1] >= height || n[2] >= depth) {
+                        continue;
+                    }
+                    int index = (n[0] * height + n[1]) * depth + n[2];
+                    if (cells[index] && !visited[index]) {
+                        visited[index] = true;
+                        stack.push(n);
+                    }
+                }
+            }
+            components.add(component);
+        }
+        return components;
+    }
+
+    private static List<Set<Integer>> components(MultiBlockOccupancy occupancy) {
+        List<Set<Integer>> result = new ArrayList<>();
+        for (MultiBlockOccupancy component : occupancy.connectedComponents()) {
+            Set<Integer> indices = new HashSet<>();
+            for (int i = 0; i < component.volume(); i++) {
+                if (component.get(i)) {
+                    indices.add(i);
+                }
+            }
+            assertEquals(indices.size(), component.count());
+            result.add(indices);
+        }
+        return result;
+    }
+
+    private static int[] referenceBounds(boolean[] cells, int width, int height, int depth) {
+        int[] bounds = null;
+        for (int i = 0; i < cells.length; i++) {
+            if (!cells[i]) {
+                continue;
+            }
+            int x = i / (height * depth), y = i / depth % height, z = i % depth;
+            if (bounds == null) {
+                bounds = new int[]{x, y, z, x, y, z};
+            }
+            bounds[0] = Math.min(bounds[0], x);
+            bounds[1] = Math.min(bounds[1], y);
+            bounds[2] = Math.min(bounds[2], z);
+            bounds[3] = Math.max(bounds[3], x);
+            bounds[4] = Math.max(bounds[4], y);
+            bounds[5] = Math.max(bounds[5], z);
+        }
+        return bounds;
+    }
+
+    /**
+     * 长方体打包的结果必须互不重叠、恰好覆盖所有被占用位置，且每条边不超过上限
+     */
+    private static void assertBoxesPartition(boolean[] cells, int width, int height, int depth, int maxSize, int[] boxes,
+                                             String context) {
+        boolean[] covered = new boolean[cells.length];
+        for (int b = 0; b < boxes.length; b += 4) {
+            int corner = boxes[b];
+            int x = corner / (height * depth), y = corner / depth % height, z = corner % depth;
+            assertTrue(boxes[b + 1] <= maxSize && boxes[b + 2] <= maxSize && boxes[b + 3] <= maxSize, context);
+            for (int dx = 0; dx < boxes[b + 1]; dx++) {
+                for (int dy = 0; dy < boxes[b + 2]; dy++) {
+                    for (int dz = 0; dz < boxes[b + 3]; dz++) {
+                        assertTrue(x + dx < width && y + dy < height && z + dz < depth, context);
+                        int index = ((x + dx) * height + y + dy) * depth + z + dz;
+                        assertTrue(cells[index], "box covers empty cell, " + context);
+                        assertFalse(covered[index], "boxes overlap, " + context);
+                        covered[index] = true;
+                    }
+                }
+            }
+        }
+        assertArrayEquals(cells, covered, "boxes do not cover every cell, " + context);
+    }
+
+    private static void forEachPos(MultiBlock.PatternRange range, Consumer<BlockPos> action) {
+        for (int dx = 0; dx < range.getWidth(); dx++) {
+            for (int dy = 0; dy < range.getHeight(); dy++) {
+                for (int dz = 0; dz < range.getDepth(); dz++) {
+                    action.accept(range.getStart().add(dx, dy, dz));
+                }
+            }
+        }
+    }
+
+    private static List<MultiBlock> sortedByMaster(Collection<MultiBlock> multiBlocks) {
+        List<MultiBlock> sorted = new ArrayList<>(multiBlocks);
+        sorted.sort(Comparator.comparing(MultiBlock::getMasterPos));
+        return sorted;
+    }
+
+    /**
+     * 以范围描述方块堆，按字典序排序以便比较
+     */
+    private static List<String> describe(Collection<MultiBlock> multiBlocks) {
+        List<String> descriptions = new ArrayList<>();
+        for (MultiBlock multiBlock : multiBlocks) {
+            MultiBlock.PatternRange range = multiBlock.range;
+            descriptions.add(range.getStart() + " " + range.getWidth() + "x" + range.getHeight() + "x" + range.getDepth());
+        }
+        Collections.sort(descriptions);
+        return descriptions;
+    }
+}
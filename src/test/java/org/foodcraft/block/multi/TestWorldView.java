@@ -0,0 +1,47 @@
+package org.foodcraft.block.multi;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.WorldView;
+
+import java.lang.reflect.Proxy;
+import java.util.Set;
+
+/**
+ * 测试用的世界视图
+ *
+ * <p>只实现{@link WorldView#getBlockState(BlockPos)}：集合中的位置为石头，其余位置为空气。
+ * 既不是{@link net.minecraft.world.World}也不是{@link net.minecraft.server.world.ServerWorld}，
+ * 因此注册到{@link MultiBlockManager}时不会触发持久化。每个实例作为独立的世界键。</p>
+ */
+final class TestWorldView {
+    private TestWorldView() {
+    }
+
+    /**
+     * 初始化游戏注册表，测试中使用{@link Blocks}前调用
+     */
+    static void bootstrap() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+    }
+
+    /**
+     * 创建以指定位置为石头的世界视图，集合在创建后仍可修改
+     */
+    static WorldView create(Set<BlockPos> stonePositions) {
+        BlockState stone = Blocks.STONE.getDefaultState();
+        BlockState air = Blocks.AIR.getDefaultState();
+        return (WorldView) Proxy.newProxyInstance(TestWorldView.class.getClassLoader(), new Class<?>[]{WorldView.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getBlockState" -> stonePositions.contains((BlockPos) args[0]) ? stone : air;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "TestWorldView@" + Integer.toHexString(System.identityHashCode(proxy));
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
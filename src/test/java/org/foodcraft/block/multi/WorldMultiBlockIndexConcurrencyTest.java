@@ -0,0 +1,370 @@
+package org.foodcraft.block.multi;
+
+import net.minecraft.block.Blocks;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.WorldView;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 方块堆注册表的并发压力测试
+ *
+ * <p>多个写线程反复注册、注销和替换方块堆，同时多个读线程不加锁地按坐标查找。
+ * 方块堆放置在互不重叠的槽位中，槽位跨越区块段边界，因此同一个区块段的候选数组会被多个写线程交替复制。
+ * 一部分槽位在测试期间保持不变，读线程必须始终能找到它们；结束后核对区块段索引与主方块映射完全一致。</p>
+ */
+class WorldMultiBlockIndexConcurrencyTest {
+    private static final int WRITERS = 4;
+    private static final int READERS = 4;
+    private static final int OPERATIONS_PER_WRITER = 20_000;
+    /** 槽位间距，比最大尺寸多留一格空隙 */
+    private static final int SLOT_SPACING = MultiBlock.MAX_SIZE + 1;
+
+    /** 槽位的主方块坐标，跨越X、Y、Z三个方向上的区块段边界 */
+    private static final List<BlockPos> SLOTS = new ArrayList<>();
+
+    static {
+        for (int i = 0; i < 6; i++) {
+            for (int j = 0; j < 2; j++) {
+                for (int k = 0; k < 4; k++) {
+                    SLOTS.add(new BlockPos(-24 + SLOT_SPACING * i, 58 + SLOT_SPACING * j, -12 + SLOT_SPACING * k));
+                }
+            }
+        }
+    }
+
+    @BeforeAll
+    static void bootstrap() {
+        TestWorldView.bootstrap();
+    }
+
+    private static boolean isStable(int slot) {
+        return slot % 3 == 0;
+    }
+
+    private static MultiBlock.PatternRange randomRange(BlockPos origin, Random random) {
+        return new MultiBlock.PatternRange(origin,
+                1 + random.nextInt(MultiBlock.MAX_SIZE),
+                1 + random.nextInt(MultiBlock.MAX_SIZE),
+                1 + random.nextInt(MultiBlock.MAX_SIZE));
+    }
+
+    private static BlockPos randomPosIn(MultiBlock.PatternRange range, Random random) {
+        return range.getStart().add(random.nextInt(range.getWidth()), random.nextInt(range.getHeight()),
+                random.nextInt(range.getDepth()));
+    }
+
+    @Test
+    void indexStaysConsistentUnderConcurrentPutRemoveAndFind() throws Exception {
+        WorldView world = TestWorldView.create(Set.of());
+        WorldMultiBlockIndex index = new WorldMultiBlockIndex();
+        AtomicReferenceArray<MultiBlock> current = new AtomicReferenceArray<>(SLOTS.size());
+
+        Random setupRandom = new Random(1);
+        for (int slot = 0; slot < SLOTS.size(); slot++) {
+            if (isStable(slot)) {
+                MultiBlock multiBlock = new MultiBlock(world, Blocks.STONE, randomRange(SLOTS.get(slot), setupRandom), false);
+                synchronized (index) {
+                    index.put(multiBlock);
+                }
+                current.set(slot, multiBlock);
+            }
+        }
+
+        runConcurrently(
+                writer -> {
+                    Random random = new Random(100 + writer);
+                    for (int op = 0; op < OPERATIONS_PER_WRITER; op++) {
+                        int slot = random.nextInt(SLOTS.size());
+                        if (isStable(slot) || slot % WRITERS != writer) {
+                            continue;
+                        }
+                        MultiBlock existing = current.get(slot);
+                        if (existing != null && random.nextInt(3) == 0) {
+                            synchronized (index) {
+                                assertTrue(index.remove(existing), "remove of registered instance failed");
+                            }
+                            current.set(slot, null);
+                        } else {
+                            // 在同一主方块坐标上以不同尺寸替换，覆盖区块段会随之改变
+                            MultiBlock replacement = new MultiBlock(world, Blocks.STONE, randomRange(SLOTS.get(slot), random), false);
+                            synchronized (index) {
+                                index.put(replacement);
+                            }
+                            current.set(slot, replacement);
+                        }
+                    }
+                },
+                (reader, random) -> {
+                    int slot = random.nextInt(SLOTS.size());
+                    BlockPos origin = SLOTS.get(slot);
+                    MultiBlock stable = isStable(slot) ? current.get(slot) : null;
+                    BlockPos pos = stable != null
+                            ? randomPosIn(stable.range, random)
+                            : origin.add(random.nextInt(MultiBlock.MAX_SIZE), random.nextInt(MultiBlock.MAX_SIZE),
+                            random.nextInt(MultiBlock.MAX_SIZE));
+
+                    MultiBlock found = index.findContaining(pos);
+                    if (found != null) {
+                        assertTrue(found.range.contains(pos), "found structure does not contain " + pos);
+                        assertEquals(origin, found.getMasterPos(), "found structure of another slot at " + pos);
+                    }
+                    if (stable != null) {
+                        assertSame(stable, found, "stable structure hidden at " + pos);
+                    }
+
+                    MultiBlock byMaster = index.getByMaster(origin);
+                    if (byMaster != null) {
+                        assertEquals(origin, byMaster.getMasterPos());
+                    }
+                    // 槽位之间的空隙永远不属于任何方块堆
+                    assertNull(index.findContaining(origin.add(SLOT_SPACING - 1, 0, 0)));
+                });
+
+        for (int slot = 0; slot < SLOTS.size(); slot++) {
+            MultiBlock expected = current.get(slot);
+            assertSame(expected, index.getByMaster(SLOTS.get(slot)), "slot " + slot);
+            if (expected != null) {
+                assertSame(expected, index.findContaining(expected.range.getEnd()), "slot " + slot);
+            }
+        }
+        assertIndexConsistent(index);
+    }
+
+    @Test
+    void registryStaysConsistentUnderConcurrentRegisterUnregisterAndFind() throws Exception {
+        WorldView world = TestWorldView.create(Set.of());
+        AtomicReferenceArray<MultiBlock> current = new AtomicReferenceArray<>(SLOTS.size());
+
+        Random setupRandom = new Random(2);
+        for (int slot = 0; slot < SLOTS.size(); slot++) {
+            if (isStable(slot)) {
+                MultiBlock multiBlock = new MultiBlock(world, Blocks.STONE, randomRange(SLOTS.get(slot), setupRandom), false);
+                assertTrue(MultiBlockManager.registerMultiBlock(multiBlock));
+                current.set(slot, multiBlock);
+            }
+        }
+
+        try {
+            runConcurrently(
+                    writer -> {
+                        Random random = new Random(200 + writer);
+                        for (int op = 0; op < OPERATIONS_PER_WRITER; op++) {
+                            int slot = random.nextInt(SLOTS.size());
+                            if (isStable(slot) || slot % WRITERS != writer) {
+                                continue;
+                            }
+                            MultiBlock existing = current.get(slot);
+                            if (existing != null) {
+                                assertTrue(MultiBlockManager.unregisterMultiBlock(existing), "unregister failed");
+                                current.set(slot, null);
+                            } else {
+                                MultiBlock multiBlock = new MultiBlock(world, Blocks.STONE, randomRange(SLOTS.get(slot), random), false);
+                                assertTrue(MultiBlockManager.registerMultiBlock(multiBlock), "register failed");
+                                current.set(slot, multiBlock);
+                            }
+                        }
+                    },
+                    (reader, random) -> {
+                        int slot = random.nextInt(SLOTS.size());
+                        BlockPos origin = SLOTS.get(slot);
+                        MultiBlock stable = isStable(slot) ? current.get(slot) : null;
+                        BlockPos pos = stable != null
+                                ? randomPosIn(stable.range, random)
+                                : origin.add(random.nextInt(MultiBlock.MAX_SIZE), random.nextInt(MultiBlock.MAX_SIZE),
+                                random.nextInt(MultiBlock.MAX_SIZE));
+
+                        MultiBlock found = MultiBlockManager.findMultiBlock(world, pos);
+                        if (found != null) {
+                            assertTrue(found.range.contains(pos), "found structure does not contain " + pos);
+                            assertEquals(origin, found.getMasterPos(), "found structure of another slot at " + pos);
+                        }
+                        if (stable != null) {
+                            assertSame(stable, found, "stable structure hidden at " + pos);
+                            assertTrue(MultiBlockManager.isRegistered(stable));
+                            assertTrue(MultiBlockManager.isPositionOccupied(world, origin));
+                        }
+                    });
+
+            int expectedCount = 0;
+            for (int slot = 0; slot < SLOTS.size(); slot++) {
+                MultiBlock expected = current.get(slot);
+                assertSame(expected, MultiBlockManager.findMultiBlock(world, SLOTS.get(slot)), "slot " + slot);
+                if (expected != null) {
+                    assertTrue(MultiBlockManager.isRegistered(expected));
+                    expectedCount++;
+                }
+            }
+            assertEquals(expectedCount, MultiBlockManager.getMultiBlocksInWorld(world).size());
+
+            WorldMultiBlockIndex index = MultiBlockManager.getWorldIndex(world);
+            assertNotNull(index);
+            assertIndexConsistent(index);
+        } finally {
+            MultiBlockManager.clearWorld(world);
+        }
+    }
+
+    @Test
+    void concurrentRegistrationAtSameMasterHasSingleWinner() throws Exception {
+        WorldView world = TestWorldView.create(Set.of());
+        BlockPos master = new BlockPos(15, 63, 15);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            for (int round = 0; round < 200; round++) {
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<MultiBlock>> results = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    int size = 1 + (t + round) % MultiBlock.MAX_SIZE;
+                    results.add(executor.submit(() -> {
+                        MultiBlock multiBlock = new MultiBlock(world, Blocks.STONE,
+                                new MultiBlock.PatternRange(master, size, size, size), false);
+                        start.await();
+                        return MultiBlockManager.registerMultiBlock(multiBlock) ? multiBlock : null;
+                    }));
+                }
+                start.countDown();
+
+                List<MultiBlock> winners = new ArrayList<>();
+                for (Future<MultiBlock> result : results) {
+                    MultiBlock winner = result.get(10, TimeUnit.SECONDS);
+                    if (winner != null) {
+                        winners.add(winner);
+                    }
+                }
+                assertEquals(1, winners.size(), "round " + round);
+                assertSame(winners.get(0), MultiBlockManager.findMultiBlock(world, master));
+                assertIndexConsistent(MultiBlockManager.getWorldIndex(world));
+
+                assertTrue(MultiBlockManager.unregisterMultiBlock(winners.get(0)));
+                assertNull(MultiBlockManager.findMultiBlock(world, master));
+            }
+        } finally {
+            executor.shutdownNow();
+            MultiBlockManager.clearWorld(world);
+        }
+    }
+
+    /**
+     * 区块段索引中的每一项都必须对应主方块映射中的同一实例，且恰好登记在其范围覆盖的所有区块段中
+     */
+    static void assertIndexConsistent(WorldMultiBlockIndex index) {
+        Map<Long, MultiBlock[]> sections = index.sectionView();
+
+        int expectedEntries = 0;
+        for (MultiBlock multiBlock : index.values()) {
+            assertSame(multiBlock, index.getByMaster(multiBlock.getMasterPos()));
+            for (long key : sectionsOf(multiBlock.range)) {
+                MultiBlock[] candidates = sections.get(key);
+                assertNotNull(candidates, "missing section for " + multiBlock.getMasterPos());
+                int occurrences = 0;
+                for (MultiBlock candidate : candidates) {
+                    if (candidate == multiBlock) {
+                        occurrences++;
+                    }
+                }
+                assertEquals(1, occurrences, "section entries for " + multiBlock.getMasterPos());
+                expectedEntries++;
+            }
+        }
+
+        int actualEntries = 0;
+        for (Map.Entry<Long, MultiBlock[]> entry : sections.entrySet()) {
+            assertTrue(entry.getValue().length > 0, "empty section array left behind");
+            for (MultiBlock candidate : entry.getValue()) {
+                assertSame(candidate, index.getByMaster(candidate.getMasterPos()), "stale section entry");
+                assertTrue(sectionsOf(candidate.range).contains(entry.getKey()), "entry in uncovered section");
+                actualEntries++;
+            }
+        }
+        assertEquals(expectedEntries, actualEntries);
+    }
+
+    private static Set<Long> sectionsOf(MultiBlock.PatternRange range) {
+        Set<Long> keys = new HashSet<>();
+        BlockPos start = range.getStart();
+        BlockPos end = range.getEnd();
+        for (int sx = ChunkSectionPos.getSectionCoord(start.getX()); sx <= ChunkSectionPos.getSectionCoord(end.getX()); sx++) {
+            for (int sy = ChunkSectionPos.getSectionCoord(start.getY()); sy <= ChunkSectionPos.getSectionCoord(end.getY()); sy++) {
+                for (int sz = ChunkSectionPos.getSectionCoord(start.getZ()); sz <= ChunkSectionPos.getSectionCoord(end.getZ()); sz++) {
+                    keys.add(ChunkSectionPos.asLong(sx, sy, sz));
+                }
+            }
+        }
+        return keys;
+    }
+
+    private interface Writer {
+        void run(int writer) throws Exception;
+    }
+
+    private interface ReadCheck {
+        void run(int reader, Random random);
+    }
+
+    /**
+     * 并发运行写线程，读线程在写线程全部结束前不断执行检查，任一线程的断言失败都会使测试失败
+     */
+    private static void runConcurrently(Writer writer, ReadCheck readCheck) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS + READERS);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicInteger reads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int w = 0; w < WRITERS; w++) {
+                int id = w;
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    writer.run(id);
+                    return null;
+                }));
+            }
+            List<Future<?>> readers = new ArrayList<>();
+            for (int r = 0; r < READERS; r++) {
+                int id = r;
+                readers.add(executor.submit(() -> {
+                    Random random = new Random(300 + id);
+                    start.await();
+                    while (writing.get()) {
+                        readCheck.run(id, random);
+                        reads.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            try {
+                for (Future<?> future : writers) {
+                    future.get(60, TimeUnit.SECONDS);
+                }
+            } finally {
+                writing.set(false);
+            }
+            for (Future<?> future : readers) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+            assertTrue(reads.get() > 0, "readers never ran");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.foodcraft.block.process.playeraction.impl;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.item.Items;
+import org.foodcraft.block.process.playeraction.PlayerAction;
+import org.foodcraft.block.process.playeraction.PlayerActionSequenceKey;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 添加物品操作的规范化实例测试
+ */
+class AddItemPlayerActionTest {
+    @BeforeAll
+    static void bootstrap() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+    }
+
+    @Test
+    void internsSameItemAndCountToOneInstance() {
+        AddItemPlayerAction first = AddItemPlayerAction.of(Items.BREAD, 2);
+        AddItemPlayerAction second = AddItemPlayerAction.fromParams(new String[]{"minecraft:bread", "2"});
+
+        assertSame(first, second);
+        assertSame(AddItemPlayerAction.of(Items.BREAD), AddItemPlayerAction.of(Items.BREAD, 1));
+        assertNotSame(first, AddItemPlayerAction.of(Items.BREAD, 1));
+        assertNotSame(first, AddItemPlayerAction.of(Items.APPLE, 2));
+    }
+
+    @Test
+    void sequenceKeysFromInternedActionsFindTheSameEntry() {
+        Map<PlayerActionSequenceKey, String> cache = new HashMap<>();
+        List<PlayerAction> registered = List.of(AddItemPlayerAction.of(Items.BREAD), AddItemPlayerAction.of(Items.APPLE, 3));
+        cache.put(new PlayerActionSequenceKey(Items.BOWL, registered), "model");
+
+        // 与注册时分别获取的实例，模拟模型加载和运行时各自从参数中恢复操作
+        List<PlayerAction> lookup = List.of(
+                AddItemPlayerAction.fromParams(new String[]{"minecraft:bread"}),
+                AddItemPlayerAction.fromParams(new String[]{"minecraft:apple", "3"}));
+
+        assertEquals("model", cache.get(new PlayerActionSequenceKey(Items.BOWL, lookup)));
+        assertNull(cache.get(new PlayerActionSequenceKey(Items.BOWL, List.of(AddItemPlayerAction.of(Items.BREAD)))));
+    }
+}
@@ -0,0 +1,144 @@
+package org.foodcraft.recipe;
+
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 额外物品匹配器的单元测试，重点是配料之间有重叠物品时的分配
+ */
+class ExtraItemMatcherTest {
+    private static IntSet ids(int... ids) {
+        return new IntOpenHashSet(ids);
+    }
+
+    private static ExtraItemMatcher matcher(IntSet[] itemIds, int... amounts) {
+        return new ExtraItemMatcher(itemIds, amounts);
+    }
+
+    private static boolean matches(ExtraItemMatcher matcher, int... units) {
+        return matcher.matches(units, units.length);
+    }
+
+    @Test
+    void reassignsOverlappingItemWhenGreedyOrderFails() {
+        // 物品1同时满足两个要求，按顺序贪心地把它分给第一个要求后，物品2就无处可放
+        ExtraItemMatcher matcher = matcher(new IntSet[]{ids(1, 2), ids(1)}, 1, 1);
+
+        assertTrue(matches(matcher, 1, 2));
+        assertTrue(matches(matcher, 2, 1));
+        assertFalse(matches(matcher, 2, 2));
+        assertFalse(matches(matcher, 1, 1, 2));
+    }
+
+    @Test
+    void respectsCapacityOfOverlappingRequirements() {
+        ExtraItemMatcher matcher = matcher(new IntSet[]{ids(1, 2), ids(2, 3)}, 2, 1);
+
+        assertTrue(matches(matcher, 2, 2, 2));
+        assertTrue(matches(matcher, 2, 2, 1));
+        assertTrue(matches(matcher, 3, 2, 1));
+        assertFalse(matches(matcher, 3, 3, 1));
+        assertFalse(matches(matcher, 1, 1, 1));
+    }
+
+    @Test
+    void needsLongAugmentingPathThroughSeveralRequirements() {
+        // 每个物品都先落在链上的前一个要求里，最后一个物品需要沿整条链依次让位
+        ExtraItemMatcher matcher = matcher(new IntSet[]{ids(1, 2), ids(2, 3), ids(3, 4), ids(1)}, 1, 1, 1, 1);
+
+        assertTrue(matches(matcher, 1, 2, 3, 4));
+        assertTrue(matches(matcher, 4, 3, 2, 1));
+        assertFalse(matches(matcher, 2, 2, 2, 4));
+    }
+
+    @Test
+    void rejectsWrongNumberOfExtras() {
+        ExtraItemMatcher matcher = matcher(new IntSet[]{ids(1), ids(2)}, 1, 2);
+
+        assertTrue(matches(matcher, 1, 2, 2));
+        assertFalse(matches(matcher, 1, 2));
+        assertFalse(matches(matcher, 1, 2, 2, 2));
+        assertFalse(matches(matcher, 1, 2, 7));
+    }
+
+    @Test
+    void withoutRequirementsOnlyMatchesNoExtras() {
+        ExtraItemMatcher matcher = matcher(new IntSet[0]);
+
+        assertTrue(matches(matcher));
+        assertFalse(matches(matcher, 1));
+    }
+
+    @Test
+    void onlyReadsTheGivenPrefixOfTheUnitBuffer() {
+        ExtraItemMatcher matcher = matcher(new IntSet[]{ids(5)}, 2);
+        int[] units = ExtraItemMatcher.unitBuffer(10);
+        assertTrue(units.length >= 10);
+        Arrays.fill(units, 9);
+        units[0] = 5;
+        units[1] = 5;
+
+        assertTrue(matcher.matches(units, 2));
+        assertFalse(matcher.matches(units, 3));
+    }
+
+    @Test
+    void agreesWithExhaustiveSearchOnRandomOverlappingRequirements() {
+        Random random = new Random(23);
+
+        for (int trial = 0; trial < 5000; trial++) {
+            int requirementCount = random.nextInt(5);
+            IntSet[] itemIds = new IntSet[requirementCount];
+            int[] amounts = new int[requirementCount];
+            int total = 0;
+            for (int i = 0; i < requirementCount; i++) {
+                itemIds[i] = new IntOpenHashSet();
+                int size = 1 + random.nextInt(3);
+                for (int j = 0; j < size; j++) {
+                    itemIds[i].add(random.nextInt(6));
+                }
+                amounts[i] = 1 + random.nextInt(3);
+                total += amounts[i];
+            }
+
+            // 大多数情况下物品数与要求总数相同，才会真正进入分配
+            int unitCount = random.nextInt(4) == 0 ? random.nextInt(total + 2) : total;
+            int[] units = new int[unitCount];
+            for (int u = 0; u < unitCount; u++) {
+                units[u] = random.nextInt(6);
+            }
+
+            boolean expected = unitCount == total && exhaustive(itemIds, amounts, units, 0, new int[requirementCount]);
+            ExtraItemMatcher matcher = new ExtraItemMatcher(itemIds, amounts);
+            assertEquals(expected, matcher.matches(units, unitCount),
+                    "trial " + trial + ": requirements " + Arrays.toString(itemIds) + " x " + Arrays.toString(amounts)
+                            + ", units " + Arrays.toString(units));
+        }
+    }
+
+    /**
+     * 穷举每个物品的所有分配方式
+     */
+    private static boolean exhaustive(IntSet[] itemIds, int[] amounts, int[] units, int unit, int[] loads) {
+        if (unit == units.length) {
+            return Arrays.equals(loads, amounts);
+        }
+        for (int i = 0; i < itemIds.length; i++) {
+            if (itemIds[i].contains(units[unit]) && loads[i] < amounts[i]) {
+                loads[i]++;
+                boolean found = exhaustive(itemIds, amounts, units, unit + 1, loads);
+                loads[i]--;
+                if (found) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}